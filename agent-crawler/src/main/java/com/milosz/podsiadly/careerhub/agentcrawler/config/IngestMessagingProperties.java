@@ -30,6 +30,7 @@ public class IngestMessagingProperties {
         private String theProtocolUrlsRetry;
         private String theProtocolUrlsDlq;
         private String externalOffers;
+        private String seenOffers;
     }
 
     @Getter @Setter
@@ -47,5 +48,6 @@ public class IngestMessagingProperties {
         private String theProtocolUrlsRetry;
         private String theProtocolUrlsDlq;
         private String externalOffers;
+        private String seenOffers;
     }
 }
@@ -112,4 +112,19 @@ public class RabbitConfig {
                 .with(props.getRouting().getExternalOffers());
     }
 
+    @Bean
+    public Queue seenOffersQueue(IngestMessagingProperties props) {
+        return QueueBuilder.durable(props.getQueue().getSeenOffers()).build();
+    }
+
+    @Bean
+    public Binding seenOffersBinding(Queue seenOffersQueue,
+                                     DirectExchange jobsExchange,
+                                     IngestMessagingProperties props) {
+        return BindingBuilder
+                .bind(seenOffersQueue)
+                .to(jobsExchange)
+                .with(props.getRouting().getSeenOffers());
+    }
+
 }
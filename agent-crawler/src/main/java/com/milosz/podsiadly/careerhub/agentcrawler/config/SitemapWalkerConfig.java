@@ -0,0 +1,27 @@
+package com.milosz.podsiadly.careerhub.agentcrawler.config;
+
+import com.milosz.podsiadly.crawler.sitemap.FileSitemapProgress;
+import com.milosz.podsiadly.crawler.sitemap.HostLimiter;
+import com.milosz.podsiadly.crawler.sitemap.SitemapProgress;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Configuration
+public class SitemapWalkerConfig {
+
+    @Bean
+    public HostLimiter sitemapHostLimiter(@Value("${agent.sitemap.per-host-concurrency:2}") int perHost,
+                                          @Value("${agent.sitemap.per-host-rate:1.0}") double rate) {
+        return new HostLimiter(perHost, rate);
+    }
+
+    @Bean
+    public SitemapProgress sitemapProgress(@Value("${agent.sitemap.progress-dir:${java.io.tmpdir}/careerhub-sitemap-progress}") String dir,
+                                           @Value("${agent.sitemap.resume-window:PT12H}") Duration resumeWindow) {
+        return new FileSitemapProgress(Path.of(dir), resumeWindow);
+    }
+}
@@ -0,0 +1,18 @@
+package com.milosz.podsiadly.careerhub.agentcrawler.config;
+
+import io.micrometer.java21.instrument.binder.jdk.VirtualThreadMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadMetricsConfig {
+
+    /** Publishes jvm.threads.virtual.pinned; Playwright's synchronous driver is the usual source of pins. */
+    @Bean
+    VirtualThreadMetrics virtualThreadMetrics() {
+        return new VirtualThreadMetrics();
+    }
+}
@@ -0,0 +1,10 @@
+package com.milosz.podsiadly.careerhub.agentcrawler.mq;
+
+import java.time.Instant;
+import java.util.List;
+
+public record SeenOffersMessage(
+        String source,
+        List<String> externalIds,
+        Instant seenAt
+) {}
@@ -0,0 +1,77 @@
+package com.milosz.podsiadly.careerhub.agentcrawler.mq;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.milosz.podsiadly.careerhub.agentcrawler.config.IngestMessagingProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Publishes the external ids a listing pass saw, so the backend can bump last_seen_at in bulk,
+ * and remembers which ids recently had their details sent so unchanged offers are not refetched
+ * on every run.
+ */
+@Slf4j
+@Component
+public class SeenOffersPublisher {
+
+    private static final int CHUNK = 5_000;
+
+    private final RabbitTemplate rabbitTemplate;
+    private final IngestMessagingProperties props;
+    private final Cache<String, Boolean> detailsSent;
+
+    public SeenOffersPublisher(RabbitTemplate rabbitTemplate,
+                               IngestMessagingProperties props,
+                               @Value("${agent.seen.detail-refresh:P3D}") Duration detailRefresh,
+                               @Value("${agent.seen.max-tracked:500000}") long maxTracked) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.props = props;
+        this.detailsSent = Caffeine.newBuilder()
+                .expireAfterWrite(detailRefresh)
+                .maximumSize(maxTracked)
+                .build();
+    }
+
+    /**
+     * Returns true (and records the id) when details for this offer were not sent within the
+     * refresh window; false means the listing hit alone is enough.
+     */
+    public boolean claimDetails(String source, String externalId) {
+        String key = source + ":" + externalId;
+        return detailsSent.asMap().putIfAbsent(key, Boolean.TRUE) == null;
+    }
+
+    public void releaseDetails(String source, String externalId) {
+        detailsSent.invalidate(source + ":" + externalId);
+    }
+
+    public void publish(String source, Collection<String> externalIds, Instant seenAt) {
+        if (externalIds == null || externalIds.isEmpty()) return;
+
+        String routingKey = props.getRouting().getSeenOffers();
+        if (routingKey == null || routingKey.isBlank()) {
+            throw new IllegalStateException("jobs.ingest.routing.seenOffers is empty");
+        }
+
+        List<String> ids = new ArrayList<>(externalIds);
+        int chunks = 0;
+        for (int i = 0; i < ids.size(); i += CHUNK) {
+            List<String> slice = List.copyOf(ids.subList(i, Math.min(i + CHUNK, ids.size())));
+            rabbitTemplate.convertAndSend(props.getExchange(), routingKey,
+                    new SeenOffersMessage(source, slice, seenAt));
+            chunks++;
+        }
+
+        log.info("[mq] seen-set published source={} ids={} chunks={} routingKey={}",
+                source, ids.size(), chunks, routingKey);
+    }
+}
@@ -1,12 +1,14 @@
 package com.milosz.podsiadly.careerhub.agentcrawler.nfj;
 
 import com.milosz.podsiadly.careerhub.agentcrawler.mq.NfjJobPublisher;
+import com.milosz.podsiadly.careerhub.agentcrawler.mq.SeenOffersPublisher;
 import com.milosz.podsiadly.careerhub.agentcrawler.nfj.api.NfjApiClient;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
@@ -20,6 +22,9 @@ public class NfjCrawlerScheduler {
 
     private final NfjApiClient apiClient;
     private final NfjJobPublisher publisher;
+    private final SeenOffersPublisher seenPublisher;
+
+    private static final String SOURCE = "NOFLUFFJOBS";
 
     private final AtomicLong totalSentSinceStart = new AtomicLong(0);
 
@@ -56,6 +61,7 @@ public class NfjCrawlerScheduler {
 
     private void runOnce() {
         try {
+            Instant startedAt = Instant.now();
             Map<String, String> allRefs = new LinkedHashMap<>();
 
             Set<String> seenIdsThisRun = new LinkedHashSet<>();
@@ -72,9 +78,20 @@ public class NfjCrawlerScheduler {
 
             log.info("[agent-nfj] NFJ merged unique urls across all slugs={}", allRefs.size());
 
+            try {
+                seenPublisher.publish(SOURCE, allRefs.keySet(), startedAt);
+            } catch (Exception e) {
+                log.warn("[agent-nfj] seen-set publish FAILED ids={} err={}", allRefs.size(), e.toString());
+            }
+
             int sentThisRun = 0;
+            int skippedSeen = 0;
             for (Map.Entry<String, String> entry : allRefs.entrySet()) {
-                publisher.publishUrl(entry.getValue(), "NOFLUFFJOBS", entry.getKey());
+                if (!seenPublisher.claimDetails(SOURCE, entry.getKey())) {
+                    skippedSeen++;
+                    continue;
+                }
+                publisher.publishUrl(entry.getValue(), SOURCE, entry.getKey());
                 sentThisRun++;
             }
 
@@ -82,6 +99,7 @@ public class NfjCrawlerScheduler {
 
             log.info("====== NFJ RUN COMPLETE ======");
             log.info("NFJ offers fetched & sent this run (after merge+id-dedupe) = {}", sentThisRun);
+            log.info("NFJ offers only marked seen (details sent recently)      = {}", skippedSeen);
             log.info("NFJ offers sent to queue since start                      = {}", total);
             log.info("================================");
 
@@ -3,6 +3,7 @@ package com.milosz.podsiadly.careerhub.agentcrawler.pracuj;
 import com.google.common.util.concurrent.RateLimiter;
 import com.milosz.podsiadly.careerhub.agentcrawler.mq.ExternalOfferMessage;
 import com.milosz.podsiadly.careerhub.agentcrawler.mq.ExternalOfferPublisher;
+import com.milosz.podsiadly.careerhub.agentcrawler.mq.SeenOffersPublisher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -23,6 +24,7 @@ public class PracujCrawlerScheduler {
     private final PracujDetailsClient detailsClient;
     private final PracujParser parser;
     private final ExternalOfferPublisher publisher;
+    private final SeenOffersPublisher seenPublisher;
 
     private static final RateLimiter LISTING_LIMITER = RateLimiter.create(1.0d);
     private static final RateLimiter DETAILS_LIMITER = RateLimiter.create(0.5d);
@@ -36,6 +38,7 @@ public class PracujCrawlerScheduler {
     );
 
     private static final int MAX_PAGES_PER_ITS = 80;
+    private static final String SOURCE = "PRACUJ";
 
     @Scheduled(
             initialDelayString = "${agent.pracuj.initial-delay-ms:3000000}",
@@ -47,11 +50,13 @@ public class PracujCrawlerScheduler {
     }
 
     public void runOnce() {
+        Instant startedAt = Instant.now();
         Map<String, String> firstSeenById = new LinkedHashMap<>(32_768);
 
         long pagesFetched = 0;
         long offersPublished = 0;
         long duplicates = 0;
+        long skippedSeen = 0;
         long failedDetails = 0;
 
         for (String its : ITS) {
@@ -78,6 +83,7 @@ public class PracujCrawlerScheduler {
                 }
 
                 int publishedThisPage = 0;
+                int newThisPage = 0;
 
                 for (String url : urls) {
                     String offerIdFromUrl = PracujUrlUtil.extractOfferId(url);
@@ -88,6 +94,12 @@ public class PracujCrawlerScheduler {
                         duplicates++;
                         continue;
                     }
+                    newThisPage++;
+
+                    if (!seenPublisher.claimDetails(SOURCE, offerIdFromUrl)) {
+                        skippedSeen++;
+                        continue;
+                    }
 
                     DETAILS_LIMITER.acquire();
 
@@ -118,7 +130,7 @@ public class PracujCrawlerScheduler {
                                 nonBlank(parsed.salaryPeriod(), "MONTH"),
                                 applyUrl,
                                 parsed.techTags() != null ? parsed.techTags() : List.of(),
-                                parsed.publishedAt() != null ? parsed.publishedAt() : Instant.now(),
+                                parsed.publishedAt(),
                                 active
                         );
 
@@ -133,6 +145,7 @@ public class PracujCrawlerScheduler {
 
                     } catch (Exception e) {
                         failedDetails++;
+                        seenPublisher.releaseDetails(SOURCE, offerIdFromUrl);
                         log.warn("[agent-pracuj] DETAILS FAILED id={} url={} err={}",
                                 offerIdFromUrl, url, e.toString());
                     }
@@ -141,17 +154,24 @@ public class PracujCrawlerScheduler {
                 log.info("[agent-pracuj] its={} page={} urls={} published={}",
                         its, page, urls.size(), publishedThisPage);
 
-                if (publishedThisPage == 0 && page >= 3) {
+                if (newThisPage == 0 && page >= 3) {
                     log.info("[agent-pracuj] no new offers -> stop early its={} page={}", its, page);
                     break;
                 }
             }
         }
 
+        try {
+            seenPublisher.publish(SOURCE, firstSeenById.keySet(), startedAt);
+        } catch (Exception e) {
+            log.warn("[agent-pracuj] seen-set publish FAILED ids={} err={}", firstSeenById.size(), e.toString());
+        }
+
         log.info("====== PRACUJ RUN COMPLETE ======");
         log.info("pagesFetched     = {}", pagesFetched);
         log.info("offersPublished  = {}", offersPublished);
         log.info("duplicates       = {}", duplicates);
+        log.info("onlyMarkedSeen   = {}", skippedSeen);
         log.info("detailsFailed    = {}", failedDetails);
         log.info("================================");
     }
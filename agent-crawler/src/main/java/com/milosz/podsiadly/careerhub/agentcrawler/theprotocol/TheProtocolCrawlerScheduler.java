@@ -1,22 +1,38 @@
 package com.milosz.podsiadly.careerhub.agentcrawler.theprotocol;
 
 import com.milosz.podsiadly.careerhub.agentcrawler.mq.TheProtocolJobPublisher;
+import com.milosz.podsiadly.crawler.sitemap.HostLimiter;
+import com.milosz.podsiadly.crawler.sitemap.SitemapProgress;
+import com.milosz.podsiadly.crawler.sitemap.SitemapWalker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.jsoup.Connection;
-import org.jsoup.HttpStatusException;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.parser.Parser;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
 import java.time.Instant;
-import java.util.HashSet;
-import java.util.Map;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Component
@@ -28,6 +44,10 @@ public class TheProtocolCrawlerScheduler {
                     "(KHTML, like Gecko) Chrome/127.0.0.0 Safari/537.36";
 
     private final TheProtocolJobPublisher publisher;
+    private final HttpClient httpClient;
+    private final Environment env;
+    private final HostLimiter hostLimiter;
+    private final SitemapProgress progress;
 
     @Value("${agent.theprotocol.sitemap-url}")
     private String sitemapUrl;
@@ -35,13 +55,16 @@ public class TheProtocolCrawlerScheduler {
     @Value("${agent.theprotocol.contact-email:contact@theprotocol.it}")
     private String contactEmail;
 
+    @Value("${agent.sitemap.parallelism:4}")
+    private int parallelism;
+
     @Scheduled(
             initialDelayString = "${agent.theprotocol.initial-delay-ms:2400000}",
             fixedDelayString   = "${agent.theprotocol.interval-ms:108000000}"
     )
     public void run() {
         Counters c = new Counters();
-        Set<String> seen = new HashSet<>(8192);
+        Set<String> seen = ConcurrentHashMap.newKeySet(8192);
 
         try {
             log.info("[theprotocol] fetching sitemap={}", sitemapUrl);
@@ -70,24 +93,27 @@ public class TheProtocolCrawlerScheduler {
 
     private FetchResult fetchXmlOrHtmlOnce(String url) {
         try {
-            Connection.Response res = Jsoup.connect(url)
-                    .userAgent(BROWSER_UA)
-                    .ignoreContentType(true)
-                    .timeout(15_000)
-                    .followRedirects(true)
-                    .execute();
+            HttpRequest req = HttpRequest.newBuilder(URI.create(url))
+                    .timeout(Duration.ofSeconds(15))
+                    .header("User-Agent", BROWSER_UA)
+                    .GET()
+                    .build();
+            HttpResponse<String> res = httpClient.send(req, HttpResponse.BodyHandlers.ofString());
 
             int status = res.statusCode();
-            String finalUrl = res.url() != null ? res.url().toString() : url;
+            String finalUrl = res.uri() != null ? res.uri().toString() : url;
 
-            Map<String, String> headers = res.headers();
-            String ct = header(headers, "content-type");
-            String server = header(headers, "server");
-            String cfRay = header(headers, "cf-ray");
+            HttpHeaders headers = res.headers();
+            String ct = headers.firstValue("content-type").orElse("");
+            String server = headers.firstValue("server").orElse("");
+            String cfRay = headers.firstValue("cf-ray").orElse("");
 
-            String cookieNames = (res.cookies() != null && !res.cookies().isEmpty())
-                    ? String.join(",", res.cookies().keySet().stream().sorted().toList())
-                    : "";
+            String cookieNames = headers.allValues("set-cookie").stream()
+                    .map(c -> c.split("=", 2)[0].trim())
+                    .filter(n -> !n.isEmpty())
+                    .sorted()
+                    .distinct()
+                    .collect(Collectors.joining(","));
 
             String body = res.body();
 
@@ -95,12 +121,17 @@ public class TheProtocolCrawlerScheduler {
                     || (status == 403 && (server != null && server.toLowerCase().contains("cloudflare")))
                     || (status == 403 && ct != null && ct.toLowerCase().contains("text/html"));
 
+            if (status >= 400 && !blocked) {
+                return new FetchResult(url, finalUrl, status, "", ct, server, cfRay, cookieNames, "", false, "HTTP " + status);
+            }
+
             String title = extractTitleBestEffort(body);
 
             return new FetchResult(url, finalUrl, status, title, ct, server, cfRay, cookieNames, body, blocked, null);
 
-        } catch (HttpStatusException e) {
-            return new FetchResult(url, url, e.getStatusCode(), "", "", "", "", "", "", e.getStatusCode() == 403, e.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new FetchResult(url, url, -1, "", "", "", "", "", "", false, e.toString());
         } catch (Exception e) {
             return new FetchResult(url, url, -1, "", "", "", "", "", "", false, e.toString());
         }
@@ -110,42 +141,75 @@ public class TheProtocolCrawlerScheduler {
         Document doc = Jsoup.parse(xml, baseUrl, Parser.xmlParser());
 
         if (!doc.select("sitemapindex").isEmpty()) {
-            int children = doc.select("sitemap > loc").size();
-            log.warn("[theprotocol] sitemapindex detected children={} (recursion disabled to avoid extra requests)", children);
+            List<String> children = doc.select("sitemap > loc").stream()
+                    .map(e -> e.text().trim())
+                    .filter(u -> !u.isBlank())
+                    .toList();
+            log.info("[theprotocol] sitemapindex detected children={} parallelism={}", children.size(), parallelism);
+
+            try (ExecutorService pool = Threading.VIRTUAL.isActive(env)
+                    ? Executors.newVirtualThreadPerTaskExecutor()
+                    : Executors.newFixedThreadPool(Math.max(1, parallelism))) {
+                SitemapWalker walker = new SitemapWalker(pool, hostLimiter, this::openSitemap, progress, parallelism);
+                walker.walk(baseUrl, children, child -> entry -> offer(entry.loc(), c, seen));
+            }
             return;
         }
 
         for (Element loc : doc.select("url > loc")) {
-            String original = loc.text().trim();
-            if (original.isBlank()) continue;
+            offer(loc.text().trim(), c, seen);
+        }
+    }
 
-            String jobUrl = canonicalizeOfferUrl(original);
+    private void offer(String original, Counters c, Set<String> seen) {
+        if (original.isBlank()) return;
 
-            if (!jobUrl.equals(original)) {
-                c.changed++;
-                if (c.changed <= 5) {
-                    log.info("[theprotocol] canonicalized: {} -> {}", original, jobUrl);
-                }
-            }
+        String jobUrl = canonicalizeOfferUrl(original);
 
-            if (!seen.add(jobUrl)) {
-                c.duplicates++;
-                continue;
+        if (!jobUrl.equals(original)) {
+            long changed = c.changed.incrementAndGet();
+            if (changed <= 5) {
+                log.info("[theprotocol] canonicalized: {} -> {}", original, jobUrl);
             }
+        }
 
-            publisher.publishUrl(jobUrl);
-            c.enqueued++;
+        if (!seen.add(jobUrl)) {
+            c.duplicates.incrementAndGet();
+            return;
+        }
 
-            if (c.enqueued % 1000 == 0) {
-                log.info("[theprotocol] enqueued {}", c.enqueued);
-            }
+        publisher.publishUrl(jobUrl);
+        long enqueued = c.enqueued.incrementAndGet();
 
-            if (c.enqueued <= 3 && jobUrl.contains("/szczegoly/praca/")) {
-                log.warn("[theprotocol] still /szczegoly/ URL after canonicalize: {}", jobUrl);
-            }
+        if (enqueued % 1000 == 0) {
+            log.info("[theprotocol] enqueued {}", enqueued);
+        }
+
+        if (enqueued <= 3 && jobUrl.contains("/szczegoly/praca/")) {
+            log.warn("[theprotocol] still /szczegoly/ URL after canonicalize: {}", jobUrl);
         }
     }
 
+    private InputStream openSitemap(String url) throws IOException {
+        HttpRequest req = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(15))
+                .header("User-Agent", BROWSER_UA)
+                .GET()
+                .build();
+        HttpResponse<InputStream> res;
+        try {
+            res = httpClient.send(req, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted fetching " + url);
+        }
+        if (res.statusCode() >= 400) {
+            res.body().close();
+            throw new IOException("HTTP " + res.statusCode() + " fetching " + url);
+        }
+        return res.body();
+    }
+
     private void logCloudflareTodo(FetchResult r) {
         String head = r.body == null ? "" : r.body.substring(0, Math.min(350, r.body.length()));
 
@@ -168,14 +232,6 @@ public class TheProtocolCrawlerScheduler {
         log.warn("[theprotocol] bodyHead={}", oneLine(head));
     }
 
-    private static String header(Map<String, String> headers, String keyLower) {
-        if (headers == null || headers.isEmpty()) return "";
-        for (var e : headers.entrySet()) {
-            if (e.getKey() != null && e.getKey().equalsIgnoreCase(keyLower)) return e.getValue();
-        }
-        return "";
-    }
-
     private static boolean looksLikeCloudflare(String body) {
         if (body == null) return true;
         String b = body.toLowerCase();
@@ -237,8 +293,8 @@ public class TheProtocolCrawlerScheduler {
     ) {}
 
     private static final class Counters {
-        long enqueued = 0;
-        long changed = 0;
-        long duplicates = 0;
+        final AtomicLong enqueued = new AtomicLong();
+        final AtomicLong changed = new AtomicLong();
+        final AtomicLong duplicates = new AtomicLong();
     }
 }
@@ -0,0 +1,95 @@
+package com.milosz.podsiadly.backend.job;
+
+import com.milosz.podsiadly.backend.job.domain.*;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+public final class SyntheticOffers {
+    private SyntheticOffers() {}
+
+    public static final String[] CITIES = {
+            "Warszawa", "Kraków", "Wrocław", "Gdańsk", "Poznań", "Łódź", "Katowice", "Lublin", "Szczecin", "Rzeszów"
+    };
+
+    public static final String[] TAGS = {
+            "Java", "Spring", "Kotlin", "Python", "Django", "React", "Angular", "Vue", "TypeScript", "JavaScript",
+            "Node.js", "Docker", "Kubernetes", "AWS", "Azure", "GCP", "SQL", "PostgreSQL", "Kafka", "Go",
+            "C#", ".NET", "PHP", "Laravel", "Android", "iOS", "Swift", "Terraform", "Selenium", "Spark"
+    };
+
+    private static final String[] TITLES = {
+            "Java Developer", "Senior Backend Engineer", "Frontend Developer", "Fullstack Engineer", "DevOps Engineer",
+            "QA Automation Engineer", "Data Engineer", "Mobile Developer", "Security Specialist", "ML Engineer"
+    };
+
+    private static final int COMPANIES = 2_000;
+
+    public static List<JobOffer> generate(int rows, long seed) {
+        Random rnd = new Random(seed);
+        Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        List<Company> companies = new ArrayList<>(COMPANIES);
+        for (int i = 0; i < COMPANIES; i++) {
+            companies.add(Company.builder().id((long) i).name("Company " + i).build());
+        }
+        List<City> cities = new ArrayList<>(CITIES.length);
+        for (int i = 0; i < CITIES.length; i++) {
+            cities.add(City.builder().id((long) i).name(CITIES[i]).countryCode("PL").build());
+        }
+
+        JobLevel[] levels = JobLevel.values();
+        ContractType[] contracts = ContractType.values();
+        SalaryPeriod[] periods = SalaryPeriod.values();
+
+        List<JobOffer> out = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            boolean withSalary = rnd.nextInt(10) < 7;
+            Integer min = withSalary ? 8_000 + rnd.nextInt(20_000) : null;
+            Integer max = withSalary ? min + rnd.nextInt(10_000) : null;
+
+            List<String> tags = new ArrayList<>();
+            int tagCount = 2 + rnd.nextInt(5);
+            for (int t = 0; t < tagCount; t++) tags.add(TAGS[rnd.nextInt(TAGS.length)]);
+
+            Set<ContractType> cts = EnumSet.of(contracts[rnd.nextInt(contracts.length)]);
+            if (rnd.nextBoolean()) cts.add(contracts[rnd.nextInt(contracts.length)]);
+
+            JobOffer o = JobOffer.builder()
+                    .id((long) i + 1)
+                    .source(JobSource.JUSTJOIN)
+                    .externalId("ext-" + i)
+                    .url("https://example.com/offers/" + i)
+                    .title(TITLES[rnd.nextInt(TITLES.length)] + " #" + (i % 500))
+                    .description("Synthetic description for offer " + i)
+                    .company(companies.get(rnd.nextInt(COMPANIES)))
+                    .city(cities.get(rnd.nextInt(cities.size())))
+                    .remote(rnd.nextInt(3) == 0)
+                    .level(levels[rnd.nextInt(levels.length)])
+                    .contract(cts.iterator().next())
+                    .contracts(cts)
+                    .salaryMin(min)
+                    .salaryMax(max)
+                    .currency(withSalary ? "PLN" : null)
+                    .salaryPeriod(withSalary ? periods[rnd.nextInt(periods.length)] : null)
+                    .techTags(tags)
+                    .publishedAt(now.minus(rnd.nextInt(60 * 24 * 30), ChronoUnit.MINUTES))
+                    .active(true)
+                    .build();
+
+            List<JobOfferSkill> skills = new ArrayList<>(tags.size());
+            for (String tag : tags) {
+                skills.add(JobOfferSkill.builder()
+                        .name(tag)
+                        .levelLabel("regular")
+                        .levelValue(3)
+                        .source(SkillSource.values()[0])
+                        .build());
+            }
+            o.replaceTechStack(skills);
+            out.add(o);
+        }
+        return out;
+    }
+}
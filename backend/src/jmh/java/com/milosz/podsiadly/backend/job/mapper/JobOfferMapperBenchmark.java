@@ -0,0 +1,39 @@
+package com.milosz.podsiadly.backend.job.mapper;
+
+import com.milosz.podsiadly.backend.job.SyntheticOffers;
+import com.milosz.podsiadly.backend.job.domain.JobOffer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JobOfferMapperBenchmark {
+
+    @Param({"10000", "100000", "500000"})
+    int rows;
+
+    List<JobOffer> offers;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        offers = SyntheticOffers.generate(rows, 42L);
+    }
+
+    @Benchmark
+    public void toListDto(Blackhole bh) {
+        for (JobOffer o : offers) {
+            bh.consume(JobOfferMapper.toListDto(o));
+        }
+    }
+
+    @Benchmark
+    public void toDetailDto(Blackhole bh) {
+        for (JobOffer o : offers) {
+            bh.consume(JobOfferMapper.toDetailDto(o));
+        }
+    }
+}
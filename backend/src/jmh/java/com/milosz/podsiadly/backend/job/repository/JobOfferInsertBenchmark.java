@@ -0,0 +1,214 @@
+package com.milosz.podsiadly.backend.job.repository;
+
+import com.milosz.podsiadly.backend.job.SyntheticOffers;
+import com.milosz.podsiadly.backend.job.domain.JobOffer;
+import com.milosz.podsiadly.backend.job.domain.JobOfferSkill;
+import org.openjdk.jmh.annotations.*;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.*;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays a synthetic ingest batch (offers + their skills) the way Hibernate writes it under both id
+ * strategies: {@code identity} is one round trip per row with {@code RETURNING id}, {@code sequence}
+ * takes pooled ids (one {@code nextval} per 50 rows) and sends JDBC batches with
+ * {@code reWriteBatchedInserts}. Uses {@code -Djmh.jdbcUrl=...} when given, otherwise a throwaway
+ * Postgres container.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JobOfferInsertBenchmark {
+
+    private static final int POOL = 50;
+
+    @Param({"identity", "sequence"})
+    String mode;
+
+    @Param({"1000", "5000"})
+    int rows;
+
+    PostgreSQLContainer<?> pg;
+    Connection con;
+    List<JobOffer> offers;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        String url = System.getProperty("jmh.jdbcUrl");
+        String user = System.getProperty("jmh.jdbcUser", "postgres");
+        String password = System.getProperty("jmh.jdbcPassword", "postgres");
+        if (url == null) {
+            pg = new PostgreSQLContainer<>("postgres:16-alpine");
+            pg.start();
+            url = pg.getJdbcUrl();
+            user = pg.getUsername();
+            password = pg.getPassword();
+        }
+        con = DriverManager.getConnection(url + (url.contains("?") ? "&" : "?") + "reWriteBatchedInserts=true",
+                user, password);
+
+        String id = "identity".equals(mode)
+                ? "bigint generated by default as identity primary key"
+                : "bigint primary key";
+        try (Statement st = con.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS bench_offer_skill, bench_offer");
+            st.execute("DROP SEQUENCE IF EXISTS bench_offer_seq, bench_offer_skill_seq");
+            st.execute("CREATE SEQUENCE bench_offer_seq INCREMENT BY " + POOL);
+            st.execute("CREATE SEQUENCE bench_offer_skill_seq INCREMENT BY " + POOL);
+            st.execute("""
+                    CREATE TABLE bench_offer (
+                      id %s, source varchar(32) not null, external_id varchar(255) not null,
+                      url varchar(1024) not null, title varchar(512) not null, description text,
+                      company_id bigint, city_id bigint, remote boolean, level varchar(32),
+                      salary_min int, salary_max int, currency varchar(8), published_at timestamptz,
+                      active boolean not null)
+                    """.formatted(id));
+            st.execute("""
+                    CREATE TABLE bench_offer_skill (
+                      id %s, job_offer_id bigint not null references bench_offer(id),
+                      name varchar(255) not null, level_label varchar(255), level_value int,
+                      source varchar(32) not null)
+                    """.formatted(id));
+        }
+        offers = SyntheticOffers.generate(rows, 42L);
+    }
+
+    @Setup(Level.Invocation)
+    public void truncate() throws SQLException {
+        try (Statement st = con.createStatement()) {
+            st.execute("TRUNCATE bench_offer_skill, bench_offer");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        con.close();
+        if (pg != null) pg.stop();
+    }
+
+    @Benchmark
+    public int insert() throws SQLException {
+        con.setAutoCommit(false);
+        try {
+            int n = "identity".equals(mode) ? insertIdentity() : insertSequence();
+            con.commit();
+            return n;
+        } finally {
+            con.setAutoCommit(true);
+        }
+    }
+
+    private int insertIdentity() throws SQLException {
+        int n = 0;
+        try (PreparedStatement po = con.prepareStatement(OFFER_SQL.formatted("", "") + " RETURNING id");
+             PreparedStatement ps = con.prepareStatement(SKILL_SQL.formatted("", "") + " RETURNING id")) {
+            for (JobOffer o : offers) {
+                bindOffer(po, 1, o);
+                long offerId;
+                try (ResultSet rs = po.executeQuery()) {
+                    rs.next();
+                    offerId = rs.getLong(1);
+                }
+                for (JobOfferSkill s : o.getTechStack()) {
+                    bindSkill(ps, 1, offerId, s);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        rs.next();
+                    }
+                    n++;
+                }
+                n++;
+            }
+        }
+        return n;
+    }
+
+    private int insertSequence() throws SQLException {
+        Pool offerIds = new Pool("bench_offer_seq");
+        Pool skillIds = new Pool("bench_offer_skill_seq");
+        int n = 0;
+        try (PreparedStatement po = con.prepareStatement(OFFER_SQL.formatted("id, ", "?, "));
+             PreparedStatement ps = con.prepareStatement(SKILL_SQL.formatted("id, ", "?, "))) {
+            int pending = 0;
+            for (JobOffer o : offers) {
+                long offerId = offerIds.next();
+                po.setLong(1, offerId);
+                bindOffer(po, 2, o);
+                po.addBatch();
+                for (JobOfferSkill s : o.getTechStack()) {
+                    ps.setLong(1, skillIds.next());
+                    bindSkill(ps, 2, offerId, s);
+                    ps.addBatch();
+                    n++;
+                }
+                n++;
+                if (++pending == POOL) {
+                    po.executeBatch();
+                    ps.executeBatch();
+                    pending = 0;
+                }
+            }
+            po.executeBatch();
+            ps.executeBatch();
+        }
+        return n;
+    }
+
+    private static final String OFFER_SQL = """
+            INSERT INTO bench_offer (%ssource, external_id, url, title, description, company_id, city_id,
+                                     remote, level, salary_min, salary_max, currency, published_at, active)
+            VALUES (%s?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)""";
+
+    private static final String SKILL_SQL = """
+            INSERT INTO bench_offer_skill (%sjob_offer_id, name, level_label, level_value, source)
+            VALUES (%s?, ?, ?, ?, ?)""";
+
+    private static void bindOffer(PreparedStatement st, int i, JobOffer o) throws SQLException {
+        st.setString(i++, o.getSource().name());
+        st.setString(i++, o.getExternalId());
+        st.setString(i++, o.getUrl());
+        st.setString(i++, o.getTitle());
+        st.setString(i++, o.getDescription());
+        st.setLong(i++, o.getCompany().getId());
+        st.setLong(i++, o.getCity().getId());
+        st.setObject(i++, o.getRemote(), Types.BOOLEAN);
+        st.setString(i++, o.getLevel().name());
+        st.setObject(i++, o.getSalaryMin(), Types.INTEGER);
+        st.setObject(i++, o.getSalaryMax(), Types.INTEGER);
+        st.setString(i++, o.getCurrency());
+        st.setTimestamp(i++, Timestamp.from(o.getPublishedAt()));
+        st.setBoolean(i, Boolean.TRUE.equals(o.getActive()));
+    }
+
+    private static void bindSkill(PreparedStatement st, int i, long offerId, JobOfferSkill s) throws SQLException {
+        st.setLong(i++, offerId);
+        st.setString(i++, s.getName());
+        st.setString(i++, s.getLevelLabel());
+        st.setObject(i++, s.getLevelValue(), Types.INTEGER);
+        st.setString(i, s.getSource().name());
+    }
+
+    /** One {@code nextval} per {@code POOL} ids, like Hibernate's pooled optimizer. */
+    private final class Pool {
+        private final String seq;
+        private long next;
+        private long hi = -1;
+
+        Pool(String seq) {
+            this.seq = seq;
+        }
+
+        long next() throws SQLException {
+            if (next > hi) {
+                try (Statement st = con.createStatement();
+                     ResultSet rs = st.executeQuery("select nextval('" + seq + "')")) {
+                    rs.next();
+                    hi = rs.getLong(1) + POOL - 1;
+                    next = hi - POOL + 1;
+                }
+            }
+            return next++;
+        }
+    }
+}
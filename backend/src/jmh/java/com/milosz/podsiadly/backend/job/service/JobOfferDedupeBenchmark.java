@@ -0,0 +1,43 @@
+package com.milosz.podsiadly.backend.job.service;
+
+import com.milosz.podsiadly.backend.job.SyntheticOffers;
+import com.milosz.podsiadly.backend.job.domain.JobOffer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JobOfferDedupeBenchmark {
+
+    @Param({"10000", "100000", "500000"})
+    int rows;
+
+    List<JobOffer> offers;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        offers = SyntheticOffers.generate(rows, 42L);
+    }
+
+    @Benchmark
+    public void hashOf(Blackhole bh) {
+        for (JobOffer o : offers) {
+            bh.consume(JobOfferDedupeService.hashOf(o));
+        }
+    }
+
+    @Benchmark
+    public int distinctHashes() {
+        Set<String> seen = new HashSet<>(offers.size() * 2);
+        for (JobOffer o : offers) {
+            seen.add(JobOfferDedupeService.hashOf(o));
+        }
+        return seen.size();
+    }
+}
@@ -0,0 +1,117 @@
+package com.milosz.podsiadly.backend.job.service;
+
+import com.milosz.podsiadly.backend.domain.loginandregister.Role;
+import com.milosz.podsiadly.backend.domain.loginandregister.User;
+import com.milosz.podsiadly.backend.job.domain.*;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.query.Query;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filter and criteria construction for a fully populated search. {@code toPredicate} and
+ * {@code createQuery} run the specification against Hibernate's criteria builder the way
+ * {@code JobOfferQueryRepository.idQuery} does; the session factory boots without a database
+ * connection, so nothing is executed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JobOfferSearchBenchmark {
+
+    List<String> specs;
+    Set<Integer> techIds;
+    Instant postedAfter;
+
+    SessionFactory sessionFactory;
+    Session session;
+    CriteriaBuilder cb;
+    Specification<JobOffer> search;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        specs = List.of("backend", "devops", "data");
+        techIds = Set.of(1, 2, 3, 5, 8, 13, 21);
+        postedAfter = Instant.parse("2025-01-01T00:00:00Z");
+
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(JobOffer.class)
+                .addAnnotatedClass(JobOfferOwner.class)
+                .addAnnotatedClass(JobOfferSkill.class)
+                .addAnnotatedClass(Company.class)
+                .addAnnotatedClass(City.class)
+                .addAnnotatedClass(TechTag.class)
+                .addAnnotatedClass(User.class)
+                .addAnnotatedClass(Role.class)
+                .setProperty("hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect")
+                .setProperty("hibernate.boot.allow_jdbc_metadata_access", "false")
+                .buildSessionFactory();
+        session = sessionFactory.openSession();
+        cb = sessionFactory.getCriteriaBuilder();
+        search = buildSpecification();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        session.close();
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public List<String> expandSpecs() {
+        return JobOfferService.expandSpecs(specs);
+    }
+
+    @Benchmark
+    public JobOfferSearchFilter buildFilter() {
+        return JobOfferSearchFilter.of(
+                "java", "Warszawa", true, JobLevel.SENIOR, techIds, 15_000, 30_000, postedAfter,
+                Set.of(ContractType.B2B, ContractType.UOP), true, false
+        );
+    }
+
+    @Benchmark
+    public Specification<JobOffer> buildSpecification() {
+        return Specification.allOf(
+                JobOfferSpecifications.active(),
+                JobOfferSpecifications.canonical(),
+                JobOfferSpecifications.fullText("java", false),
+                JobOfferSpecifications.byCity("Warszawa"),
+                JobOfferSpecifications.remote(true),
+                JobOfferSpecifications.level(JobLevel.SENIOR),
+                JobOfferSpecifications.techAny(techIds),
+                JobOfferSpecifications.salaryBetween(15_000, 30_000),
+                JobOfferSpecifications.postedAfter(postedAfter),
+                JobOfferSpecifications.contractAny(Set.of(ContractType.B2B, ContractType.UOP)),
+                JobOfferSpecifications.withSalary(true)
+        );
+    }
+
+    @Benchmark
+    public CriteriaQuery<Long> toPredicate() {
+        return idCriteria(search);
+    }
+
+    @Benchmark
+    public Query<Long> createQuery() {
+        return session.createQuery(idCriteria(buildSpecification()));
+    }
+
+    private CriteriaQuery<Long> idCriteria(Specification<JobOffer> spec) {
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        Root<JobOffer> root = cq.from(JobOffer.class);
+        cq.select(root.get("id"));
+        cq.where(spec.toPredicate(root, cq, cb));
+        return cq;
+    }
+}
@@ -0,0 +1,43 @@
+package com.milosz.podsiadly.backend.job.service;
+
+import com.milosz.podsiadly.backend.job.domain.SalaryPeriod;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SalaryNormalizerBenchmark {
+
+    @Param({"10000", "100000", "500000"})
+    int rows;
+
+    Integer[] mins;
+    Integer[] maxs;
+    SalaryPeriod[] periods;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random rnd = new Random(42L);
+        SalaryPeriod[] all = SalaryPeriod.values();
+        mins = new Integer[rows];
+        maxs = new Integer[rows];
+        periods = new SalaryPeriod[rows];
+        for (int i = 0; i < rows; i++) {
+            boolean with = rnd.nextInt(10) < 8;
+            mins[i] = with ? 50 + rnd.nextInt(30_000) : null;
+            maxs[i] = with ? mins[i] + rnd.nextInt(10_000) : null;
+            periods[i] = rnd.nextInt(5) == 0 ? null : all[rnd.nextInt(all.length)];
+        }
+    }
+
+    @Benchmark
+    public void normalizeToMonth(Blackhole bh) {
+        for (int i = 0; i < rows; i++) {
+            bh.consume(SalaryNormalizer.normalizeToMonth(mins[i], maxs[i], periods[i]));
+        }
+    }
+}
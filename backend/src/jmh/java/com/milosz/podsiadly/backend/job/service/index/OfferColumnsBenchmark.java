@@ -0,0 +1,85 @@
+package com.milosz.podsiadly.backend.job.service.index;
+
+import com.milosz.podsiadly.backend.job.domain.ContractType;
+import com.milosz.podsiadly.backend.job.domain.JobLevel;
+import com.milosz.podsiadly.backend.job.service.JobOfferSearchFilter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OfferColumnsBenchmark {
+
+    private static final String[] CITIES = {"warszawa", "kraków", "wrocław", "gdańsk", "poznań"};
+
+    @Param({"10000", "100000", "500000"})
+    int rows;
+
+    List<IndexedOffer> source;
+    OfferColumns columns;
+
+    JobOfferSearchFilter noFilter;
+    JobOfferSearchFilter remoteOnly;
+    JobOfferSearchFilter cityTechSalary;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random rnd = new Random(42L);
+        JobLevel[] levels = JobLevel.values();
+        ContractType[] contracts = ContractType.values();
+        long base = 1_735_689_600_000L;
+
+        source = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            boolean withSalary = rnd.nextInt(10) < 7;
+            int lower = 8_000 + rnd.nextInt(20_000);
+            Set<Integer> tags = new HashSet<>();
+            for (int t = 0, n = 2 + rnd.nextInt(5); t < n; t++) tags.add(1 + rnd.nextInt(200));
+
+            source.add(new IndexedOffer(
+                    i + 1,
+                    "developer " + (i % 500),
+                    CITIES[rnd.nextInt(CITIES.length)],
+                    rnd.nextInt(3) == 0,
+                    EnumSet.of(levels[rnd.nextInt(levels.length)]),
+                    withSalary ? lower + rnd.nextInt(10_000) : null,
+                    withSalary ? lower : null,
+                    withSalary,
+                    base - rnd.nextInt(2_592_000) * 1_000L,
+                    tags,
+                    EnumSet.of(contracts[rnd.nextInt(contracts.length)])
+            ));
+        }
+        columns = new OfferColumns(source);
+
+        noFilter = JobOfferSearchFilter.of(null, null, null, null, null, null, null, null, null, null, false);
+        remoteOnly = JobOfferSearchFilter.of(null, null, true, null, null, null, null, null, null, null, false);
+        cityTechSalary = JobOfferSearchFilter.of(
+                null, "Kraków", null, JobLevel.SENIOR, Set.of(1, 2, 3, 4, 5), 15_000, null, null,
+                Set.of(ContractType.B2B), null, false
+        );
+    }
+
+    @Benchmark
+    public OfferColumns build() {
+        return new OfferColumns(source);
+    }
+
+    @Benchmark
+    public List<Long> firstPageNoFilter() {
+        return columns.collect(columns.match(noFilter), false, 0, 20);
+    }
+
+    @Benchmark
+    public List<Long> firstPageRemoteBySalary() {
+        return columns.collect(columns.match(remoteOnly), true, 0, 20);
+    }
+
+    @Benchmark
+    public int countCityTechSalary() {
+        return columns.match(cityTechSalary).cardinality();
+    }
+}
@@ -3,19 +3,19 @@ package com.milosz.podsiadly.backend.events.config;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 
+import java.net.http.HttpClient;
 import java.time.Duration;
 
 @Configuration
 public class EventsHttpConfig {
 
     @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
-        SimpleClientHttpRequestFactory rf = new SimpleClientHttpRequestFactory();
-        rf.setConnectTimeout(Duration.ofSeconds(30));
+    public RestTemplate restTemplate(RestTemplateBuilder builder, HttpClient scraperHttpClient) {
+        JdkClientHttpRequestFactory rf = new JdkClientHttpRequestFactory(scraperHttpClient);
         rf.setReadTimeout(Duration.ofSeconds(45));
 
         return builder
@@ -19,7 +19,9 @@ import java.util.List;
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class TechEvent {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "dev_event_seq")
+    @SequenceGenerator(name = "dev_event_seq", sequenceName = "dev_event_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 40)
@@ -5,11 +5,13 @@ import com.milosz.podsiadly.backend.events.client.DevelopersEventsClient;
 import com.milosz.podsiadly.backend.events.client.MeetupIcsClient;
 import com.milosz.podsiadly.backend.events.client.PretalxClient;
 import com.milosz.podsiadly.backend.events.dto.NormalizedEvent;
+import com.milosz.podsiadly.backend.ingest.config.FetchExecutor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
 
 import static com.milosz.podsiadly.backend.events.service.EventSanitizer.canonicalExternalId;
@@ -24,14 +26,20 @@ public class EventIngestService {
     private final DevelopersEventsClient developersEvents;
     private final MeetupIcsClient meetupIcs;
     private final EventUpserter upserter;
+    private final FetchExecutor fetchExecutor;
 
     public int runAll() {
-        var all = new ArrayList<NormalizedEvent>();
-        all.addAll(safeFetch("pretalx", pretalx::fetchAll));
-        all.addAll(safeFetch("confs.tech", confsTechRepo::fetch));
-        all.addAll(safeFetch("developers.events", developersEvents::fetch));
-        all.addAll(safeFetch("meetup.ics", meetupIcs::fetch));
+        var fetches = List.of(
+                fetchExecutor.supply(() -> safeFetch("pretalx", pretalx::fetchAll)),
+                fetchExecutor.supply(() -> safeFetch("confs.tech", confsTechRepo::fetch)),
+                fetchExecutor.supply(() -> safeFetch("developers.events", developersEvents::fetch)),
+                fetchExecutor.supply(() -> safeFetch("meetup.ics", meetupIcs::fetch))
+        );
 
+        var all = new ArrayList<NormalizedEvent>();
+        for (CompletableFuture<List<NormalizedEvent>> f : fetches) {
+            all.addAll(f.join());
+        }
         return upsertAll(all);
     }
 
@@ -0,0 +1,54 @@
+package com.milosz.podsiadly.backend.ingest.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Runs blocking remote fetches off the caller's thread. Uses one virtual thread per task when
+ * {@code spring.threads.virtual.enabled} is set, otherwise a small fixed platform pool.
+ * Rate limits stay with the callers.
+ */
+@Slf4j
+@Component
+public class FetchExecutor implements DisposableBean {
+
+    private final ExecutorService executor;
+
+    public FetchExecutor(Environment env,
+                         MeterRegistry registry,
+                         @Value("${jobs.ingest.fetch.platform-threads:8}") int platformThreads) {
+        boolean virtual = Threading.VIRTUAL.isActive(env);
+        ExecutorService raw = virtual
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ingest-fetch-", 0).factory())
+                : Executors.newFixedThreadPool(Math.max(1, platformThreads), new CustomizableThreadFactory("ingest-fetch-"));
+        this.executor = ExecutorServiceMetrics.monitor(registry, raw, "ingest.fetch");
+        log.info("[ingest] fetch executor mode={}", virtual ? "virtual" : "platform(" + platformThreads + ")");
+    }
+
+    public <T> CompletableFuture<T> supply(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, executor);
+    }
+
+    /** Plain view for callers that schedule their own tasks (e.g. the sitemap walker). */
+    public Executor executor() {
+        return executor;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
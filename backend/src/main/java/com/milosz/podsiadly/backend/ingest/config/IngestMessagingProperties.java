@@ -5,6 +5,8 @@ import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
 @Getter @Setter
 @Component("ingestMessagingProperties")
 @ConfigurationProperties(prefix = "jobs.ingest")
@@ -14,6 +16,7 @@ public class IngestMessagingProperties {
     private Routing routing = new Routing();
     private QueueNames queue = new QueueNames();
     private String sourceDefault;
+    private BatchListener externalOffersListener = new BatchListener();
 
     @Getter @Setter
     public static class Routing {
@@ -30,6 +33,8 @@ public class IngestMessagingProperties {
         private String theProtocolUrlsRetry;
         private String theProtocolUrlsDlq;
         private String externalOffers;
+        private String externalOffersDlq;
+        private String seenOffers;
     }
 
     @Getter @Setter
@@ -47,5 +52,14 @@ public class IngestMessagingProperties {
         private String theProtocolUrlsRetry;
         private String theProtocolUrlsDlq;
         private String externalOffers;
+        private String externalOffersDlq;
+        private String seenOffers;
+    }
+
+    @Getter @Setter
+    public static class BatchListener {
+        private boolean consumerBatchEnabled = true;
+        private int batchSize = 100;
+        private Duration receiveTimeout = Duration.ofSeconds(1);
     }
 }
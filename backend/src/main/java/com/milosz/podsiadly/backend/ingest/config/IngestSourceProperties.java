@@ -0,0 +1,37 @@
+package com.milosz.podsiadly.backend.ingest.config;
+
+import com.milosz.podsiadly.backend.job.domain.JobSource;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter @Setter
+@Component("ingestSourceProperties")
+@ConfigurationProperties(prefix = "jobs.ingest.sources")
+public class IngestSourceProperties {
+
+    private Source justjoin = new Source();
+    private Source nfj = new Source();
+    private Source solid = new Source();
+    private Source theProtocol = new Source();
+
+    public Source forSource(JobSource source) {
+        if (source == null) return justjoin;
+        return switch (source) {
+            case NOFLUFFJOBS -> nfj;
+            case SOLIDJOBS -> solid;
+            case THEPROTOCOL -> theProtocol;
+            default -> justjoin;
+        };
+    }
+
+    @Getter @Setter
+    public static class Source {
+        private int concurrency = 1;
+        private int maxConcurrency = 1;
+        private int prefetch = 1;
+        /** Permits per second for outbound fetches; {@code 0} disables the limit. */
+        private double fetchRate = 0d;
+    }
+}
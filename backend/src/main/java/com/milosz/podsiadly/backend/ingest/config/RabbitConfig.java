@@ -195,6 +195,70 @@ public class RabbitConfig {
         return f;
     }
 
+    @Bean
+    SimpleRabbitListenerContainerFactory justjoinUrlListenerContainerFactory(
+            ConnectionFactory connectionFactory,
+            MessageConverter rabbitJsonConverter,
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ErrorHandler amqpErrorHandler,
+            IngestSourceProperties sources
+    ) {
+        return urlListenerFactory(connectionFactory, rabbitJsonConverter, configurer, amqpErrorHandler, sources.getJustjoin());
+    }
+
+    @Bean
+    SimpleRabbitListenerContainerFactory nfjUrlListenerContainerFactory(
+            ConnectionFactory connectionFactory,
+            MessageConverter rabbitJsonConverter,
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ErrorHandler amqpErrorHandler,
+            IngestSourceProperties sources
+    ) {
+        return urlListenerFactory(connectionFactory, rabbitJsonConverter, configurer, amqpErrorHandler, sources.getNfj());
+    }
+
+    @Bean
+    SimpleRabbitListenerContainerFactory solidUrlListenerContainerFactory(
+            ConnectionFactory connectionFactory,
+            MessageConverter rabbitJsonConverter,
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ErrorHandler amqpErrorHandler,
+            IngestSourceProperties sources
+    ) {
+        return urlListenerFactory(connectionFactory, rabbitJsonConverter, configurer, amqpErrorHandler, sources.getSolid());
+    }
+
+    @Bean
+    SimpleRabbitListenerContainerFactory theProtocolUrlListenerContainerFactory(
+            ConnectionFactory connectionFactory,
+            MessageConverter rabbitJsonConverter,
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ErrorHandler amqpErrorHandler,
+            IngestSourceProperties sources
+    ) {
+        return urlListenerFactory(connectionFactory, rabbitJsonConverter, configurer, amqpErrorHandler, sources.getTheProtocol());
+    }
+
+    private static SimpleRabbitListenerContainerFactory urlListenerFactory(
+            ConnectionFactory connectionFactory,
+            MessageConverter rabbitJsonConverter,
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ErrorHandler amqpErrorHandler,
+            IngestSourceProperties.Source cfg
+    ) {
+        int concurrency = Math.max(1, cfg.getConcurrency());
+        var f = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(f, connectionFactory);
+        f.setMessageConverter(rabbitJsonConverter);
+        f.setDefaultRequeueRejected(false);
+        f.setAutoStartup(true);
+        f.setErrorHandler(amqpErrorHandler);
+        f.setPrefetchCount(Math.max(1, cfg.getPrefetch()));
+        f.setConcurrentConsumers(concurrency);
+        f.setMaxConcurrentConsumers(Math.max(concurrency, cfg.getMaxConcurrency()));
+        return f;
+    }
+
     @Bean
     Queue externalOffersQueue(IngestMessagingProperties p) {
         return QueueBuilder.durable(p.getQueue().getExternalOffers()).build();
@@ -208,4 +272,49 @@ public class RabbitConfig {
                 .with(p.getRouting().getExternalOffers());
     }
 
+    @Bean
+    Queue seenOffersQueue(IngestMessagingProperties p) {
+        return QueueBuilder.durable(p.getQueue().getSeenOffers()).build();
+    }
+
+    @Bean
+    Binding seenOffersBinding(Queue seenOffersQueue, DirectExchange jobsExchange, IngestMessagingProperties p) {
+        return BindingBuilder.bind(seenOffersQueue).to(jobsExchange).with(p.getRouting().getSeenOffers());
+    }
+
+    @Bean
+    Queue externalOffersDlqQueue(IngestMessagingProperties p) {
+        return QueueBuilder.durable(p.getQueue().getExternalOffersDlq()).build();
+    }
+
+    @Bean
+    Binding externalOffersDlqBinding(Queue externalOffersDlqQueue, DirectExchange jobsExchange, IngestMessagingProperties p) {
+        return BindingBuilder.bind(externalOffersDlqQueue).to(jobsExchange).with(p.getRouting().getExternalOffersDlq());
+    }
+
+    @Bean
+    SimpleRabbitListenerContainerFactory externalOffersListenerContainerFactory(
+            ConnectionFactory connectionFactory,
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ErrorHandler amqpErrorHandler,
+            IngestMessagingProperties p
+    ) {
+        IngestMessagingProperties.BatchListener cfg = p.getExternalOffersListener();
+        int batchSize = cfg.isConsumerBatchEnabled() ? Math.max(1, cfg.getBatchSize()) : 1;
+
+        var f = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(f, connectionFactory);
+        f.setDefaultRequeueRejected(false);
+        f.setAutoStartup(true);
+        f.setErrorHandler(amqpErrorHandler);
+        f.setBatchListener(true);
+        f.setConsumerBatchEnabled(cfg.isConsumerBatchEnabled());
+        f.setBatchSize(batchSize);
+        f.setReceiveTimeout(cfg.getReceiveTimeout().toMillis());
+        f.setPrefetchCount(batchSize);
+        f.setConcurrentConsumers(1);
+        f.setMaxConcurrentConsumers(1);
+        return f;
+    }
+
 }
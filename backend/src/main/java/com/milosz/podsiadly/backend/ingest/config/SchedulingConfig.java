@@ -1,9 +1,12 @@
 package com.milosz.podsiadly.backend.ingest.config;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 @Configuration
@@ -11,6 +14,7 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 public class SchedulingConfig {
 
     @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
     TaskScheduler taskScheduler() {
         ThreadPoolTaskScheduler t = new ThreadPoolTaskScheduler();
         t.setPoolSize(4);
@@ -18,4 +22,13 @@ public class SchedulingConfig {
         t.initialize();
         return t;
     }
+
+    @Bean(name = "taskScheduler")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    TaskScheduler virtualTaskScheduler() {
+        SimpleAsyncTaskScheduler t = new SimpleAsyncTaskScheduler();
+        t.setVirtualThreads(true);
+        t.setThreadNamePrefix("ingest-scheduler-");
+        return t;
+    }
 }
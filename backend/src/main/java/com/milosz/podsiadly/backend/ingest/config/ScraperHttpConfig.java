@@ -0,0 +1,23 @@
+package com.milosz.podsiadly.backend.ingest.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.http.HttpClient;
+
+@Configuration
+public class ScraperHttpConfig {
+
+    /**
+     * One client for every outbound scrape and API call. The JDK client keeps a keep-alive pool per
+     * host and negotiates HTTP/2 over ALPN, so TLS setup is paid once per host rather than per offer.
+     */
+    @Bean
+    HttpClient scraperHttpClient(ScraperHttpProperties props) {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(props.getConnectTimeout())
+                .build();
+    }
+}
@@ -0,0 +1,31 @@
+package com.milosz.podsiadly.backend.ingest.config;
+
+import com.milosz.podsiadly.backend.job.domain.JobSource;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Getter @Setter
+@Component("scraperHttpProperties")
+@ConfigurationProperties(prefix = "jobs.ingest.http")
+public class ScraperHttpProperties {
+
+    private String userAgent =
+            "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 " +
+                    "(KHTML, like Gecko) Chrome/127.0.0.0 Safari/537.36";
+    private Duration connectTimeout = Duration.ofSeconds(10);
+    private Duration requestTimeout = Duration.ofSeconds(15);
+    private Map<JobSource, Duration> sourceTimeouts = new EnumMap<>(JobSource.class);
+    /** Send If-None-Match / If-Modified-Since from the validator store and skip unchanged bodies. */
+    private boolean conditionalGet = true;
+
+    public Duration timeoutFor(JobSource source) {
+        Duration d = source != null ? sourceTimeouts.get(source) : null;
+        return d != null ? d : requestTimeout;
+    }
+}
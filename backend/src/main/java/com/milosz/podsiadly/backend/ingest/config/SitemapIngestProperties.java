@@ -0,0 +1,29 @@
+package com.milosz.podsiadly.backend.ingest.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter @Setter
+@Component("sitemapIngestProperties")
+@ConfigurationProperties(prefix = "jobs.ingest.sitemap")
+public class SitemapIngestProperties {
+
+    /** Diff sitemap entries against sitemap_url_state and enqueue only new or changed URLs. */
+    private boolean incremental = true;
+    /** Entries read from the stream before one diff query and one publish batch. */
+    private int chunkSize = 500;
+    /** Unchanged URLs are re-enqueued anyway once their last enqueue is older than this. */
+    private Duration revisit = Duration.ofDays(3);
+    /** Sitemap documents fetched concurrently while walking an index. */
+    private int parallelism = 4;
+    /** Open sitemap requests allowed per host. */
+    private int perHostConcurrency = 2;
+    /** Sitemap requests per second per host; 0 disables the limit. */
+    private double perHostRate = 2.0;
+    /** An interrupted index walk resumes from its completed children if retried within this window. */
+    private Duration resumeWindow = Duration.ofHours(12);
+}
@@ -0,0 +1,22 @@
+package com.milosz.podsiadly.backend.ingest.config;
+
+import com.milosz.podsiadly.backend.ingest.repository.JdbcSitemapProgress;
+import com.milosz.podsiadly.crawler.sitemap.HostLimiter;
+import com.milosz.podsiadly.crawler.sitemap.SitemapProgress;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@Configuration
+public class SitemapWalkerConfig {
+
+    @Bean
+    HostLimiter sitemapHostLimiter(SitemapIngestProperties props) {
+        return new HostLimiter(props.getPerHostConcurrency(), props.getPerHostRate());
+    }
+
+    @Bean
+    SitemapProgress sitemapProgress(JdbcTemplate jdbc, SitemapIngestProperties props) {
+        return new JdbcSitemapProgress(jdbc, props.getResumeWindow());
+    }
+}
@@ -0,0 +1,28 @@
+package com.milosz.podsiadly.backend.ingest.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "http_validator")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class HttpValidator {
+
+    @Id
+    @Column(length = 2048)
+    private String url;
+
+    @Column(length = 512)
+    private String etag;
+
+    @Column(name = "last_modified", length = 128)
+    private String lastModified;
+
+    @Column(name = "content_hash", length = 32)
+    private String contentHash;
+
+    @Column(name = "checked_at", nullable = false)
+    private Instant checkedAt;
+}
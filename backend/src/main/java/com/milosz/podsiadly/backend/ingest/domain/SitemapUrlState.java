@@ -0,0 +1,29 @@
+package com.milosz.podsiadly.backend.ingest.domain;
+
+import com.milosz.podsiadly.backend.job.domain.JobSource;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "sitemap_url_state")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class SitemapUrlState {
+
+    @Id
+    @Column(length = 2048)
+    private String url;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private JobSource source;
+
+    private Instant lastmod;
+
+    @Column(name = "enqueued_at")
+    private Instant enqueuedAt;
+
+    @Column(name = "seen_at", nullable = false)
+    private Instant seenAt;
+}
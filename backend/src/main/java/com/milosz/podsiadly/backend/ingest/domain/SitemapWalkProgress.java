@@ -0,0 +1,25 @@
+package com.milosz.podsiadly.backend.ingest.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(
+        name = "sitemap_walk_progress",
+        indexes = @Index(name = "ix_sitemap_walk_progress_walk", columnList = "walk_key")
+)
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class SitemapWalkProgress {
+
+    @Id
+    @Column(name = "sitemap_url", length = 2048)
+    private String sitemapUrl;
+
+    @Column(name = "walk_key", nullable = false, length = 2048)
+    private String walkKey;
+
+    @Column(name = "completed_at", nullable = false)
+    private Instant completedAt;
+}
@@ -0,0 +1,13 @@
+package com.milosz.podsiadly.backend.ingest.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.time.Instant;
+import java.util.List;
+
+public record SeenOffersMessage(
+        @Size(max = 50) String source,
+        @NotEmpty @Size(max = 100_000) List<String> externalIds,
+        Instant seenAt
+) {}
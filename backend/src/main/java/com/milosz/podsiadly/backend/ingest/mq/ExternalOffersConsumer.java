@@ -1,5 +1,7 @@
 package com.milosz.podsiadly.backend.ingest.mq;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.milosz.podsiadly.backend.ingest.config.IngestMessagingProperties;
 import com.milosz.podsiadly.backend.ingest.dto.ExternalOfferMessage;
 import com.milosz.podsiadly.backend.job.domain.ContractType;
 import com.milosz.podsiadly.backend.job.domain.JobLevel;
@@ -7,12 +9,16 @@ import com.milosz.podsiadly.backend.job.domain.JobSource;
 import com.milosz.podsiadly.backend.job.domain.SalaryPeriod;
 import com.milosz.podsiadly.backend.job.service.ingest.ExternalJobOfferData;
 import com.milosz.podsiadly.backend.job.service.ingest.ExternalJobOfferIngestService;
+import com.milosz.podsiadly.backend.job.service.ingest.ExternalJobOfferUpsert;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Component;
 
-import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
@@ -24,15 +30,67 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ExternalOffersConsumer {
 
+    public static final String ERROR_HEADER = "x-ingest-error";
+
     private final ExternalJobOfferIngestService externalIngest;
+    private final RabbitTemplate rabbitTemplate;
+    private final IngestMessagingProperties properties;
+    private final ObjectMapper om;
 
     @RabbitListener(
             queues = "${jobs.ingest.queue.externalOffers}",
-            containerFactory = "rabbitListenerContainerFactory"
+            containerFactory = "externalOffersListenerContainerFactory"
     )
-    public void consume(ExternalOfferMessage msg) {
-        if (msg == null) return;
+    public void consume(List<Message> batch) {
+        if (batch == null || batch.isEmpty()) return;
+
+        List<Message> accepted = new ArrayList<>(batch.size());
+        List<ExternalJobOfferUpsert> upserts = new ArrayList<>(batch.size());
+        for (Message m : batch) {
+            try {
+                ExternalOfferMessage msg = om.readValue(m.getBody(), ExternalOfferMessage.class);
+                if (msg == null) continue;
+                upserts.add(toUpsert(msg));
+                accepted.add(m);
+            } catch (Exception ex) {
+                deadLetter(m, ex);
+            }
+        }
+        if (upserts.isEmpty()) return;
 
+        try {
+            externalIngest.ingestBatch(upserts);
+            log.info("[externalOffers] ingested batch size={}", upserts.size());
+        } catch (Exception ex) {
+            log.warn("[externalOffers] batch size={} failed, falling back to single ingest: {}",
+                    upserts.size(), ex.toString());
+            ingestOneByOne(accepted, upserts);
+        }
+    }
+
+    private void ingestOneByOne(List<Message> messages, List<ExternalJobOfferUpsert> upserts) {
+        int ok = 0;
+        for (int i = 0; i < upserts.size(); i++) {
+            ExternalJobOfferUpsert u = upserts.get(i);
+            try {
+                externalIngest.ingest(u.source(), u.externalId(), u.data());
+                ok++;
+            } catch (Exception ex) {
+                deadLetter(messages.get(i), ex);
+            }
+        }
+        log.info("[externalOffers] ingested {}/{} after batch failure", ok, upserts.size());
+    }
+
+    private void deadLetter(Message m, Exception ex) {
+        log.error("[externalOffers] poison message -> DLQ: {}", ex.toString());
+        Message out = MessageBuilder.fromMessage(m)
+                .setHeader(ERROR_HEADER, String.valueOf(ex.getMessage()))
+                .build();
+        rabbitTemplate.send(properties.getExchange(), properties.getRouting().getExternalOffersDlq(), out);
+    }
+
+    private static ExternalJobOfferUpsert toUpsert(ExternalOfferMessage msg) {
         JobSource source = safeEnum(JobSource.class, msg.source(), JobSource.JUSTJOIN);
         String externalId = nvl(msg.externalId(), "");
         String url = nvl(msg.url(), msg.applyUrl());
@@ -54,14 +112,10 @@ public class ExternalOffersConsumer {
                 msg.applyUrl(),
                 msg.techTags() != null ? msg.techTags() : List.of(),
                 List.of(),
-                msg.publishedAt() != null ? msg.publishedAt() : Instant.now(),
+                msg.publishedAt(),
                 msg.active() != null ? msg.active() : Boolean.TRUE
         );
-
-        externalIngest.ingest(source, externalId, data);
-
-        log.info("[externalOffers] ingested source={} externalId={} title={}",
-                source, externalId, msg.title());
+        return new ExternalJobOfferUpsert(source, externalId, data);
     }
 
     private static String nvl(String a, String b) {
@@ -1,28 +1,32 @@
 package com.milosz.podsiadly.backend.ingest.mq;
 
-import com.google.common.util.concurrent.RateLimiter;
 import com.milosz.podsiadly.backend.ingest.parser.*;
 import com.milosz.podsiadly.backend.ingest.service.NofluffJobsIngestService;
 import com.milosz.podsiadly.backend.ingest.service.OfferUpsertService;
+import com.milosz.podsiadly.backend.ingest.service.ScraperHttp;
 import com.milosz.podsiadly.backend.job.domain.JobOffer;
 import com.milosz.podsiadly.backend.job.domain.JobSource;
 import com.milosz.podsiadly.backend.job.repository.JobOfferRepository;
+import com.milosz.podsiadly.backend.job.service.JobOfferDedupeService;
+import com.milosz.podsiadly.backend.job.service.event.JobOffersChangedEvent;
 import com.milosz.podsiadly.backend.job.service.ingest.ExternalJobOfferIngestService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jsoup.HttpStatusException;
-import org.jsoup.Jsoup;
 import org.springframework.amqp.AmqpRejectAndDontRequeueException;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.IOException;
 import java.io.InterruptedIOException;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -31,14 +35,6 @@ import java.util.regex.Pattern;
 @RequiredArgsConstructor
 public class JobUrlConsumeService {
 
-    private static final String BROWSER_UA =
-            "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 " +
-                    "(KHTML, like Gecko) Chrome/127.0.0.0 Safari/537.36";
-
-    private static final RateLimiter NFJ_FETCH_LIMITER = RateLimiter.create(0.5d);
-    private static final RateLimiter TP_FETCH_LIMITER  = RateLimiter.create(1.0d);
-    private static final RateLimiter SOLID_FETCH_LIMITER = RateLimiter.create(2.0d);
-
     private static final Pattern TP_OFFER_ID = Pattern.compile(
             "(?:,oferta,|%2Coferta%2C)([0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12})"
     );
@@ -55,11 +51,15 @@ public class JobUrlConsumeService {
 
     private final ExternalJobOfferIngestService externalIngest;
     private final JobOfferRepository offers;
+    private final ApplicationEventPublisher events;
+    private final JobOfferDedupeService dedupe;
+    private final SourceFetchLimiter fetchLimiter;
+    private final TransactionTemplate tx;
+    private final ScraperHttp http;
 
     @Value("${ingest.logging.quiet:true}")
     private boolean quietLogging;
 
-    @Transactional
     public void consume(UrlMessage msg) throws Exception {
         final String url = msg.url();
         final JobSource source = (msg.source() != null) ? msg.source() : JobSource.JUSTJOIN;
@@ -87,8 +87,10 @@ public class JobUrlConsumeService {
 
     private void dispatchBySource(String url, JobSource source, String externalId) throws Exception {
         if (source == JobSource.JUSTJOIN) {
-            String html = fetchJustjoinHtml(url);
-            handleJustJoin(url, html, source);
+            ScraperHttp.Fetched page = fetchJustjoinHtml(url, true);
+            if (skipUnchanged(page, source, externalId, url)) return;
+            if (page.body() == null) page = fetchJustjoinHtml(url, false);
+            if (handleJustJoin(url, page.body(), source)) http.remember(page);
             return;
         }
 
@@ -147,15 +149,16 @@ public class JobUrlConsumeService {
         throw new AmqpRejectAndDontRequeueException("Non-retryable HTTP " + sc + " for " + url);
     }
 
-    private void handleJustJoin(String url, String html, JobSource source) {
+    private boolean handleJustJoin(String url, String html, JobSource source) {
         if (justJoinParser.isExpiredPage(url, html)) {
             logGone("[ingest] JJ expired(200) page: {} -> mark inactive", url);
             deactivateGoneOffer(source, url, null);
-            return;
+            return false;
         }
         var parsed = justJoinParser.parse(url, html);
         upsertService.upsert(parsed);
         logOk("[ingest] JJ upsert OK: {}", url);
+        return true;
     }
 
     private void handleInterruptedIo(String url) {
@@ -179,16 +182,13 @@ public class JobUrlConsumeService {
         throw new AmqpRejectAndDontRequeueException("DataIntegrityViolation for " + url, e);
     }
 
-    private String fetchJustjoinHtml(String url) throws IOException {
-        return Jsoup.connect(url)
-                .userAgent(BROWSER_UA)
-                .referrer("https://justjoin.it/")
-                .header("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8")
-                .header("Accept-Language", "pl-PL,pl;q=0.9,en-US;q=0.8,en;q=0.7")
-                .followRedirects(true)
-                .timeout(15_000)
-                .get()
-                .outerHtml();
+    private ScraperHttp.Fetched fetchJustjoinHtml(String url, boolean revalidate) throws IOException {
+        fetchLimiter.acquire(JobSource.JUSTJOIN);
+        return http.getConditional(url, JobSource.JUSTJOIN, Map.of(
+                "Referer", "https://justjoin.it/",
+                "Accept", ScraperHttp.ACCEPT_HTML,
+                "Accept-Language", ScraperHttp.ACCEPT_LANGUAGE_PL
+        ), revalidate);
     }
 
     private void handleNofluff(String url, JobSource source, String messageExternalId) throws IOException {
@@ -210,41 +210,36 @@ public class JobUrlConsumeService {
             return;
         }
 
-        String json = fetchNofluffJson(externalId);
-        var dto = nofluffParser.parseFromApiJson(externalId, json, canonicalNofluffUrl(url, externalId));
+        ScraperHttp.Fetched api = fetchNofluffJson(externalId, true);
+        if (skipUnchanged(api, source, externalId, canonicalNofluffUrl(url, externalId))) return;
+        if (api.body() == null) api = fetchNofluffJson(externalId, false);
+
+        var dto = nofluffParser.parseFromApiJson(externalId, api.body(), canonicalNofluffUrl(url, externalId));
 
         nofluffIngest.importSingle(dto);
+        http.remember(api);
         logOk("[ingest] NFJ upsert OK: {}", url);
     }
 
-    private String fetchNofluffJson(String externalId) throws IOException {
+    private ScraperHttp.Fetched fetchNofluffJson(String externalId, boolean revalidate) throws IOException {
         String apiUrl = "https://nofluffjobs.com/api/posting/" + externalId
                 + "?salaryCurrency=PLN&salaryPeriod=month&region=pl&language=pl-PL";
 
-        NFJ_FETCH_LIMITER.acquire();
-
-        return Jsoup.connect(apiUrl)
-                .userAgent(BROWSER_UA)
-                .referrer("https://nofluffjobs.com/")
-                .ignoreContentType(true)
-                .header("Accept", "application/json")
-                .timeout(15_000)
-                .get()
-                .body()
-                .text();
+        fetchLimiter.acquire(JobSource.NOFLUFFJOBS);
+
+        return http.getConditional(apiUrl, JobSource.NOFLUFFJOBS, Map.of(
+                "Referer", "https://nofluffjobs.com/",
+                "Accept", "application/json"
+        ), revalidate);
     }
 
     private String fetchNofluffHtml(String url) throws IOException {
-        NFJ_FETCH_LIMITER.acquire();
-        return Jsoup.connect(url)
-                .userAgent(BROWSER_UA)
-                .referrer("https://nofluffjobs.com/")
-                .header("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8")
-                .header("Accept-Language", "pl-PL,pl;q=0.9,en-US;q=0.8,en;q=0.7")
-                .followRedirects(true)
-                .timeout(15_000)
-                .get()
-                .outerHtml();
+        fetchLimiter.acquire(JobSource.NOFLUFFJOBS);
+        return http.getString(url, JobSource.NOFLUFFJOBS, Map.of(
+                "Referer", "https://nofluffjobs.com/",
+                "Accept", ScraperHttp.ACCEPT_HTML,
+                "Accept-Language", ScraperHttp.ACCEPT_LANGUAGE_PL
+        ));
     }
 
     private void handleSolid(String url, JobSource source) throws IOException {
@@ -253,20 +248,21 @@ public class JobUrlConsumeService {
         String apiUrl = "https://solid.jobs/api/offers/" + apiPath;
 
         log.debug("[ingest] SOLID fetch apiUrl={} (externalId={})", apiUrl, externalId);
-        SOLID_FETCH_LIMITER.acquire();
-
-        String json = Jsoup.connect(apiUrl)
-                .ignoreContentType(true)
-                .timeout(15_000)
-                .header("Accept", "application/vnd.solidjobs.jobofferdetails+json, application/json, */*")
-                .header("X-Requested-With", "XMLHttpRequest")
-                .header("Referer", url)
-                .userAgent(BROWSER_UA)
-                .get()
-                .body()
-                .text();
-
-        var dto = solidParser.parseFromApiJson(url, externalId, json);
+        Map<String, String> headers = Map.of(
+                "Accept", "application/vnd.solidjobs.jobofferdetails+json, application/json, */*",
+                "X-Requested-With", "XMLHttpRequest",
+                "Referer", url
+        );
+
+        fetchLimiter.acquire(JobSource.SOLIDJOBS);
+        ScraperHttp.Fetched api = http.getConditional(apiUrl, JobSource.SOLIDJOBS, headers);
+        if (skipUnchanged(api, source, externalId, url)) return;
+        if (api.body() == null) {
+            fetchLimiter.acquire(JobSource.SOLIDJOBS);
+            api = http.getConditional(apiUrl, JobSource.SOLIDJOBS, headers, false);
+        }
+
+        var dto = solidParser.parseFromApiJson(url, externalId, api.body());
         if (dto == null) {
             logDrop("[ingest] SOLID invalid JSON for {}, skipping", url);
             return;
@@ -279,6 +275,7 @@ public class JobUrlConsumeService {
 
         var data = SolidOfferMapper.map(dto);
         externalIngest.ingest(source, externalId, data);
+        http.remember(api);
         logOk("[ingest] SOLID upsert OK: {}", url);
     }
 
@@ -293,25 +290,25 @@ public class JobUrlConsumeService {
 
         String apiUrl = "https://apus-api.theprotocol.it/offers/" + offerId;
 
-        TP_FETCH_LIMITER.acquire();
+        Map<String, String> headers = Map.of(
+                "Accept", "application/json, text/plain, */*",
+                "Origin", "https://theprotocol.it",
+                "Referer", "https://theprotocol.it/",
+                "Accept-Language", ScraperHttp.ACCEPT_LANGUAGE_PL
+        );
+
+        fetchLimiter.acquire(JobSource.THEPROTOCOL);
 
         log.debug("[theprotocol] fetch apiUrl={} (offerId={})", apiUrl, offerId);
 
-        String json = Jsoup.connect(apiUrl)
-                .ignoreContentType(true)
-                .timeout(15_000)
-                .userAgent(BROWSER_UA)
-                .referrer("https://theprotocol.it/")
-                .header("Accept", "application/json, text/plain, */*")
-                .header("Origin", "https://theprotocol.it")
-                .header("Referer", "https://theprotocol.it/")
-                .header("Accept-Language", "pl-PL,pl;q=0.9,en-US;q=0.8,en;q=0.7")
-                .followRedirects(true)
-                .get()
-                .body()
-                .text();
-
-        final TheProtocolParser.Parsed p = theProtocolParser.parseFromApiJson(url, offerId, json);
+        ScraperHttp.Fetched api = http.getConditional(apiUrl, JobSource.THEPROTOCOL, headers);
+        if (skipUnchanged(api, source, offerId, url)) return;
+        if (api.body() == null) {
+            fetchLimiter.acquire(JobSource.THEPROTOCOL);
+            api = http.getConditional(apiUrl, JobSource.THEPROTOCOL, headers, false);
+        }
+
+        final TheProtocolParser.Parsed p = theProtocolParser.parseFromApiJson(url, offerId, api.body());
 
         var data = new com.milosz.podsiadly.backend.job.service.ingest.ExternalJobOfferData(
                 p.title(),
@@ -335,9 +332,29 @@ public class JobUrlConsumeService {
         );
 
         externalIngest.ingest(source, offerId, data);
+        if (!Boolean.FALSE.equals(p.active())) http.remember(api);
         logOk("[ingest] THEPROTOCOL upsert OK: {}", url);
     }
 
+    /**
+     * On 304 or an identical body, bumps lastSeenAt and tells the caller to skip parse and upsert.
+     * Falls through when nothing was touched (offer missing or inactive), so the caller ingests it
+     * properly and a stale-deactivated offer whose page is still live comes back.
+     */
+    private boolean skipUnchanged(ScraperHttp.Fetched fetched, JobSource source, String externalId, String url) {
+        if (!fetched.unchanged()) return false;
+
+        String normUrl = normalizeUrl(url);
+        String ext = (externalId != null && !externalId.isBlank()) ? externalId.trim() : lastPath(normUrl);
+
+        int touched = offers.touchLastSeen(source, ext, normUrl, Instant.now());
+        if (touched == 0) return false;
+
+        http.remember(fetched);
+        logOk("[ingest] {} unchanged, lastSeen bumped: {}", source, url);
+        return true;
+    }
+
     private long delayFor429(JobSource source) {
         if (source == JobSource.NOFLUFFJOBS) {
             return 300_000L;
@@ -399,22 +416,26 @@ public class JobUrlConsumeService {
                 ? externalIdOverride.trim()
                 : lastPath(normUrl);
 
-        var opt = offers.findBySourceAndExternalId(safeSource, externalId);
-        if (opt.isEmpty()) {
-            opt = offers.findFirstBySourceAndUrl(safeSource, normUrl);
-        }
+        tx.executeWithoutResult(status -> {
+            var opt = offers.findBySourceAndExternalId(safeSource, externalId);
+            if (opt.isEmpty()) {
+                opt = offers.findFirstBySourceAndUrl(safeSource, normUrl);
+            }
 
-        if (opt.isEmpty()) {
-            log.warn("[ingest] deactivate: offer not found in DB source={} externalId={} url={}",
-                    safeSource, externalId, normUrl);
-            return;
-        }
+            if (opt.isEmpty()) {
+                log.warn("[ingest] deactivate: offer not found in DB source={} externalId={} url={}",
+                        safeSource, externalId, normUrl);
+                return;
+            }
 
-        JobOffer e = opt.get();
-        if (Boolean.FALSE.equals(e.getActive())) return;
+            JobOffer e = opt.get();
+            if (Boolean.FALSE.equals(e.getActive())) return;
 
-        e.setActive(false);
-        offers.save(e);
+            e.setActive(false);
+            offers.save(e);
+            dedupe.refreshGroups(e.getDedupeHash());
+            events.publishEvent(JobOffersChangedEvent.of(e.getId()));
+        });
     }
 
     private static String normalizeUrl(String url) {
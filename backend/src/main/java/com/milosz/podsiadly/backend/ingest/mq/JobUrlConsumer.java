@@ -17,7 +17,7 @@ public class JobUrlConsumer {
     @RabbitListener(
             id = "justjoinJobUrlConsumer",
             queues = "#{ingestMessagingProperties.queue.justjoinUrls}",
-            containerFactory = "rabbitListenerContainerFactory",
+            containerFactory = "justjoinUrlListenerContainerFactory",
             autoStartup = "false"
     )
     public void onJustjoinMessage(UrlMessage msg, Message message) throws Exception {
@@ -27,7 +27,7 @@ public class JobUrlConsumer {
     @RabbitListener(
             id = "nfjJobUrlConsumer",
             queues = "#{ingestMessagingProperties.queue.nfjUrls}",
-            containerFactory = "rabbitListenerContainerFactory",
+            containerFactory = "nfjUrlListenerContainerFactory",
             autoStartup = "false"
     )
     public void onNfjMessage(UrlMessage msg, Message message) throws Exception {
@@ -37,7 +37,7 @@ public class JobUrlConsumer {
     @RabbitListener(
             id = "solidJobUrlConsumer",
             queues = "#{ingestMessagingProperties.queue.solidUrls}",
-            containerFactory = "rabbitListenerContainerFactory",
+            containerFactory = "solidUrlListenerContainerFactory",
             autoStartup = "false"
     )
     public void onSolidMessage(UrlMessage msg, Message message) throws Exception {
@@ -47,7 +47,7 @@ public class JobUrlConsumer {
     @RabbitListener(
             id = "theProtocolJobUrlConsumer",
             queues = "#{ingestMessagingProperties.queue.theProtocolUrls}",
-            containerFactory = "rabbitListenerContainerFactory",
+            containerFactory = "theProtocolUrlListenerContainerFactory",
             autoStartup = "false"
     )
     public void onTheProtocolMessage(UrlMessage msg, Message message) throws Exception {
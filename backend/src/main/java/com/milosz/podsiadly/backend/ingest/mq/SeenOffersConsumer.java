@@ -0,0 +1,36 @@
+package com.milosz.podsiadly.backend.ingest.mq;
+
+import com.milosz.podsiadly.backend.ingest.dto.SeenOffersMessage;
+import com.milosz.podsiadly.backend.ingest.service.SeenOffersService;
+import com.milosz.podsiadly.backend.job.domain.JobSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SeenOffersConsumer {
+
+    private final SeenOffersService seenOffers;
+
+    @RabbitListener(
+            queues = "${jobs.ingest.queue.seenOffers}",
+            containerFactory = "rabbitListenerContainerFactory"
+    )
+    public void consume(SeenOffersMessage msg) {
+        if (msg == null || msg.externalIds() == null || msg.externalIds().isEmpty()) return;
+
+        JobSource source;
+        try {
+            source = JobSource.valueOf(msg.source().trim().toUpperCase(Locale.ROOT));
+        } catch (Exception ex) {
+            throw new AmqpRejectAndDontRequeueException("Unknown seen-set source " + msg.source());
+        }
+        seenOffers.markSeen(source, msg.externalIds(), msg.seenAt());
+    }
+}
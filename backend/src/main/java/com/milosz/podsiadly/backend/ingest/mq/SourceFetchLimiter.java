@@ -0,0 +1,39 @@
+package com.milosz.podsiadly.backend.ingest.mq;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.milosz.podsiadly.backend.ingest.config.IngestSourceProperties;
+import com.milosz.podsiadly.backend.job.domain.JobSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Component
+public class SourceFetchLimiter {
+
+    private static final List<JobSource> FETCHED_SOURCES = List.of(
+            JobSource.JUSTJOIN, JobSource.NOFLUFFJOBS, JobSource.SOLIDJOBS, JobSource.THEPROTOCOL
+    );
+
+    private final Map<JobSource, RateLimiter> limiters = new EnumMap<>(JobSource.class);
+
+    public SourceFetchLimiter(IngestSourceProperties props) {
+        for (JobSource source : FETCHED_SOURCES) {
+            double rate = props.forSource(source).getFetchRate();
+            if (rate > 0) {
+                limiters.put(source, RateLimiter.create(rate));
+            }
+        }
+        log.info("[ingest] fetch budgets {}", limiters.entrySet().stream()
+                .map(e -> e.getKey() + "=" + e.getValue().getRate() + "/s")
+                .toList());
+    }
+
+    public void acquire(JobSource source) {
+        RateLimiter limiter = limiters.get(source);
+        if (limiter != null) limiter.acquire();
+    }
+}
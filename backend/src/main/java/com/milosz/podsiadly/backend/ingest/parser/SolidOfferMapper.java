@@ -7,7 +7,6 @@ import com.milosz.podsiadly.backend.job.dto.JobOfferSkillDto;
 import com.milosz.podsiadly.backend.job.service.SalaryNormalizer;
 import com.milosz.podsiadly.backend.job.service.ingest.ExternalJobOfferData;
 
-import java.time.Instant;
 import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -61,7 +60,7 @@ public final class SolidOfferMapper {
                 detailsUrl,
                 p != null ? safeList(p.getSkills()) : List.of(),
                 List.<JobOfferSkillDto>of(),
-                Instant.now(),
+                null,
                 Boolean.TRUE
         );
     }
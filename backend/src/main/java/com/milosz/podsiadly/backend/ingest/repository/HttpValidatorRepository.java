@@ -0,0 +1,30 @@
+package com.milosz.podsiadly.backend.ingest.repository;
+
+import com.milosz.podsiadly.backend.ingest.domain.HttpValidator;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+public interface HttpValidatorRepository extends JpaRepository<HttpValidator, String> {
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+    INSERT INTO http_validator (url, etag, last_modified, content_hash, checked_at)
+    VALUES (:url, :etag, :lastModified, :contentHash, :checkedAt)
+    ON CONFLICT (url) DO UPDATE SET
+        etag = coalesce(EXCLUDED.etag, http_validator.etag),
+        last_modified = coalesce(EXCLUDED.last_modified, http_validator.last_modified),
+        content_hash = EXCLUDED.content_hash,
+        checked_at = EXCLUDED.checked_at
+    """, nativeQuery = true)
+    void upsert(@Param("url") String url,
+                @Param("etag") String etag,
+                @Param("lastModified") String lastModified,
+                @Param("contentHash") String contentHash,
+                @Param("checkedAt") Instant checkedAt);
+}
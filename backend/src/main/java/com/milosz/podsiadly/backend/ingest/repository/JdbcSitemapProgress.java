@@ -0,0 +1,54 @@
+package com.milosz.podsiadly.backend.ingest.repository;
+
+import com.milosz.podsiadly.crawler.sitemap.SitemapProgress;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * {@link SitemapProgress} backed by {@code sitemap_walk_progress}, so a walk interrupted by a
+ * restart resumes on the next scheduler run.
+ */
+@Slf4j
+public class JdbcSitemapProgress implements SitemapProgress {
+
+    private final JdbcTemplate jdbc;
+    private final Duration resumeWindow;
+
+    public JdbcSitemapProgress(JdbcTemplate jdbc, Duration resumeWindow) {
+        this.jdbc = jdbc;
+        this.resumeWindow = resumeWindow;
+    }
+
+    @Override
+    public Set<String> completed(String walkKey) {
+        Set<String> done = new HashSet<>(jdbc.queryForList(
+                "SELECT sitemap_url FROM sitemap_walk_progress WHERE walk_key = ? AND completed_at > ?",
+                String.class, walkKey, Timestamp.from(Instant.now().minus(resumeWindow))));
+        if (!done.isEmpty()) {
+            log.info("[ingest] resuming sitemap walk={} completedSitemaps={}", walkKey, done.size());
+        }
+        return done;
+    }
+
+    @Override
+    public void markCompleted(String walkKey, String sitemapUrl) {
+        jdbc.update("""
+                INSERT INTO sitemap_walk_progress (sitemap_url, walk_key, completed_at)
+                VALUES (?, ?, ?)
+                ON CONFLICT (sitemap_url) DO UPDATE SET
+                    walk_key = EXCLUDED.walk_key,
+                    completed_at = EXCLUDED.completed_at
+                """, sitemapUrl, walkKey, Timestamp.from(Instant.now()));
+    }
+
+    @Override
+    public void finish(String walkKey) {
+        jdbc.update("DELETE FROM sitemap_walk_progress WHERE walk_key = ?", walkKey);
+    }
+}
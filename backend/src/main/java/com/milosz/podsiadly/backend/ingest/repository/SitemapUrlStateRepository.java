@@ -0,0 +1,73 @@
+package com.milosz.podsiadly.backend.ingest.repository;
+
+import com.milosz.podsiadly.backend.job.domain.JobSource;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * URL -> lastmod memory for sitemap ingest, read and written in set-based chunks.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SitemapUrlStateRepository {
+
+    public record Known(Instant lastmod, Instant enqueuedAt) {}
+
+    public record Row(String url, Instant lastmod) {}
+
+    private final JdbcTemplate jdbc;
+
+    public Map<String, Known> find(List<String> urls) {
+        Map<String, Known> out = new HashMap<>();
+        if (urls.isEmpty()) return out;
+
+        jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "SELECT url, lastmod, enqueued_at FROM sitemap_url_state WHERE url = ANY(?::text[])");
+            ps.setArray(1, con.createArrayOf("text", urls.toArray()));
+            return ps;
+        }, rs -> {
+            Timestamp lastmod = rs.getTimestamp(2);
+            Timestamp enqueued = rs.getTimestamp(3);
+            out.put(rs.getString(1), new Known(
+                    lastmod != null ? lastmod.toInstant() : null,
+                    enqueued != null ? enqueued.toInstant() : null));
+        });
+        return out;
+    }
+
+    /**
+     * Records the rows as seen in this run; {@code enqueued} rows also get their enqueue time bumped.
+     */
+    public void upsert(JobSource source, List<Row> rows, Instant seenAt, boolean enqueued) {
+        if (rows.isEmpty()) return;
+
+        jdbc.update(con -> {
+            PreparedStatement ps = con.prepareStatement("""
+                    INSERT INTO sitemap_url_state (url, source, lastmod, enqueued_at, seen_at)
+                    SELECT u.url, ?, u.lastmod::timestamptz, ?::timestamptz, ?::timestamptz
+                      FROM unnest(?::text[], ?::text[]) AS u(url, lastmod)
+                    ON CONFLICT (url) DO UPDATE SET
+                        source = EXCLUDED.source,
+                        lastmod = coalesce(EXCLUDED.lastmod, sitemap_url_state.lastmod),
+                        enqueued_at = coalesce(EXCLUDED.enqueued_at, sitemap_url_state.enqueued_at),
+                        seen_at = EXCLUDED.seen_at
+                    """);
+            ps.setString(1, source.name());
+            ps.setTimestamp(2, enqueued ? Timestamp.from(seenAt) : null);
+            ps.setTimestamp(3, Timestamp.from(seenAt));
+            ps.setArray(4, con.createArrayOf("text", rows.stream().map(Row::url).toArray()));
+            ps.setArray(5, con.createArrayOf("text", rows.stream()
+                    .map(r -> r.lastmod() != null ? r.lastmod().toString() : null).toArray()));
+            return ps;
+        });
+    }
+}
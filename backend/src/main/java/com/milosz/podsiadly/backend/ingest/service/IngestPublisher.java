@@ -8,6 +8,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -28,6 +30,22 @@ public class IngestPublisher {
         );
     }
 
+    /**
+     * Publishes a batch of URLs over a single channel instead of checking one out per message.
+     */
+    public void publishUrls(Collection<String> urls, JobSource source) {
+        if (urls.isEmpty()) return;
+        String routingKey = routingKeyFor(source);
+
+        rabbit.invoke(ops -> {
+            for (String url : urls) {
+                ops.convertAndSend(p.getExchange(), routingKey, new UrlMessage(source, url, null));
+            }
+            return null;
+        });
+        log.debug("[ingest] published batch source={} routingKey={} size={}", source, routingKey, urls.size());
+    }
+
     private String routingKeyFor(JobSource source) {
         if (source == null) {
             return p.getRouting().getJustjoinUrls();
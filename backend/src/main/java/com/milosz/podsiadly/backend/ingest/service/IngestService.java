@@ -1,13 +1,24 @@
 package com.milosz.podsiadly.backend.ingest.service;
 
+import com.milosz.podsiadly.backend.ingest.config.FetchExecutor;
+import com.milosz.podsiadly.backend.ingest.config.SitemapIngestProperties;
+import com.milosz.podsiadly.backend.ingest.repository.SitemapUrlStateRepository;
 import com.milosz.podsiadly.backend.job.domain.JobSource;
+import com.milosz.podsiadly.crawler.sitemap.HostLimiter;
+import com.milosz.podsiadly.crawler.sitemap.SitemapProgress;
+import com.milosz.podsiadly.crawler.sitemap.SitemapStreamReader;
+import com.milosz.podsiadly.crawler.sitemap.SitemapWalker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
 
 @Service
@@ -15,11 +26,14 @@ import java.util.concurrent.atomic.AtomicLong;
 @Slf4j
 public class IngestService {
 
-    private static final String BROWSER_UA =
-            "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 "
-                    + "(KHTML, like Gecko) Chrome/127.0.0.0 Safari/537.36";
-
     private final IngestPublisher publisher;
+    private final ScraperHttp http;
+    private final FetchExecutor fetchExecutor;
+    private final HostLimiter hostLimiter;
+    private final SitemapProgress progress;
+    private final SitemapUrlStateRepository states;
+    private final SeenOffersService seenOffers;
+    private final SitemapIngestProperties props;
 
     public long ingestSitemap(String sitemapUrl, JobSource source) throws Exception {
         return switch (source) {
@@ -40,45 +54,112 @@ public class IngestService {
     }
 
 
-    private long ingestXmlSitemapRecursiveWithCounter(String url, JobSource source) throws Exception {
+    private long ingestXmlSitemapRecursiveWithCounter(String url, JobSource source) throws IOException {
         AtomicLong counter = new AtomicLong(0);
-        ingestXmlSitemapRecursive(url, source, counter);
+        AtomicLong unchanged = new AtomicLong(0);
+        Instant runAt = Instant.now();
+
+        SitemapWalker walker = new SitemapWalker(
+                fetchExecutor.executor(),
+                hostLimiter,
+                u -> http.openStream(u, source, Map.of()),
+                progress,
+                props.getParallelism()
+        );
+        SitemapWalker.Result walk = walker.walk(url, sitemap -> new SitemapWalker.Sink() {
+            private final List<SitemapStreamReader.Entry> chunk = new ArrayList<>(props.getChunkSize());
+
+            @Override
+            public void url(SitemapStreamReader.Entry entry) {
+                chunk.add(entry);
+                if (chunk.size() >= props.getChunkSize()) {
+                    flush(chunk, source, runAt, counter, unchanged);
+                }
+            }
+
+            @Override
+            public void end() {
+                flush(chunk, source, runAt, counter, unchanged);
+            }
+        });
+        if (walk.sitemaps() == 0 && walk.failed() > 0) {
+            throw new IOException("Sitemap walk failed for " + url);
+        }
+
         long total = counter.get();
-        log.info("[ingest] sitemap={} source={} totalUrlsEnqueued={}", url, source, total);
+        log.info("[ingest] sitemap={} source={} totalUrlsEnqueued={} unchangedSkipped={} sitemaps={} failedSitemaps={}",
+                url, source, total, unchanged.get(), walk.sitemaps(), walk.failed());
         return total;
     }
 
+    private void flush(List<SitemapStreamReader.Entry> chunk, JobSource source, Instant runAt,
+                       AtomicLong counter, AtomicLong unchanged) {
+        if (chunk.isEmpty()) return;
 
-    private void ingestXmlSitemapRecursive(String url, JobSource source, AtomicLong counter) throws Exception {
-        log.debug("[ingest] fetching sitemap url={} source={}", url, source);
-
-        Document doc = Jsoup.connect(url)
-                .userAgent(BROWSER_UA)
-                .ignoreContentType(true)
-                .timeout(15_000)
-                .get();
-
-        if (!doc.select("sitemapindex").isEmpty()) {
-            for (Element loc : doc.select("sitemap > loc")) {
-                String child = loc.text().trim();
-                if (!child.isBlank()) {
-                    ingestXmlSitemapRecursive(child, source, counter);
-                }
+        Map<String, SitemapStreamReader.Entry> byUrl = new LinkedHashMap<>();
+        for (SitemapStreamReader.Entry e : chunk) {
+            byUrl.putIfAbsent(e.loc(), e);
+        }
+        chunk.clear();
+
+        List<SitemapUrlStateRepository.Row> publish = new ArrayList<>();
+        Map<String, SitemapUrlStateRepository.Row> unchangedByExternalId = new LinkedHashMap<>();
+
+        Map<String, SitemapUrlStateRepository.Known> known = props.isIncremental()
+                ? states.find(new ArrayList<>(byUrl.keySet()))
+                : Map.of();
+
+        for (SitemapStreamReader.Entry e : byUrl.values()) {
+            SitemapUrlStateRepository.Row row = new SitemapUrlStateRepository.Row(e.loc(), e.lastmod());
+            String externalId = props.isIncremental() ? externalIdOf(source, e.loc()) : null;
+            if (externalId != null && !changed(e, known.get(e.loc()), runAt)) {
+                unchangedByExternalId.put(externalId, row);
+            } else {
+                publish.add(row);
             }
-            return;
         }
 
-        for (Element loc : doc.select("url > loc, loc")) {
-            String jobUrl = loc.text().trim();
-            if (jobUrl.isEmpty()) {
-                continue;
-            }
+        if (!unchangedByExternalId.isEmpty()) {
+            Set<String> touched = seenOffers.touch(source, unchangedByExternalId.keySet(), runAt);
+            List<SitemapUrlStateRepository.Row> skipped = new ArrayList<>(touched.size());
+            unchangedByExternalId.forEach((externalId, row) -> {
+                if (touched.contains(externalId)) skipped.add(row);
+                else publish.add(row);
+            });
+            states.upsert(source, skipped, runAt, false);
+            unchanged.addAndGet(skipped.size());
+        }
 
-            publisher.publishUrl(jobUrl, source);
-            long current = counter.incrementAndGet();
-            if (current % 1000 == 0) {
-                log.debug("[ingest] {} urls enqueued so far (source={})", current, source);
-            }
+        if (!publish.isEmpty()) {
+            publisher.publishUrls(publish.stream().map(SitemapUrlStateRepository.Row::url).toList(), source);
+            states.upsert(source, publish, runAt, true);
+        }
+
+        long before = counter.get();
+        long current = counter.addAndGet(publish.size());
+        if (current / 1000 > before / 1000) {
+            log.debug("[ingest] {} urls enqueued so far (source={})", current, source);
         }
     }
+
+    private boolean changed(SitemapStreamReader.Entry entry, SitemapUrlStateRepository.Known known, Instant runAt) {
+        if (known == null || known.enqueuedAt() == null) return true;
+        if (known.enqueuedAt().isBefore(runAt.minus(props.getRevisit()))) return true;
+        return entry.lastmod() != null && (known.lastmod() == null || entry.lastmod().isAfter(known.lastmod()));
+    }
+
+    /**
+     * External id the URL consumer will store for this sitemap URL, or null when it can't be derived
+     * up front (such URLs are always enqueued).
+     */
+    private static String externalIdOf(JobSource source, String url) {
+        if (source != JobSource.JUSTJOIN) return null;
+
+        int q = url.indexOf('?');
+        String u = q >= 0 ? url.substring(0, q) : url;
+        if (u.endsWith("/")) u = u.substring(0, u.length() - 1);
+        int i = u.lastIndexOf('/');
+        String id = i >= 0 ? u.substring(i + 1) : u;
+        return id.isBlank() ? null : id;
+    }
 }
@@ -9,7 +9,6 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.Instant;
 import java.util.List;
 
 @Service
@@ -21,7 +20,6 @@ public class NofluffJobsIngestService {
     @Transactional
     public void importSingle(NofluffJobDto dto) {
 
-        Instant published = (dto.publishedAt() != null) ? dto.publishedAt() : Instant.now();
         SalaryPeriod period = (dto.salaryPeriod() != null) ? dto.salaryPeriod() : SalaryPeriod.MONTH;
 
         Boolean active = dto.active() != null ? dto.active() : true;
@@ -43,7 +41,7 @@ public class NofluffJobsIngestService {
                 dto.applyUrl(),
                 dto.techTags(),
                 dto.techStack() != null ? dto.techStack() : List.of(),
-                published,
+                dto.publishedAt(),
                 active
         );
 
@@ -1,14 +1,19 @@
 package com.milosz.podsiadly.backend.ingest.service;
 
 import com.milosz.podsiadly.backend.ingest.parser.JustJoinParser;
+import com.milosz.podsiadly.backend.job.config.SalaryProperties;
 import com.milosz.podsiadly.backend.job.domain.*;
 import com.milosz.podsiadly.backend.job.dto.JobOfferSkillDto;
 import com.milosz.podsiadly.backend.job.mapper.JobOfferMapper;
-import com.milosz.podsiadly.backend.job.repository.CityRepository;
-import com.milosz.podsiadly.backend.job.repository.CompanyRepository;
 import com.milosz.podsiadly.backend.job.repository.JobOfferRepository;
+import com.milosz.podsiadly.backend.job.service.CompanyCityResolver;
+import com.milosz.podsiadly.backend.job.service.JobOfferDedupeService;
 import com.milosz.podsiadly.backend.job.service.SalaryNormalizer;
+import com.milosz.podsiadly.backend.job.service.TechTagService;
+import com.milosz.podsiadly.backend.job.service.event.JobOffersChangedEvent;
+import com.milosz.podsiadly.backend.job.service.ingest.JobOfferFingerprint;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,9 +24,12 @@ import java.util.*;
 @RequiredArgsConstructor
 public class OfferUpsertService {
 
-    private final CompanyRepository companies;
-    private final CityRepository cities;
+    private final CompanyCityResolver companyCity;
     private final JobOfferRepository offers;
+    private final ApplicationEventPublisher events;
+    private final JobOfferDedupeService dedupe;
+    private final TechTagService techTags;
+    private final SalaryProperties salary;
 
     @Transactional
     public void upsert(JustJoinParser.ParsedOffer p) {
@@ -31,22 +39,61 @@ public class OfferUpsertService {
                 : JobSource.JUSTJOIN.name();
         JobSource src = JobSource.valueOf(srcName);
         String normUrl = normalizeUrl(p.url());
-        Company company = null;
-        if (notBlank(p.companyName())) {
-            String name = normalizeName(p.companyName());
-            companies.insertIgnore(name);
-            company = companies.findFirstByNameIgnoreCaseOrderByIdAsc(name).orElse(null);
+        SalaryPeriod period = (p.salaryPeriod() != null) ? p.salaryPeriod() : SalaryPeriod.MONTH;
+
+        List<String> tags = (p.techTags() != null && !p.techTags().isEmpty())
+                ? p.techTags()
+                : (p.techStack() != null
+                ? p.techStack().stream()
+                .map(JustJoinParser.ParsedSkill::name)
+                .filter(Objects::nonNull)
+                .distinct()
+                .limit(24)
+                .toList()
+                : Collections.emptyList());
+
+        List<JobOfferSkillDto> skills = new ArrayList<>();
+        if (p.techStack() != null) {
+            for (JustJoinParser.ParsedSkill s : p.techStack()) {
+                if (s == null || s.name() == null) continue;
+                skills.add(new JobOfferSkillDto(
+                        s.name(),
+                        s.levelLabel(),
+                        s.levelValue(),
+                        toSourceEnum(s.source())
+                ));
+            }
         }
 
-        City city = null;
-        if (notBlank(p.cityName())) {
-            String name = normalizeName(p.cityName());
-            city = cities.findFirstByNameIgnoreCaseOrderByIdAsc(name)
-                    .orElseGet(() -> cities.save(City.builder()
-                            .name(name)
-                            .countryCode("PL")
-                            .build()));
+        String fingerprint = JobOfferFingerprint.of(
+                normUrl,
+                p.title(),
+                p.description(),
+                normalizeName(p.companyName()),
+                normalizeName(p.cityName()),
+                p.remote(),
+                p.level(),
+                mapContract(p.contract()),
+                mapContracts(p.contracts()),
+                p.min(),
+                p.max(),
+                p.currency(),
+                period,
+                tags,
+                skills,
+                p.publishedAt()
+        );
+        if (notBlank(p.externalId())) {
+            var state = offers.findContentState(src, p.externalId());
+            if (state.isPresent() && fingerprint.equals(state.get().getContentHash())
+                    && Boolean.TRUE.equals(state.get().getActive())) {
+                offers.markSeen(state.get().getId(), Instant.now());
+                return;
+            }
         }
+
+        Company company = notBlank(p.companyName()) ? companyCity.company(normalizeName(p.companyName())) : null;
+        City city = notBlank(p.cityName()) ? companyCity.city(normalizeName(p.cityName()), "PL") : null;
         Optional<JobOffer> opt = offers.findBySourceAndExternalId(src, p.externalId());
         if (opt.isEmpty() && normUrl != null) {
             opt = offers.findFirstBySourceAndUrl(src, normUrl);
@@ -75,46 +122,30 @@ public class OfferUpsertService {
         e.setSalaryMin(p.min());
         e.setSalaryMax(p.max());
         e.setCurrency(p.currency());
-
-        SalaryPeriod period = (p.salaryPeriod() != null) ? p.salaryPeriod() : SalaryPeriod.MONTH;
         e.setSalaryPeriod(period);
 
         SalaryNormalizer.Normalized norm = SalaryNormalizer.normalizeToMonth(p.min(), p.max(), period);
         e.setSalaryNormMonthMin(norm.monthMin());
         e.setSalaryNormMonthMax(norm.monthMax());
-
-        List<String> tags = (p.techTags() != null && !p.techTags().isEmpty())
-                ? p.techTags()
-                : (p.techStack() != null
-                ? p.techStack().stream()
-                .map(JustJoinParser.ParsedSkill::name)
-                .filter(Objects::nonNull)
-                .distinct()
-                .limit(24)
-                .toList()
-                : Collections.emptyList());
+        SalaryNormalizer.Effective effective = SalaryNormalizer.effective(norm, salary.plnRate(p.currency()));
+        e.setEffectiveSalaryUpper(effective.upper());
+        e.setEffectiveSalaryLower(effective.lower());
+        e.setHasSalary(SalaryNormalizer.hasSalary(p.min(), p.max()));
 
         e.setTechTags(tags);
+        techTags.assign(e);
 
         e.setPublishedAt(p.publishedAt() != null ? p.publishedAt() : Instant.now());
         e.setLastSeenAt(Instant.now());
         e.setActive(true);
 
-        List<JobOfferSkillDto> skills = new ArrayList<>();
-        if (p.techStack() != null) {
-            for (JustJoinParser.ParsedSkill s : p.techStack()) {
-                if (s == null || s.name() == null) continue;
-                skills.add(new JobOfferSkillDto(
-                        s.name(),
-                        s.levelLabel(),
-                        s.levelValue(),
-                        toSourceEnum(s.source())
-                ));
-            }
-        }
         JobOfferMapper.applySkills(e, skills);
+        e.setContentHash(fingerprint);
 
-        offers.save(e);
+        String previousHash = dedupe.assignHash(e);
+        JobOffer saved = offers.save(e);
+        dedupe.refreshGroups(previousHash, saved.getDedupeHash());
+        events.publishEvent(JobOffersChangedEvent.of(saved.getId()));
     }
 
     private static boolean notBlank(String s) { return s != null && !s.isBlank(); }
@@ -0,0 +1,171 @@
+package com.milosz.podsiadly.backend.ingest.service;
+
+import com.milosz.podsiadly.backend.ingest.config.ScraperHttpProperties;
+import com.milosz.podsiadly.backend.ingest.domain.HttpValidator;
+import com.milosz.podsiadly.backend.ingest.repository.HttpValidatorRepository;
+import com.milosz.podsiadly.backend.job.domain.JobSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jsoup.HttpStatusException;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Thin fetch layer over the shared {@link HttpClient}. Errors are mapped onto the exceptions the
+ * Jsoup-based callers already handle: {@link HttpStatusException} for 4xx/5xx and
+ * {@link SocketTimeoutException} for timeouts.
+ * <p>
+ * {@link #getConditional} revalidates against the {@code http_validator} store; callers
+ * {@link #remember} the validators only once the body has been processed successfully.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ScraperHttp {
+
+    public static final String ACCEPT_HTML = "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8";
+    public static final String ACCEPT_LANGUAGE_PL = "pl-PL,pl;q=0.9,en-US;q=0.8,en;q=0.7";
+
+    public record Fetched(String url, String body, boolean unchanged, String etag, String lastModified, String contentHash) {}
+
+    private record Raw(int status, HttpHeaders headers, String body) {}
+
+    private final HttpClient scraperHttpClient;
+    private final ScraperHttpProperties props;
+    private final HttpValidatorRepository validators;
+
+    public String getString(String url, JobSource source, Map<String, String> headers) throws IOException {
+        return send(url, source, headers).body();
+    }
+
+    public Document getDocument(String url, JobSource source, Map<String, String> headers) throws IOException {
+        return Jsoup.parse(getString(url, source, headers), url);
+    }
+
+    /**
+     * Opens the decoded response body for streaming consumers (sitemaps). Gzipped payloads such as
+     * {@code *.xml.gz} are unwrapped even when served without a Content-Encoding header.
+     */
+    public InputStream openStream(String url, JobSource source, Map<String, String> headers) throws IOException {
+        BufferedInputStream in = new BufferedInputStream(decode(exchange(url, source, headers)));
+        in.mark(2);
+        int b1 = in.read();
+        int b2 = in.read();
+        in.reset();
+        return (b1 == 0x1f && b2 == 0x8b) ? new GZIPInputStream(in) : in;
+    }
+
+    public Fetched getConditional(String url, JobSource source, Map<String, String> headers) throws IOException {
+        return getConditional(url, source, headers, true);
+    }
+
+    public Fetched getConditional(String url, JobSource source, Map<String, String> headers, boolean revalidate) throws IOException {
+        if (!props.isConditionalGet()) {
+            return new Fetched(url, getString(url, source, headers), false, null, null, null);
+        }
+
+        HttpValidator known = revalidate ? validators.findById(url).orElse(null) : null;
+        Map<String, String> h = new LinkedHashMap<>(headers);
+        if (known != null) {
+            if (known.getEtag() != null) h.put("If-None-Match", known.getEtag());
+            if (known.getLastModified() != null) h.put("If-Modified-Since", known.getLastModified());
+        }
+
+        Raw res = send(url, source, h);
+        if (res.status() == 304 && known != null) {
+            return new Fetched(url, null, true, known.getEtag(), known.getLastModified(), known.getContentHash());
+        }
+
+        String hash = DigestUtils.md5DigestAsHex(res.body().getBytes(StandardCharsets.UTF_8));
+        boolean same = known != null && hash.equals(known.getContentHash());
+        return new Fetched(
+                url,
+                res.body(),
+                same,
+                res.headers().firstValue("ETag").orElse(null),
+                res.headers().firstValue("Last-Modified").orElse(null),
+                hash
+        );
+    }
+
+    public void remember(Fetched f) {
+        if (f == null || f.contentHash() == null) return;
+        validators.upsert(f.url(), f.etag(), f.lastModified(), f.contentHash(), Instant.now());
+    }
+
+    private Raw send(String url, JobSource source, Map<String, String> headers) throws IOException {
+        HttpResponse<InputStream> res = exchange(url, source, headers);
+        try (InputStream in = decode(res)) {
+            return new Raw(res.statusCode(), res.headers(), new String(in.readAllBytes(), charsetOf(res)));
+        }
+    }
+
+    private HttpResponse<InputStream> exchange(String url, JobSource source, Map<String, String> headers) throws IOException {
+        HttpRequest.Builder req = HttpRequest.newBuilder(URI.create(url))
+                .timeout(props.timeoutFor(source))
+                .header("User-Agent", props.getUserAgent())
+                .header("Accept-Encoding", "gzip, deflate")
+                .GET();
+        headers.forEach(req::header);
+
+        HttpResponse<InputStream> res;
+        try {
+            res = scraperHttpClient.send(req.build(), HttpResponse.BodyHandlers.ofInputStream());
+        } catch (HttpTimeoutException e) {
+            throw new SocketTimeoutException("Timeout fetching " + url);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted fetching " + url);
+        }
+
+        int status = res.statusCode();
+        if (status >= 400) {
+            res.body().close();
+            throw new HttpStatusException("HTTP error fetching URL", status, url);
+        }
+        return res;
+    }
+
+    private static InputStream decode(HttpResponse<InputStream> res) throws IOException {
+        String encoding = res.headers().firstValue("Content-Encoding").orElse("").trim().toLowerCase(Locale.ROOT);
+        return switch (encoding) {
+            case "gzip", "x-gzip" -> new GZIPInputStream(res.body());
+            case "deflate" -> new InflaterInputStream(res.body());
+            default -> res.body();
+        };
+    }
+
+    private static Charset charsetOf(HttpResponse<?> res) {
+        String ct = res.headers().firstValue("Content-Type").orElse("");
+        int i = ct.toLowerCase(Locale.ROOT).indexOf("charset=");
+        if (i < 0) return StandardCharsets.UTF_8;
+        String name = ct.substring(i + 8).replace("\"", "").split(";")[0].trim();
+        try {
+            return Charset.forName(name);
+        } catch (Exception ignored) {
+            return StandardCharsets.UTF_8;
+        }
+    }
+}
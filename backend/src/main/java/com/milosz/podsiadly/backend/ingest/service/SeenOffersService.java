@@ -0,0 +1,60 @@
+package com.milosz.podsiadly.backend.ingest.service;
+
+import com.milosz.podsiadly.backend.job.domain.JobSource;
+import com.milosz.podsiadly.backend.job.repository.JobOfferBatchRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Applies listing-pass "seen sets": bumps last_seen_at for active offers whose external ids a
+ * crawler saw on listing pages, so stale deactivation no longer waits on detail fetches.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SeenOffersService {
+
+    private static final int CHUNK = 5_000;
+
+    private final JobOfferBatchRepository batches;
+
+    public int markSeen(JobSource source, Collection<String> externalIds, Instant seenAt) {
+        if (source == null || externalIds == null || externalIds.isEmpty()) return 0;
+
+        int received = externalIds.size();
+        int touched = touch(source, externalIds, seenAt).size();
+        log.info("[ingest] seen-set source={} received={} touched={}", source, received, touched);
+        return touched;
+    }
+
+    /**
+     * Bumps last_seen_at and returns the external ids that matched an active offer; ids missing
+     * from the result still need a detail fetch.
+     */
+    public Set<String> touch(JobSource source, Collection<String> externalIds, Instant seenAt) {
+        if (source == null || externalIds == null || externalIds.isEmpty()) return Set.of();
+
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(externalIds.stream()
+                .filter(Objects::nonNull)
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .toList()));
+        Instant at = seenAt != null && seenAt.isBefore(Instant.now()) ? seenAt : Instant.now();
+
+        Set<String> touched = new HashSet<>();
+        for (int i = 0; i < ids.size(); i += CHUNK) {
+            touched.addAll(batches.markSeenByExternalIds(source, ids.subList(i, Math.min(i + CHUNK, ids.size())), at));
+        }
+        return touched;
+    }
+}
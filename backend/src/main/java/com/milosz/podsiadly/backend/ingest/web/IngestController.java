@@ -3,8 +3,10 @@ package com.milosz.podsiadly.backend.ingest.web;
 import com.milosz.podsiadly.backend.ingest.config.IngestMessagingProperties;
 import com.milosz.podsiadly.backend.ingest.dto.IngestSitemapRequest;
 import com.milosz.podsiadly.backend.ingest.dto.IngestUrlRequest;
+import com.milosz.podsiadly.backend.ingest.dto.SeenOffersMessage;
 import com.milosz.podsiadly.backend.ingest.service.IngestPublisher;
 import com.milosz.podsiadly.backend.ingest.service.IngestService;
+import com.milosz.podsiadly.backend.ingest.service.SeenOffersService;
 import com.milosz.podsiadly.backend.job.domain.JobSource;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -29,6 +31,7 @@ public class IngestController {
     private final IngestPublisher publisher;
     private final IngestMessagingProperties props;
     private final IngestService ingestService;
+    private final SeenOffersService seenOffers;
 
     @PostMapping("/url")
     public ResponseEntity<Void> enqueueUrl(@Valid @RequestBody IngestUrlRequest req) {
@@ -46,6 +49,14 @@ public class IngestController {
         return ResponseEntity.ok(count);
     }
 
+    @PostMapping("/seen")
+    public ResponseEntity<Integer> markSeen(@Valid @RequestBody SeenOffersMessage req) {
+        JobSource source = resolveSource(req.source());
+
+        int touched = seenOffers.markSeen(source, req.externalIds(), req.seenAt());
+        return ResponseEntity.ok(touched);
+    }
+
     private JobSource resolveSource(String sourceRaw) {
         String src = Optional.ofNullable(sourceRaw)
                 .map(String::trim)
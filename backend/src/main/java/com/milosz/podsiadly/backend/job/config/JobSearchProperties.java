@@ -0,0 +1,46 @@
+package com.milosz.podsiadly.backend.job.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+@Data
+@Component("jobSearchProperties")
+@ConfigurationProperties(prefix = "jobs.search")
+public class JobSearchProperties {
+
+    private TextMode textMode = TextMode.LIKE;
+    private Index index = new Index();
+    private Facets facets = new Facets();
+    private ResultCache resultCache = new ResultCache();
+
+    public enum TextMode { LIKE, FULL_TEXT }
+
+    @Data
+    public static class Index {
+        private boolean enabled = false;
+        private Duration refreshDelay = Duration.ofSeconds(5);
+        private Duration fullRebuildInterval = Duration.ofMinutes(30);
+        private int loadBatchSize = 2_000;
+    }
+
+    @Data
+    public static class Facets {
+        private Duration cacheTtl = Duration.ofMinutes(5);
+        private long cacheMaxSize = 1_000;
+        private Duration invalidateDelay = Duration.ofSeconds(15);
+        private int topValues = 50;
+        private List<Integer> salaryBuckets = List.of(5_000, 10_000, 15_000, 20_000, 25_000, 30_000, 40_000);
+    }
+
+    @Data
+    public static class ResultCache {
+        private boolean enabled = true;
+        private Duration ttl = Duration.ofSeconds(30);
+        private long maxSize = 2_000;
+        private Duration invalidateDelay = Duration.ofSeconds(5);
+    }
+}
@@ -0,0 +1,34 @@
+package com.milosz.podsiadly.backend.job.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+@Data
+@Component("salaryProperties")
+@ConfigurationProperties(prefix = "jobs.salary")
+public class SalaryProperties {
+
+    /**
+     * PLN per unit of currency, used for {@code effective_salary_*}. Offers without a currency count as PLN.
+     * Stored rows are recomputed by {@code R__effective_salary_rates} from the {@code salary_pln_per_*}
+     * Flyway placeholders, so a currency added here needs one there too.
+     */
+    private Map<String, BigDecimal> plnRates = new HashMap<>(Map.of(
+            "pln", BigDecimal.ONE,
+            "eur", new BigDecimal("4.30"),
+            "usd", new BigDecimal("4.00"),
+            "gbp", new BigDecimal("5.00"),
+            "chf", new BigDecimal("4.50")
+    ));
+
+    public BigDecimal plnRate(String currency) {
+        if (currency == null || currency.isBlank()) return BigDecimal.ONE;
+        return plnRates.get(currency.trim().toLowerCase(Locale.ROOT));
+    }
+}
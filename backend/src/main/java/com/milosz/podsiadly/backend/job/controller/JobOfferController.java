@@ -6,14 +6,20 @@ import com.milosz.podsiadly.backend.job.domain.JobLevel;
 import com.milosz.podsiadly.backend.job.domain.JobSource;
 import com.milosz.podsiadly.backend.job.dto.*;
 import com.milosz.podsiadly.backend.job.service.JobOfferCommandService;
+import com.milosz.podsiadly.backend.job.service.JobOfferExportFormat;
 import com.milosz.podsiadly.backend.job.service.JobOfferService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.*;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.Instant;
 import java.util.List;
@@ -32,7 +38,7 @@ public class JobOfferController {
     private String platformBaseUrl;
 
     @GetMapping
-    public Page<JobOfferListDto> search(
+    public JobOfferPage search(
             @RequestParam(required = false) String q,
             @RequestParam(required = false) String city,
             @RequestParam(required = false) Boolean remote,
@@ -49,7 +55,8 @@ public class JobOfferController {
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(required = false) Integer pageSize,
             @RequestParam(defaultValue = "20") int size,
-            @RequestParam(defaultValue = "relevance") String sort
+            @RequestParam(defaultValue = "relevance") String sort,
+            @RequestParam(required = false) String cursor
     ) {
         JobLevel effectiveLevel = (level != null) ? level : seniorityAlias;
 
@@ -73,7 +80,8 @@ public class JobOfferController {
                 contracts != null ? Set.copyOf(contracts) : Set.of(),
                 withSalary, pageable,
                 sort,
-                searchInDescription
+                searchInDescription,
+                cursor
         );
     }
 
@@ -95,7 +103,8 @@ public class JobOfferController {
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(required = false) Integer pageSize,
             @RequestParam(defaultValue = "20") int size,
-            @RequestParam(defaultValue = "relevance") String sort
+            @RequestParam(defaultValue = "relevance") String sort,
+            @RequestParam(required = false) String cursor
     ) {
         JobLevel effectiveLevel = (level != null) ? level : seniorityAlias;
 
@@ -116,7 +125,7 @@ public class JobOfferController {
                 spec, tech,
                 salaryMin, salaryMax, postedAfter,
                 contracts != null ? Set.copyOf(contracts) : Set.of(),
-                withSalary, pageable, sort, searchInDescription
+                withSalary, pageable, sort, searchInDescription, cursor
         );
     }
 
@@ -147,6 +156,33 @@ public class JobOfferController {
         );
     }
 
+    @GetMapping("/facets")
+    public JobOfferFacetsDto facets(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) Boolean remote,
+            @RequestParam(defaultValue = "false") boolean searchInDescription,
+            @RequestParam(required = false) JobLevel level,
+            @RequestParam(required = false, name = "seniority") JobLevel seniorityAlias,
+            @RequestParam(required = false) List<String> spec,
+            @RequestParam(required = false) List<String> tech,
+            @RequestParam(required = false) Integer salaryMin,
+            @RequestParam(required = false) Integer salaryMax,
+            @RequestParam(required = false, name = "contract") List<ContractType> contracts,
+            @RequestParam(required = false) Boolean withSalary,
+            @RequestParam(required = false) Instant postedAfter
+    ) {
+        JobLevel effectiveLevel = (level != null) ? level : seniorityAlias;
+        return service.facets(
+                q, city, remote, effectiveLevel,
+                spec, tech,
+                salaryMin, salaryMax, postedAfter,
+                contracts != null ? Set.copyOf(contracts) : Set.of(),
+                withSalary,
+                searchInDescription
+        );
+    }
+
     @GetMapping("/all")
     public List<JobOfferListDto> searchAll(
             @RequestParam(required = false) String q,
@@ -183,6 +219,49 @@ public class JobOfferController {
 
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) Boolean remote,
+            @RequestParam(defaultValue = "false") boolean searchInDescription,
+            @RequestParam(required = false) JobLevel level,
+            @RequestParam(required = false, name = "seniority") JobLevel seniorityAlias,
+            @RequestParam(required = false) List<String> spec,
+            @RequestParam(required = false) List<String> tech,
+            @RequestParam(required = false) Integer salaryMin,
+            @RequestParam(required = false) Integer salaryMax,
+            @RequestParam(required = false, name = "contract") List<ContractType> contracts,
+            @RequestParam(required = false) Boolean withSalary,
+            @RequestParam(required = false) Instant postedAfter,
+            @RequestParam(defaultValue = "date") String sort,
+            @RequestParam(defaultValue = "ndjson") String format
+    ) {
+        JobLevel effectiveLevel = (level != null) ? level : seniorityAlias;
+
+        JobOfferExportFormat fmt = JobOfferExportFormat.parse(format);
+        if (fmt == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported export format: " + format);
+        }
+
+        StreamingResponseBody body = out -> service.export(
+                q, city, remote, effectiveLevel,
+                spec, tech,
+                salaryMin, salaryMax, postedAfter,
+                contracts != null ? Set.copyOf(contracts) : Set.of(),
+                withSalary,
+                sort,
+                searchInDescription,
+                fmt,
+                out
+        );
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(fmt.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"jobs." + fmt.extension() + "\"")
+                .body(body);
+    }
+
     @GetMapping("/by-external/{externalId}")
     public JobOfferDetailDto getByExternal(
             @PathVariable String externalId,
@@ -16,22 +16,14 @@ import java.util.*;
                 name = "ux_job_offer_source_external",
                 columnNames = {"source","external_id"}
         ),
-        indexes = {
-                @Index(name = "ix_job_offer_active_published", columnList = "active,published_at"),
-                @Index(name = "ix_job_offer_active_last_seen", columnList = "active,last_seen_at"),
-                @Index(name = "ix_job_offer_active_city", columnList = "active,city_id"),
-                @Index(name = "ix_job_offer_active_level", columnList = "active,level"),
-                @Index(name = "ix_job_offer_active_remote", columnList = "active,remote"),
-                @Index(name = "ix_job_offer_salary_max", columnList = "salary_max"),
-                @Index(name = "ix_job_offer_salary_min", columnList = "salary_min"),
-                @Index(name = "ix_job_offer_salary_norm_max", columnList = "salary_norm_month_max")
-        }
+        indexes = @Index(name = "ix_job_offer_dedupe_hash", columnList = "dedupe_hash")
 )
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class JobOffer {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "job_offer_seq")
+    @SequenceGenerator(name = "job_offer_seq", sequenceName = "job_offer_seq", allocationSize = 50)
     private Long id;
 
     @Enumerated(EnumType.STRING)
@@ -92,12 +84,33 @@ public class JobOffer {
     @Column(name = "salary_norm_month_max")
     private Integer salaryNormMonthMax;
 
+    @Column(name = "effective_salary_upper")
+    private Integer effectiveSalaryUpper;
+
+    @Column(name = "effective_salary_lower")
+    private Integer effectiveSalaryLower;
+
+    @Builder.Default
+    @Column(name = "has_salary", nullable = false)
+    private Boolean hasSalary = false;
+
     @Builder.Default
     @ElementCollection(fetch = FetchType.LAZY)
     @CollectionTable(name = "job_offer_tags", joinColumns = @JoinColumn(name = "job_offer_id"))
     @Column(name = "tag", length = 128)
     private List<String> techTags = new ArrayList<>();
 
+    @JsonIgnore
+    @Builder.Default
+    @ManyToMany(fetch = FetchType.LAZY)
+    @JoinTable(
+            name = "job_offer_tech_tag",
+            joinColumns = @JoinColumn(name = "job_offer_id"),
+            inverseJoinColumns = @JoinColumn(name = "tag_id"),
+            indexes = @Index(name = "ix_job_offer_tech_tag_tag_offer", columnList = "tag_id,job_offer_id")
+    )
+    private Set<TechTag> techTagRefs = new HashSet<>();
+
     @Builder.Default
     @OneToMany(mappedBy = "jobOffer", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @BatchSize(size = 256)
@@ -107,6 +120,18 @@ public class JobOffer {
     private Instant lastSeenAt;
     private Boolean active;
 
+    @Column(name = "dedupe_hash", length = 32)
+    private String dedupeHash;
+
+    @Column(name = "content_hash", length = 32)
+    private String contentHash;
+
+    private Boolean canonical;
+
+    @JsonIgnore
+    @Column(name = "search_vector", columnDefinition = "tsvector", insertable = false, updatable = false)
+    private String searchVector;
+
     public void setTechTags(List<String> tags) {
         this.techTags = (tags != null) ? new ArrayList<>(tags) : new ArrayList<>();
     }
@@ -12,7 +12,9 @@ import java.util.List;
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class JobOfferHistory {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "job_offer_history_seq")
+    @SequenceGenerator(name = "job_offer_history_seq", sequenceName = "job_offer_history_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable=false) private String source;
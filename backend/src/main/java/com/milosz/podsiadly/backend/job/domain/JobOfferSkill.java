@@ -7,7 +7,9 @@ import lombok.*;
 @Table(name = "job_offer_skill")
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class JobOfferSkill {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "job_offer_skill_seq")
+    @SequenceGenerator(name = "job_offer_skill_seq", sequenceName = "job_offer_skill_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -0,0 +1,23 @@
+package com.milosz.podsiadly.backend.job.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(
+        name = "tech_tag",
+        uniqueConstraints = @UniqueConstraint(name = "ux_tech_tag_slug", columnNames = "slug")
+)
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class TechTag {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false, length = 128)
+    private String name;
+
+    @Column(nullable = false, length = 128)
+    private String slug;
+}
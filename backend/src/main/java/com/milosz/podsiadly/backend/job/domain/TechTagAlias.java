@@ -0,0 +1,21 @@
+package com.milosz.podsiadly.backend.job.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(
+        name = "tech_tag_alias",
+        indexes = @Index(name = "ix_tech_tag_alias_tag", columnList = "tag_id")
+)
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class TechTagAlias {
+
+    @Id
+    @Column(length = 128)
+    private String alias;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "tag_id", nullable = false)
+    private TechTag tag;
+}
@@ -0,0 +1,6 @@
+package com.milosz.podsiadly.backend.job.dto;
+
+public record FacetCountDto(
+        String value,
+        long count
+) {}
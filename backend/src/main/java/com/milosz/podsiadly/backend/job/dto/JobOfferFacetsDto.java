@@ -0,0 +1,12 @@
+package com.milosz.podsiadly.backend.job.dto;
+
+import java.util.List;
+
+public record JobOfferFacetsDto(
+        long total,
+        List<FacetCountDto> cities,
+        List<FacetCountDto> levels,
+        List<FacetCountDto> contracts,
+        List<FacetCountDto> techTags,
+        List<SalaryBucketDto> salary
+) {}
@@ -0,0 +1,18 @@
+package com.milosz.podsiadly.backend.job.dto;
+
+import lombok.Getter;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+@Getter
+public class JobOfferPage extends PageImpl<JobOfferListDto> {
+
+    private final String nextCursor;
+
+    public JobOfferPage(List<JobOfferListDto> content, Pageable pageable, long total, String nextCursor) {
+        super(content, pageable, total);
+        this.nextCursor = nextCursor;
+    }
+}
@@ -6,5 +6,6 @@ public record JobOfferSliceDto(
         List<JobOfferListDto> content,
         int page,
         int size,
-        boolean hasNext
+        boolean hasNext,
+        String nextCursor
 ) {}
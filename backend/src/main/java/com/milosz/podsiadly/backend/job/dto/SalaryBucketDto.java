@@ -0,0 +1,7 @@
+package com.milosz.podsiadly.backend.job.dto;
+
+public record SalaryBucketDto(
+        Integer from,
+        Integer to,
+        long count
+) {}
@@ -0,0 +1,327 @@
+package com.milosz.podsiadly.backend.job.repository;
+
+import com.milosz.podsiadly.backend.job.domain.ContractType;
+import com.milosz.podsiadly.backend.job.domain.JobSource;
+import com.milosz.podsiadly.backend.job.dto.JobOfferSkillDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Function;
+
+@Repository
+@RequiredArgsConstructor
+public class JobOfferBatchRepository {
+
+    public record ExistingOffer(long id, String dedupeHash, String contentHash, Boolean active) {}
+
+    public record OfferRow(
+            JobSource source,
+            String externalId,
+            String url,
+            String applyUrl,
+            String title,
+            String description,
+            Long companyId,
+            Long cityId,
+            Boolean remote,
+            String level,
+            String contract,
+            Integer salaryMin,
+            Integer salaryMax,
+            String currency,
+            String salaryPeriod,
+            Integer salaryNormMonthMin,
+            Integer salaryNormMonthMax,
+            Integer effectiveSalaryUpper,
+            Integer effectiveSalaryLower,
+            Boolean hasSalary,
+            Instant publishedAt,
+            Instant lastSeenAt,
+            Boolean active,
+            String dedupeHash,
+            String contentHash
+    ) {}
+
+    private record Arr(String type, Object[] values) {}
+
+    private final JdbcTemplate jdbc;
+
+    public Map<String, Long> resolveCompanies(Collection<String> names) {
+        return resolveNames("company", names);
+    }
+
+    public Map<String, Long> resolveCities(Collection<String> names) {
+        return resolveNames("city", names);
+    }
+
+    public Map<String, ExistingOffer> findExisting(List<JobSource> sources, List<String> externalIds) {
+        if (externalIds.isEmpty()) return Map.of();
+
+        Map<String, ExistingOffer> out = new HashMap<>();
+        jdbc.query(statement("""
+                SELECT o.id, o.source, o.external_id, o.dedupe_hash, o.content_hash, o.active
+                  FROM job_offer o
+                 WHERE (o.source, o.external_id) IN (SELECT * FROM unnest(?::text[], ?::text[]))
+                """, arr("text", sources.stream().map(Enum::name).toList()), arr("text", externalIds)),
+                rs -> {
+                    out.put(key(rs.getString("source"), rs.getString("external_id")), new ExistingOffer(
+                            rs.getLong("id"),
+                            rs.getString("dedupe_hash"),
+                            rs.getString("content_hash"),
+                            rs.getObject("active", Boolean.class)
+                    ));
+                });
+        return out;
+    }
+
+    public List<Long> upsertOffers(List<OfferRow> rows) {
+        if (rows.isEmpty()) return List.of();
+
+        Map<String, Long> ids = new HashMap<>();
+        jdbc.query(statement("""
+                INSERT INTO job_offer (source, external_id, url, apply_url, title, description, company_id, city_id,
+                                       remote, level, contract, salary_min, salary_max, currency, salary_period,
+                                       salary_norm_month_min, salary_norm_month_max, effective_salary_upper,
+                                       effective_salary_lower, has_salary, published_at, last_seen_at,
+                                       active, dedupe_hash, content_hash)
+                SELECT u.source, u.external_id, u.url, u.apply_url, u.title, u.description, u.company_id, u.city_id,
+                       u.remote, u.level, u.contract, u.salary_min, u.salary_max, u.currency, u.salary_period,
+                       u.norm_min, u.norm_max, u.effective_upper, u.effective_lower, u.has_salary,
+                       u.published_at::timestamptz, u.last_seen_at::timestamptz,
+                       u.active, u.dedupe_hash, u.content_hash
+                  FROM unnest(?::text[], ?::text[], ?::text[], ?::text[], ?::text[], ?::text[], ?::bigint[], ?::bigint[],
+                              ?::boolean[], ?::text[], ?::text[], ?::int[], ?::int[], ?::text[], ?::text[],
+                              ?::int[], ?::int[], ?::int[], ?::int[], ?::boolean[],
+                              ?::text[], ?::text[], ?::boolean[], ?::text[], ?::text[])
+                       AS u(source, external_id, url, apply_url, title, description, company_id, city_id,
+                            remote, level, contract, salary_min, salary_max, currency, salary_period,
+                            norm_min, norm_max, effective_upper, effective_lower, has_salary,
+                            published_at, last_seen_at, active, dedupe_hash, content_hash)
+                ON CONFLICT (source, external_id) DO UPDATE SET
+                    url = EXCLUDED.url,
+                    apply_url = EXCLUDED.apply_url,
+                    title = EXCLUDED.title,
+                    description = EXCLUDED.description,
+                    company_id = EXCLUDED.company_id,
+                    city_id = EXCLUDED.city_id,
+                    remote = EXCLUDED.remote,
+                    level = EXCLUDED.level,
+                    contract = EXCLUDED.contract,
+                    salary_min = EXCLUDED.salary_min,
+                    salary_max = EXCLUDED.salary_max,
+                    currency = EXCLUDED.currency,
+                    salary_period = EXCLUDED.salary_period,
+                    salary_norm_month_min = EXCLUDED.salary_norm_month_min,
+                    salary_norm_month_max = EXCLUDED.salary_norm_month_max,
+                    effective_salary_upper = EXCLUDED.effective_salary_upper,
+                    effective_salary_lower = EXCLUDED.effective_salary_lower,
+                    has_salary = EXCLUDED.has_salary,
+                    published_at = EXCLUDED.published_at,
+                    last_seen_at = coalesce(EXCLUDED.last_seen_at, job_offer.last_seen_at),
+                    active = EXCLUDED.active,
+                    dedupe_hash = EXCLUDED.dedupe_hash,
+                    content_hash = EXCLUDED.content_hash
+                RETURNING id, source, external_id
+                """,
+                column(rows, "text", r -> r.source().name()),
+                column(rows, "text", OfferRow::externalId),
+                column(rows, "text", OfferRow::url),
+                column(rows, "text", OfferRow::applyUrl),
+                column(rows, "text", OfferRow::title),
+                column(rows, "text", OfferRow::description),
+                column(rows, "int8", OfferRow::companyId),
+                column(rows, "int8", OfferRow::cityId),
+                column(rows, "bool", OfferRow::remote),
+                column(rows, "text", OfferRow::level),
+                column(rows, "text", OfferRow::contract),
+                column(rows, "int4", OfferRow::salaryMin),
+                column(rows, "int4", OfferRow::salaryMax),
+                column(rows, "text", OfferRow::currency),
+                column(rows, "text", OfferRow::salaryPeriod),
+                column(rows, "int4", OfferRow::salaryNormMonthMin),
+                column(rows, "int4", OfferRow::salaryNormMonthMax),
+                column(rows, "int4", OfferRow::effectiveSalaryUpper),
+                column(rows, "int4", OfferRow::effectiveSalaryLower),
+                column(rows, "bool", OfferRow::hasSalary),
+                column(rows, "text", r -> r.publishedAt() != null ? r.publishedAt().toString() : null),
+                column(rows, "text", r -> r.lastSeenAt() != null ? r.lastSeenAt().toString() : null),
+                column(rows, "bool", OfferRow::active),
+                column(rows, "text", OfferRow::dedupeHash),
+                column(rows, "text", OfferRow::contentHash)),
+                rs -> {
+                    ids.put(key(rs.getString("source"), rs.getString("external_id")), rs.getLong("id"));
+                });
+
+        List<Long> out = new ArrayList<>(rows.size());
+        for (OfferRow r : rows) {
+            out.add(ids.get(key(r.source().name(), r.externalId())));
+        }
+        return out;
+    }
+
+    public int markSeen(Collection<Long> ids, Instant seenAt) {
+        if (ids.isEmpty()) return 0;
+
+        Object[] values = ids.toArray();
+        return jdbc.update(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "UPDATE job_offer SET last_seen_at = ? WHERE id = ANY(?::bigint[])");
+            ps.setTimestamp(1, Timestamp.from(seenAt));
+            ps.setArray(2, con.createArrayOf("int8", values));
+            return ps;
+        });
+    }
+
+    public List<String> markSeenByExternalIds(JobSource source, List<String> externalIds, Instant seenAt) {
+        if (externalIds.isEmpty()) return List.of();
+
+        Object[] values = externalIds.toArray();
+        return jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement("""
+                    UPDATE job_offer o
+                       SET last_seen_at = greatest(o.last_seen_at, ?)
+                      FROM unnest(?::text[]) AS u(external_id)
+                     WHERE o.source = ?
+                       AND o.external_id = u.external_id
+                       AND o.active = true
+                    RETURNING o.external_id
+                    """);
+            ps.setTimestamp(1, Timestamp.from(seenAt));
+            ps.setArray(2, con.createArrayOf("text", values));
+            ps.setString(3, source.name());
+            return ps;
+        }, (rs, i) -> rs.getString(1));
+    }
+
+    public void replaceContracts(Map<Long, ? extends Collection<ContractType>> contracts) {
+        Map<Long, List<String>> names = new LinkedHashMap<>();
+        contracts.forEach((id, set) -> names.put(id, set == null ? List.of() : set.stream()
+                .filter(Objects::nonNull)
+                .map(Enum::name)
+                .distinct()
+                .toList()));
+        replaceElements("job_offer_contract", "contract", "text", names);
+    }
+
+    public void replaceTags(Map<Long, ? extends Collection<String>> tags) {
+        replaceElements("job_offer_tags", "tag", "text", tags);
+    }
+
+    public void replaceTechTagRefs(Map<Long, ? extends Collection<Integer>> tagIds) {
+        replaceElements("job_offer_tech_tag", "tag_id", "int4", tagIds);
+    }
+
+    public void replaceSkills(Map<Long, ? extends Collection<JobOfferSkillDto>> skills) {
+        if (skills.isEmpty()) return;
+
+        jdbc.update(statement("DELETE FROM job_offer_skill WHERE job_offer_id = ANY(?::bigint[])",
+                arr("int8", skills.keySet())));
+
+        List<Long> offerIds = new ArrayList<>();
+        List<JobOfferSkillDto> rows = new ArrayList<>();
+        skills.forEach((id, list) -> {
+            if (list == null) return;
+            for (JobOfferSkillDto d : list) {
+                if (d == null || d.name() == null || d.source() == null) continue;
+                offerIds.add(id);
+                rows.add(d);
+            }
+        });
+        if (rows.isEmpty()) return;
+
+        jdbc.update(statement("""
+                INSERT INTO job_offer_skill (job_offer_id, name, level_label, level_value, source)
+                SELECT * FROM unnest(?::bigint[], ?::text[], ?::text[], ?::int[], ?::text[])
+                """,
+                arr("int8", offerIds),
+                column(rows, "text", JobOfferSkillDto::name),
+                column(rows, "text", JobOfferSkillDto::levelLabel),
+                column(rows, "int4", JobOfferSkillDto::levelValue),
+                column(rows, "text", d -> d.source().name())));
+    }
+
+    private void replaceElements(String table, String column, String type, Map<Long, ? extends Collection<?>> values) {
+        if (values.isEmpty()) return;
+
+        jdbc.update(statement("DELETE FROM " + table + " WHERE job_offer_id = ANY(?::bigint[])",
+                arr("int8", values.keySet())));
+
+        List<Long> offerIds = new ArrayList<>();
+        List<Object> elements = new ArrayList<>();
+        values.forEach((id, list) -> {
+            if (list == null) return;
+            for (Object v : list) {
+                if (v == null) continue;
+                offerIds.add(id);
+                elements.add(v);
+            }
+        });
+        if (elements.isEmpty()) return;
+
+        jdbc.update(statement(
+                "INSERT INTO " + table + " (job_offer_id, " + column + ") " +
+                "SELECT * FROM unnest(?::bigint[], ?::" + type + "[]) ON CONFLICT DO NOTHING",
+                arr("int8", offerIds),
+                arr(type, elements)));
+    }
+
+    private Map<String, Long> resolveNames(String table, Collection<String> names) {
+        List<String> distinct = names.stream()
+                .filter(Objects::nonNull)
+                .map(String::trim)
+                .filter(n -> !n.isEmpty())
+                .distinct()
+                .toList();
+        if (distinct.isEmpty()) return Map.of();
+
+        Arr arr = arr("text", distinct);
+        jdbc.update(statement("""
+                INSERT INTO %1$s (name)
+                SELECT DISTINCT ON (lower(n)) n
+                  FROM unnest(?::text[]) AS n
+                 ORDER BY lower(n), n
+                ON CONFLICT ((lower(name))) DO NOTHING
+                """.formatted(table), arr));
+
+        Map<String, Long> out = new HashMap<>();
+        jdbc.query(statement("""
+                SELECT n AS name, m.id
+                  FROM unnest(?::text[]) AS n
+                  JOIN %1$s m ON lower(m.name) = lower(n)
+                """.formatted(table), arr),
+                rs -> {
+                    out.put(rs.getString("name"), rs.getLong("id"));
+                });
+        return out;
+    }
+
+    private static String key(String source, String externalId) {
+        return source + "|" + externalId;
+    }
+
+    private static <T> Arr column(List<T> rows, String type, Function<T, ?> getter) {
+        Object[] values = new Object[rows.size()];
+        for (int i = 0; i < values.length; i++) values[i] = getter.apply(rows.get(i));
+        return new Arr(type, values);
+    }
+
+    private static Arr arr(String type, Collection<?> values) {
+        return new Arr(type, values.toArray());
+    }
+
+    private static PreparedStatementCreator statement(String sql, Arr... params) {
+        return con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            for (int i = 0; i < params.length; i++) {
+                ps.setArray(i + 1, con.createArrayOf(params[i].type(), params[i].values()));
+            }
+            return ps;
+        };
+    }
+}
@@ -0,0 +1,7 @@
+package com.milosz.podsiadly.backend.job.repository;
+
+public interface JobOfferContentState {
+    Long getId();
+    String getContentHash();
+    Boolean getActive();
+}
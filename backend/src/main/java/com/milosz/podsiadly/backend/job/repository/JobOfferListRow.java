@@ -0,0 +1,9 @@
+package com.milosz.podsiadly.backend.job.repository;
+
+import com.milosz.podsiadly.backend.job.dto.JobOfferListDto;
+
+public record JobOfferListRow(
+        JobOfferListDto dto,
+        Integer effectiveSalaryUpper,
+        Integer effectiveSalaryLower
+) {}
@@ -0,0 +1,184 @@
+package com.milosz.podsiadly.backend.job.repository;
+
+import com.milosz.podsiadly.backend.job.domain.JobOffer;
+import com.milosz.podsiadly.backend.job.dto.JobOfferListDto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.stream.Stream;
+
+@Repository
+@RequiredArgsConstructor
+public class JobOfferQueryRepository {
+
+    private static final int ID_CHUNK = 1_000;
+
+    private static final String LIST_ROWS_SQL = """
+        SELECT o.id, o.title, c.name AS company_name, ci.name AS city_name,
+               o.remote, o.level, o.contract,
+               o.salary_min, o.salary_max, o.currency, o.salary_period,
+               o.effective_salary_upper, o.effective_salary_lower, o.published_at,
+               (SELECT array_agg(jc.contract ORDER BY jc.contract)
+                  FROM job_offer_contract jc
+                 WHERE jc.job_offer_id = o.id) AS contracts,
+               (SELECT array_agg(t.tag ORDER BY t.tag)
+                  FROM job_offer_tags t
+                 WHERE t.job_offer_id = o.id) AS tags
+          FROM job_offer o
+          LEFT JOIN company c ON c.id = o.company_id
+          LEFT JOIN city ci ON ci.id = o.city_id
+         WHERE o.id IN (:ids)
+        """;
+
+    private static final String FACETS_SQL = """
+        WITH m AS MATERIALIZED (
+            SELECT o.id, o.level, o.contract, ci.name AS city,
+                   o.effective_salary_upper AS upper_salary
+              FROM job_offer o
+              LEFT JOIN city ci ON ci.id = o.city_id
+             WHERE %s
+        )
+        SELECT 'total' AS facet, NULL AS value, count(*) AS cnt
+          FROM m
+        UNION ALL
+        SELECT 'city', m.city, count(*)
+          FROM m WHERE m.city IS NOT NULL GROUP BY m.city
+        UNION ALL
+        SELECT 'level', m.level, count(*)
+          FROM m WHERE m.level IS NOT NULL GROUP BY m.level
+        UNION ALL
+        SELECT 'contract', c.contract, count(*)
+          FROM (SELECT m.id, m.contract FROM m WHERE m.contract IS NOT NULL
+                UNION
+                SELECT jc.job_offer_id, jc.contract FROM job_offer_contract jc JOIN m ON m.id = jc.job_offer_id) c
+         GROUP BY c.contract
+        UNION ALL
+        SELECT 'tag', tt.name, count(*)
+          FROM job_offer_tech_tag x
+          JOIN m ON m.id = x.job_offer_id
+          JOIN tech_tag tt ON tt.id = x.tag_id
+         GROUP BY tt.name
+        UNION ALL
+        SELECT 'salary', width_bucket(m.upper_salary, ARRAY[:salaryBounds]::integer[])::text, count(*)
+          FROM m WHERE m.upper_salary IS NOT NULL GROUP BY 2
+        """;
+
+    /** A native WHERE clause over {@code job_offer o} / {@code city ci} with its named parameters. */
+    public record SqlFilter(String where, Map<String, Object> params) {}
+
+    public record FacetRow(String facet, String value, long count) {}
+
+    private final EntityManager em;
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public Stream<Long> streamIds(Specification<JobOffer> spec, Sort sort, int fetchSize) {
+        return idQuery(spec, sort)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream()
+                .map(t -> t.get(0, Long.class));
+    }
+
+    public List<Long> findIds(Specification<JobOffer> spec, Sort sort, long offset, int limit) {
+        TypedQuery<Tuple> query = idQuery(spec, sort);
+        if (offset > 0) query.setFirstResult(Math.toIntExact(offset));
+        if (limit >= 0) query.setMaxResults(limit);
+        return query.getResultList().stream()
+                .map(t -> t.get(0, Long.class))
+                .toList();
+    }
+
+    public List<JobOfferListRow> findListRows(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) return List.of();
+
+        Map<Long, JobOfferListRow> byId = new HashMap<>(ids.size() * 2);
+        for (int i = 0; i < ids.size(); i += ID_CHUNK) {
+            List<Long> chunk = ids.subList(i, Math.min(i + ID_CHUNK, ids.size()));
+            jdbc.query(LIST_ROWS_SQL, Map.of("ids", chunk), rs -> {
+                JobOfferListRow row = toListRow(rs);
+                byId.put(row.dto().id(), row);
+            });
+        }
+
+        List<JobOfferListRow> out = new ArrayList<>(byId.size());
+        for (Long id : ids) {
+            JobOfferListRow row = byId.get(id);
+            if (row != null) out.add(row);
+        }
+        return out;
+    }
+
+    public List<FacetRow> facetCounts(SqlFilter filter, List<Integer> salaryBounds) {
+        Map<String, Object> params = new HashMap<>(filter.params());
+        params.put("salaryBounds", salaryBounds);
+        return jdbc.query(FACETS_SQL.formatted(filter.where()), params,
+                (rs, i) -> new FacetRow(rs.getString("facet"), rs.getString("value"), rs.getLong("cnt")));
+    }
+
+    private TypedQuery<Tuple> idQuery(Specification<JobOffer> spec, Sort sort) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<JobOffer> root = cq.from(JobOffer.class);
+        cq.multiselect(root.get("id"));
+
+        Predicate where = spec.toPredicate(root, cq, cb);
+        if (where != null) cq.where(where);
+        if (sort.isSorted()) cq.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        return em.createQuery(cq)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+    }
+
+    private static JobOfferListRow toListRow(ResultSet rs) throws SQLException {
+        Timestamp published = rs.getTimestamp("published_at");
+        JobOfferListDto dto = new JobOfferListDto(
+                rs.getLong("id"),
+                rs.getString("title"),
+                rs.getString("company_name"),
+                rs.getString("city_name"),
+                rs.getObject("remote", Boolean.class),
+                rs.getString("level"),
+                rs.getString("contract"),
+                strings(rs.getArray("contracts")),
+                rs.getObject("salary_min", Integer.class),
+                rs.getObject("salary_max", Integer.class),
+                rs.getString("currency"),
+                rs.getString("salary_period"),
+                strings(rs.getArray("tags")),
+                published != null ? published.toInstant() : null
+        );
+        return new JobOfferListRow(
+                dto,
+                rs.getObject("effective_salary_upper", Integer.class),
+                rs.getObject("effective_salary_lower", Integer.class)
+        );
+    }
+
+    private static List<String> strings(Array array) throws SQLException {
+        if (array == null) return List.of();
+        try {
+            Object[] values = (Object[]) array.getArray();
+            List<String> out = new ArrayList<>(values.length);
+            for (Object v : values) out.add(v != null ? v.toString() : null);
+            return out;
+        } finally {
+            array.free();
+        }
+    }
+}
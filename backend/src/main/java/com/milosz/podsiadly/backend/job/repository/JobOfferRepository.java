@@ -7,8 +7,10 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -54,6 +56,143 @@ public interface JobOfferRepository
     int deactivateStale(@Param("source") JobSource source,
                         @Param("cutoff") Instant cutoff);
 
+    @Query("""
+    select o.id as id, o.contentHash as contentHash, o.active as active
+      from JobOffer o
+     where o.source = :source
+       and o.externalId = :externalId
+    """)
+    Optional<JobOfferContentState> findContentState(@Param("source") JobSource source,
+                                                    @Param("externalId") String externalId);
+
+    @Modifying
+    @Query("update JobOffer o set o.lastSeenAt = :seenAt where o.id = :id")
+    int markSeen(@Param("id") Long id, @Param("seenAt") Instant seenAt);
+
+    @Transactional
+    @Modifying
+    @Query("""
+    update JobOffer o
+       set o.lastSeenAt = :seenAt
+     where o.source = :source
+       and o.active = true
+       and (o.externalId = :externalId or o.url = :url)
+    """)
+    int touchLastSeen(@Param("source") JobSource source,
+                      @Param("externalId") String externalId,
+                      @Param("url") String url,
+                      @Param("seenAt") Instant seenAt);
+
+    @Query("""
+    select o.id
+    from JobOffer o
+    where o.source = :source
+      and o.active = true
+      and o.lastSeenAt < :cutoff
+    order by o.id
+    """)
+    List<Long> findStaleActiveIds(@Param("source") JobSource source,
+                                  @Param("cutoff") Instant cutoff,
+                                  Pageable pageable);
+
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("""
+    update JobOffer o
+       set o.active = false
+     where o.id in :ids
+       and o.active = true
+       and o.lastSeenAt < :cutoff
+    """)
+    int deactivateStaleByIds(@Param("ids") List<Long> ids,
+                             @Param("cutoff") Instant cutoff);
+
+    @Query(value = """
+    WITH keep AS (
+        SELECT DISTINCT ON (k.dedupe_hash) k.id
+          FROM job_offer k
+         WHERE k.dedupe_hash IN (:hashes)
+           AND k.active = true
+         ORDER BY k.dedupe_hash, k.published_at DESC, k.id DESC
+    )
+    UPDATE job_offer o
+       SET canonical = (o.id IN (SELECT id FROM keep))
+     WHERE o.dedupe_hash IN (:hashes)
+       AND o.canonical IS DISTINCT FROM (o.id IN (SELECT id FROM keep))
+    RETURNING o.id
+    """, nativeQuery = true)
+    List<Long> refreshCanonicalByHashes(@Param("hashes") Collection<String> hashes);
+
+    @Query(value = """
+    WITH groups AS (
+        SELECT DISTINCT g.dedupe_hash
+          FROM job_offer g
+         WHERE g.id IN (:ids)
+           AND g.dedupe_hash IS NOT NULL
+    ),
+    keep AS (
+        SELECT DISTINCT ON (k.dedupe_hash) k.id
+          FROM job_offer k
+          JOIN groups ON groups.dedupe_hash = k.dedupe_hash
+         WHERE k.active = true
+         ORDER BY k.dedupe_hash, k.published_at DESC, k.id DESC
+    )
+    UPDATE job_offer o
+       SET canonical = (o.id IN (SELECT id FROM keep))
+      FROM groups
+     WHERE o.dedupe_hash = groups.dedupe_hash
+       AND o.canonical IS DISTINCT FROM (o.id IN (SELECT id FROM keep))
+    RETURNING o.id
+    """, nativeQuery = true)
+    List<Long> refreshCanonicalForIds(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+    select o.id, o.title, ci.name, o.remote, o.level, o.contract,
+           o.effectiveSalaryUpper, o.effectiveSalaryLower, o.hasSalary, o.publishedAt
+    from JobOffer o
+    left join o.city ci
+    where o.active = true
+      and (o.canonical is null or o.canonical = true)
+      and o.id > :afterId
+    order by o.id
+    """)
+    List<Object[]> findActiveIndexRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("""
+    select o.id, o.title, ci.name, o.remote, o.level, o.contract,
+           o.effectiveSalaryUpper, o.effectiveSalaryLower, o.hasSalary, o.publishedAt
+    from JobOffer o
+    left join o.city ci
+    where o.active = true
+      and (o.canonical is null or o.canonical = true)
+      and o.id in :ids
+    """)
+    List<Object[]> findActiveIndexRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+    select o.id, m.id, m.level, m.contract
+    from JobOffer o, JobOffer m
+    where o.id in :ids
+      and (m.id = o.id or (m.dedupeHash = o.dedupeHash and m.active = true))
+    """)
+    List<Object[]> findGroupMembersByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+    select distinct c.id
+    from JobOffer m, JobOffer c
+    where m.id in :ids
+      and c.dedupeHash = m.dedupeHash
+      and c.id <> m.id
+      and c.active = true
+      and c.canonical = true
+    """)
+    List<Long> findGroupCanonicalIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select o.id, t.id from JobOffer o join o.techTagRefs t where o.id in :ids")
+    List<Object[]> findTechTagIdPairsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select o.id, c from JobOffer o join o.contracts c where o.id in :ids")
+    List<Object[]> findContractPairsByIdIn(@Param("ids") Collection<Long> ids);
+
     @Query("""
       select j
       from JobOffer j
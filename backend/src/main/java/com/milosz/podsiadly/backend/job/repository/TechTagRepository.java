@@ -0,0 +1,7 @@
+package com.milosz.podsiadly.backend.job.repository;
+
+import com.milosz.podsiadly.backend.job.domain.TechTag;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface TechTagRepository extends JpaRepository<TechTag, Integer> {
+}
@@ -0,0 +1,147 @@
+package com.milosz.podsiadly.backend.job.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.milosz.podsiadly.backend.job.domain.City;
+import com.milosz.podsiadly.backend.job.domain.Company;
+import com.milosz.podsiadly.backend.job.repository.CityRepository;
+import com.milosz.podsiadly.backend.job.repository.CompanyRepository;
+import com.milosz.podsiadly.backend.job.repository.JobOfferBatchRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Resolves company and city names to ids through a bounded in-memory cache. Misses go to a single
+ * {@code INSERT ... ON CONFLICT ((lower(name))) ... RETURNING id}; nothing here flushes or clears
+ * the persistence context, and entities are handed out as references, so a cached name costs no
+ * query at all. Ids of rows created in the current transaction are cached only after commit.
+ */
+@Service
+public class CompanyCityResolver {
+
+    private final CompanyRepository companies;
+    private final CityRepository cities;
+    private final JobOfferBatchRepository batches;
+    private final JdbcTemplate jdbc;
+
+    private final Cache<String, Long> companyIds;
+    private final Cache<String, Long> cityIds;
+
+    public CompanyCityResolver(CompanyRepository companies,
+                               CityRepository cities,
+                               JobOfferBatchRepository batches,
+                               JdbcTemplate jdbc,
+                               @Value("${jobs.ingest.names.cache-max-size:50000}") long maxSize) {
+        this.companies = companies;
+        this.cities = cities;
+        this.batches = batches;
+        this.jdbc = jdbc;
+        this.companyIds = Caffeine.newBuilder().maximumSize(maxSize).build();
+        this.cityIds = Caffeine.newBuilder().maximumSize(maxSize).build();
+    }
+
+    public static String key(String name) {
+        if (name == null) return null;
+        String k = name.trim().toLowerCase(Locale.ROOT);
+        return k.isEmpty() ? null : k;
+    }
+
+    public Company company(String name) {
+        Long id = resolve("company", companyIds, name, null);
+        return id != null ? companies.getReferenceById(id) : null;
+    }
+
+    public City city(String name) {
+        return city(name, null);
+    }
+
+    public City city(String name, String countryCode) {
+        Long id = resolve("city", cityIds, name, countryCode);
+        return id != null ? cities.getReferenceById(id) : null;
+    }
+
+    /** Batch variant keyed by the trimmed input names. */
+    public Map<String, Long> companyIds(Collection<String> names) {
+        return resolveAll(companyIds, names, batches::resolveCompanies);
+    }
+
+    public Map<String, Long> cityIds(Collection<String> names) {
+        return resolveAll(cityIds, names, batches::resolveCities);
+    }
+
+    private Long resolve(String table, Cache<String, Long> cache, String name, String countryCode) {
+        String k = key(name);
+        if (k == null) return null;
+
+        Long cached = cache.getIfPresent(k);
+        if (cached != null) return cached;
+
+        String sql = "city".equals(table)
+                ? """
+                  INSERT INTO city (name, country_code) VALUES (?, ?)
+                  ON CONFLICT ((lower(name))) DO UPDATE SET name = city.name
+                  RETURNING id, (xmax = 0) AS inserted
+                  """
+                : """
+                  INSERT INTO company (name) VALUES (?)
+                  ON CONFLICT ((lower(name))) DO UPDATE SET name = company.name
+                  RETURNING id, (xmax = 0) AS inserted
+                  """;
+        Object[] args = "city".equals(table) ? new Object[]{name.trim(), countryCode} : new Object[]{name.trim()};
+
+        Map<String, Object> row = jdbc.queryForMap(sql, args);
+        Long id = ((Number) row.get("id")).longValue();
+        if (Boolean.TRUE.equals(row.get("inserted"))) {
+            cacheAfterCommit(cache, Map.of(k, id));
+        } else {
+            cache.put(k, id);
+        }
+        return id;
+    }
+
+    private Map<String, Long> resolveAll(Cache<String, Long> cache,
+                                         Collection<String> names,
+                                         Function<Collection<String>, Map<String, Long>> loader) {
+        Map<String, Long> out = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String n : names) {
+            if (n == null) continue;
+            String trimmed = n.trim();
+            String k = key(trimmed);
+            if (k == null || out.containsKey(trimmed)) continue;
+
+            Long id = cache.getIfPresent(k);
+            if (id != null) out.put(trimmed, id);
+            else missing.add(trimmed);
+        }
+        if (missing.isEmpty()) return out;
+
+        Map<String, Long> loaded = loader.apply(missing);
+        out.putAll(loaded);
+
+        Map<String, Long> byKey = new HashMap<>();
+        loaded.forEach((n, id) -> byKey.put(key(n), id));
+        cacheAfterCommit(cache, byKey);
+        return out;
+    }
+
+    private static void cacheAfterCommit(Cache<String, Long> cache, Map<String, Long> ids) {
+        if (ids.isEmpty()) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.putAll(ids);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.putAll(ids);
+            }
+        });
+    }
+}
@@ -2,13 +2,16 @@
 
     import com.milosz.podsiadly.backend.domain.loginandregister.User;
     import com.milosz.podsiadly.backend.domain.myapplication.JobApplicationRepository;
+    import com.milosz.podsiadly.backend.job.config.SalaryProperties;
     import com.milosz.podsiadly.backend.job.domain.*;
     import com.milosz.podsiadly.backend.job.dto.*;
     import com.milosz.podsiadly.backend.job.mapper.JobOfferMapper;
     import com.milosz.podsiadly.backend.job.repository.*;
+    import com.milosz.podsiadly.backend.job.service.event.JobOffersChangedEvent;
     import jakarta.transaction.Transactional;
     import lombok.RequiredArgsConstructor;
     import lombok.extern.slf4j.Slf4j;
+    import org.springframework.context.ApplicationEventPublisher;
     import org.springframework.security.crypto.password.PasswordEncoder;
     import org.springframework.stereotype.Service;
 
@@ -21,15 +24,28 @@
     public class JobOfferCommandService {
 
         private final JobOfferRepository offers;
-        private final CompanyRepository companies;
-        private final CityRepository cities;
+        private final CompanyCityResolver companyCity;
         private final JobOfferOwnerRepository owners;
         private final PasswordEncoder passwordEncoder;
         private final OfferArchiveService archiveService;
         private final JobApplicationRepository applications;
+        private final ApplicationEventPublisher events;
+        private final JobOfferDedupeService dedupe;
+        private final TechTagService techTags;
+        private final SalaryProperties salary;
 
         private static final int PUBLISH_DAYS = 14;
 
+        private void applyEffectiveSalary(JobOffer e) {
+            SalaryNormalizer.Normalized norm = SalaryNormalizer.normalizeToMonth(
+                    e.getSalaryMin(), e.getSalaryMax(), e.getSalaryPeriod()
+            );
+            SalaryNormalizer.Effective effective = SalaryNormalizer.effective(norm, salary.plnRate(e.getCurrency()));
+            e.setEffectiveSalaryUpper(effective.upper());
+            e.setEffectiveSalaryLower(effective.lower());
+            e.setHasSalary(SalaryNormalizer.hasSalary(e.getSalaryMin(), e.getSalaryMax()));
+        }
+
         private static String generatedExternalId(JobSource source) {
             return source.name().toLowerCase() + "-" + UUID.randomUUID();
         }
@@ -72,7 +88,10 @@
 
             e.setContracts(contractSet);
             e.setTechTags(req.techTags());
+            techTags.assign(e);
             JobOfferMapper.applySkills(e, req.techStack());
+            applyEffectiveSalary(e);
+            dedupe.assignHash(e);
 
             e = offers.save(e);
 
@@ -84,6 +103,8 @@
 
             e.setOwner(rel);
             offers.save(e);
+            dedupe.refreshGroups(e.getDedupeHash());
+            events.publishEvent(JobOffersChangedEvent.of(e.getId()));
 
             return JobOfferMapper.toDetailDto(e);
         }
@@ -123,13 +144,18 @@
             }
             if (req.techTags() != null) {
                 e.setTechTags(req.techTags());
+                techTags.assign(e);
             }
             if (req.techStack() != null) {
                 JobOfferMapper.applySkills(e, req.techStack());
             }
 
+            applyEffectiveSalary(e);
             e.setLastSeenAt(Instant.now());
+            String previousHash = dedupe.assignHash(e);
             offers.save(e);
+            dedupe.refreshGroups(previousHash, e.getDedupeHash());
+            events.publishEvent(JobOffersChangedEvent.of(e.getId()));
 
             return JobOfferMapper.toDetailDto(e);
         }
@@ -165,7 +191,10 @@
             owners.deleteByJobOffer_Id(offerId);
             log.info("[job.delete] owners deleted={} (before={})", before, before);
 
+            String hash = offer.getDedupeHash();
             offers.delete(offer);
+            dedupe.refreshGroups(hash);
+            events.publishEvent(JobOffersChangedEvent.of(offerId));
             log.info("[job.delete] offer deleted ok (offerId={})", offerId);
         }
 
@@ -177,6 +206,8 @@
                             cb.lessThanOrEqualTo(r.get("publishedAt"), cutoff)));
             candidates.forEach(o -> o.setActive(false));
             offers.saveAll(candidates);
+            dedupe.refreshForOffers(candidates.stream().map(JobOffer::getId).toList());
+            events.publishEvent(new JobOffersChangedEvent(candidates.stream().map(JobOffer::getId).toList()));
             return candidates.size();
         }
 
@@ -188,18 +219,11 @@
         }
 
         private Company upsertCompany(String name) {
-            if (name == null || name.isBlank()) return null;
-            String n = name.trim();
-            companies.insertIgnore(n);
-            return companies.findFirstByNameIgnoreCaseOrderByIdAsc(n)
-                    .orElseGet(() -> companies.save(Company.builder().name(n).build()));
+            return companyCity.company(name);
         }
 
         private City upsertCity(String name) {
-            if (name == null || name.isBlank()) return null;
-            String n = name.trim();
-            return cities.findFirstByNameIgnoreCaseOrderByIdAsc(n)
-                    .orElseGet(() -> cities.save(City.builder().name(n).build()));
+            return companyCity.city(name);
         }
 
         private static String emptyToNull(String s) {
@@ -0,0 +1,73 @@
+package com.milosz.podsiadly.backend.job.service;
+
+import com.milosz.podsiadly.backend.job.dto.JobOfferListDto;
+import com.milosz.podsiadly.backend.job.repository.JobOfferListRow;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+public record JobOfferCursor(
+        boolean salarySort,
+        Integer upperSalary,
+        Integer lowerSalary,
+        Instant publishedAt,
+        long id
+) {
+
+    private static final String SEP = "~";
+    private static final String NULL = "-";
+
+    public static JobOfferCursor after(JobOfferListRow last, boolean salarySort) {
+        JobOfferListDto o = last.dto();
+        Integer upper = salarySort ? last.effectiveSalaryUpper() : null;
+        Integer lower = salarySort ? last.effectiveSalaryLower() : null;
+        return new JobOfferCursor(salarySort, upper, lower, o.publishedAt(), o.id());
+    }
+
+    public String encode() {
+        String raw = String.join(SEP,
+                salarySort ? "s" : "d",
+                str(upperSalary),
+                str(lowerSalary),
+                str(publishedAt),
+                Long.toString(id));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static JobOfferCursor decode(String token) {
+        if (token == null || token.isBlank()) return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            String[] p = raw.split(SEP, -1);
+            if (p.length != 5 || !(p[0].equals("s") || p[0].equals("d"))) {
+                throw new IllegalArgumentException(raw);
+            }
+            JobOfferCursor c = new JobOfferCursor(
+                    p[0].equals("s"),
+                    NULL.equals(p[1]) ? null : Integer.valueOf(p[1]),
+                    NULL.equals(p[2]) ? null : Integer.valueOf(p[2]),
+                    NULL.equals(p[3]) ? null : Instant.parse(p[3]),
+                    Long.parseLong(p[4])
+            );
+            if (c.upperSalary() != null && c.lowerSalary() == null) {
+                throw new IllegalArgumentException(raw);
+            }
+            return c;
+        } catch (RuntimeException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor.");
+        }
+    }
+
+    public void requireSort(boolean salary) {
+        if (salarySort != salary) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor does not match the requested sort.");
+        }
+    }
+
+    private static String str(Object o) {
+        return o == null ? NULL : o.toString();
+    }
+}
@@ -0,0 +1,144 @@
+package com.milosz.podsiadly.backend.job.service;
+
+import com.milosz.podsiadly.backend.job.domain.JobOffer;
+import com.milosz.podsiadly.backend.job.repository.JobOfferRepository;
+import com.milosz.podsiadly.backend.job.service.event.JobOffersChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Groups offers by {@link #hashOf} and marks the newest active offer of each group as canonical.
+ * Searches list only canonical offers and match level, tech and contract filters against the whole
+ * group, see {@link JobOfferSpecifications#canonical()}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class JobOfferDedupeService {
+
+    private static final int BACKFILL_BATCH = 5_000;
+
+    private final JobOfferRepository offers;
+    private final JdbcTemplate jdbc;
+    private final ApplicationEventPublisher events;
+
+    public static String hashOf(JobOffer o) {
+        return hashOf(
+                o.getCompany() != null ? o.getCompany().getName() : null,
+                o.getTitle(),
+                o.getSalaryMin(),
+                o.getSalaryMax(),
+                o.getCurrency(),
+                o.getRemote(),
+                o.getCity() != null ? o.getCity().getName() : null
+        );
+    }
+
+    public static String hashOf(
+            String company, String title, Integer salaryMin, Integer salaryMax,
+            String currency, Boolean remote, String city
+    ) {
+        String key = String.join("|",
+                nz(company),
+                nz(title),
+                String.valueOf(salaryMin != null ? salaryMin : 0),
+                String.valueOf(salaryMax != null ? salaryMax : 0),
+                nz(currency),
+                remote != null ? remote.toString() : "null",
+                nz(city)
+        ).toLowerCase(Locale.ROOT);
+        return DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String assignHash(JobOffer o) {
+        String previous = o.getDedupeHash();
+        o.setDedupeHash(hashOf(o));
+        return previous;
+    }
+
+    public void refreshGroups(String... hashes) {
+        List<String> distinct = Arrays.stream(hashes)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        if (distinct.isEmpty()) return;
+
+        offers.flush();
+        publish(offers.refreshCanonicalByHashes(distinct));
+    }
+
+    public void refreshForOffers(Collection<Long> offerIds) {
+        if (offerIds == null || offerIds.isEmpty()) return;
+
+        offers.flush();
+        publish(offers.refreshCanonicalForIds(offerIds));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        try {
+            int hashed = 0;
+            while (true) {
+                int updated = jdbc.update("""
+                    UPDATE job_offer o
+                       SET dedupe_hash = md5(lower(concat_ws('|',
+                               btrim(coalesce(c.name, '')),
+                               btrim(coalesce(o.title, '')),
+                               coalesce(o.salary_min, 0)::text,
+                               coalesce(o.salary_max, 0)::text,
+                               btrim(coalesce(o.currency, '')),
+                               coalesce(o.remote::text, 'null'),
+                               btrim(coalesce(ci.name, '')))))
+                      FROM job_offer s
+                      LEFT JOIN company c ON c.id = s.company_id
+                      LEFT JOIN city ci ON ci.id = s.city_id
+                     WHERE o.id = s.id
+                       AND s.id IN (SELECT id FROM job_offer WHERE dedupe_hash IS NULL LIMIT ?)
+                    """, BACKFILL_BATCH);
+                hashed += updated;
+                if (updated < BACKFILL_BATCH) break;
+            }
+
+            List<Long> changed = jdbc.queryForList("""
+                WITH keep AS (
+                    SELECT DISTINCT ON (dedupe_hash) id
+                      FROM job_offer
+                     WHERE active = true
+                       AND dedupe_hash IS NOT NULL
+                     ORDER BY dedupe_hash, published_at DESC, id DESC
+                )
+                UPDATE job_offer o
+                   SET canonical = (o.id IN (SELECT id FROM keep))
+                 WHERE o.dedupe_hash IS NOT NULL
+                   AND o.canonical IS DISTINCT FROM (o.id IN (SELECT id FROM keep))
+                RETURNING o.id
+                """, Long.class);
+
+            publish(changed);
+            if (hashed > 0 || !changed.isEmpty()) {
+                log.info("[dedupe] backfill hashed={} canonicalChanged={}", hashed, changed.size());
+            }
+        } catch (Exception ex) {
+            log.warn("[dedupe] backfill failed: {}", ex.toString());
+        }
+    }
+
+    private void publish(List<Long> changed) {
+        if (changed != null && !changed.isEmpty()) {
+            events.publishEvent(new JobOffersChangedEvent(changed));
+        }
+    }
+
+    private static String nz(String s) {
+        return (s == null) ? "" : s.trim();
+    }
+}
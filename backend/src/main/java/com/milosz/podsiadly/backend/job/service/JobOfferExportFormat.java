@@ -0,0 +1,33 @@
+package com.milosz.podsiadly.backend.job.service;
+
+import java.util.Locale;
+
+public enum JobOfferExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    JobOfferExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public static JobOfferExportFormat parse(String raw) {
+        if (raw == null || raw.isBlank()) return NDJSON;
+        return switch (raw.trim().toLowerCase(Locale.ROOT)) {
+            case "csv" -> CSV;
+            case "ndjson", "jsonl" -> NDJSON;
+            default -> null;
+        };
+    }
+}
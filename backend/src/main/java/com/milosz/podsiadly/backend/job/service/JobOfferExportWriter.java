@@ -0,0 +1,74 @@
+package com.milosz.podsiadly.backend.job.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.milosz.podsiadly.backend.job.dto.JobOfferListDto;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+final class JobOfferExportWriter implements Flushable {
+
+    private static final String CSV_HEADER =
+            "id,title,companyName,cityName,remote,level,contract,contracts,salaryMin,salaryMax,currency,salaryPeriod,techTags,publishedAt";
+
+    private final JobOfferExportFormat format;
+    private final ObjectMapper om;
+    private final Writer out;
+
+    JobOfferExportWriter(JobOfferExportFormat format, ObjectMapper om, OutputStream out) {
+        this.format = format;
+        this.om = om;
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    void header() throws IOException {
+        if (format == JobOfferExportFormat.CSV) {
+            out.write(CSV_HEADER);
+            out.write('\n');
+        }
+    }
+
+    void write(JobOfferListDto d) throws IOException {
+        if (format == JobOfferExportFormat.NDJSON) {
+            out.write(om.writeValueAsString(d));
+            out.write('\n');
+            return;
+        }
+        out.write(String.join(",",
+                csv(d.id()),
+                csv(d.title()),
+                csv(d.companyName()),
+                csv(d.cityName()),
+                csv(d.remote()),
+                csv(d.level()),
+                csv(d.contract()),
+                csv(join(d.contracts())),
+                csv(d.salaryMin()),
+                csv(d.salaryMax()),
+                csv(d.currency()),
+                csv(d.salaryPeriod()),
+                csv(join(d.techTags())),
+                csv(d.publishedAt())
+        ));
+        out.write('\n');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    private static String join(List<String> values) {
+        return (values == null || values.isEmpty()) ? null : String.join(";", values);
+    }
+
+    private static String csv(Object value) {
+        if (value == null) return "";
+        String s = value.toString();
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0) {
+            return s;
+        }
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,49 @@
+package com.milosz.podsiadly.backend.job.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.milosz.podsiadly.backend.job.config.JobSearchProperties;
+import com.milosz.podsiadly.backend.job.dto.JobOfferFacetsDto;
+import com.milosz.podsiadly.backend.job.service.event.JobOffersChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+@Slf4j
+@Component
+public class JobOfferFacetCache {
+
+    private final Cache<JobOfferSearchFilter, JobOfferFacetsDto> cache;
+    private final AtomicInteger changed = new AtomicInteger();
+
+    public JobOfferFacetCache(JobSearchProperties props) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(props.getFacets().getCacheMaxSize())
+                .expireAfterWrite(props.getFacets().getCacheTtl())
+                .build();
+    }
+
+    public JobOfferFacetsDto get(JobOfferSearchFilter filter, Function<JobOfferSearchFilter, JobOfferFacetsDto> loader) {
+        return cache.get(filter, loader);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOffersChanged(JobOffersChangedEvent event) {
+        changed.addAndGet(event.offerIds() != null ? Math.max(1, event.offerIds().size()) : 1);
+    }
+
+    @Scheduled(
+            initialDelayString = "#{@jobSearchProperties.facets.invalidateDelay.toMillis()}",
+            fixedDelayString   = "#{@jobSearchProperties.facets.invalidateDelay.toMillis()}"
+    )
+    public void invalidatePending() {
+        int n = changed.getAndSet(0);
+        if (n == 0 || cache.estimatedSize() == 0) return;
+        cache.invalidateAll();
+        log.debug("[facets] cache invalidated changed={}", n);
+    }
+}
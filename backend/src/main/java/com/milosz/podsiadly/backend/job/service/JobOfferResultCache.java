@@ -0,0 +1,103 @@
+package com.milosz.podsiadly.backend.job.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.milosz.podsiadly.backend.job.config.JobSearchProperties;
+import com.milosz.podsiadly.backend.job.service.event.JobOffersChangedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+@Slf4j
+@Component
+public class JobOfferResultCache {
+
+    public record WindowKey(
+            JobOfferSearchFilter filter,
+            String sortKey,
+            Sort sort,
+            long offset,
+            int size,
+            String cursor,
+            boolean withTotal
+    ) {}
+
+    public record CachedWindow(List<Long> ids, boolean hasNext, long total) {}
+
+    private record Versioned<K>(long version, K key) {}
+
+    private final JobSearchProperties props;
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicInteger changed = new AtomicInteger();
+    private final Cache<Versioned<WindowKey>, CachedWindow> windows;
+    private final Cache<Versioned<JobOfferSearchFilter>, Long> counts;
+
+    public JobOfferResultCache(JobSearchProperties props, MeterRegistry registry) {
+        this.props = props;
+        JobSearchProperties.ResultCache cfg = props.getResultCache();
+
+        this.windows = Caffeine.newBuilder()
+                .maximumSize(cfg.getMaxSize())
+                .expireAfterWrite(cfg.getTtl())
+                .recordStats()
+                .build();
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(cfg.getMaxSize())
+                .expireAfterWrite(cfg.getTtl())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(registry, windows, "jobs.search.windows");
+        CaffeineCacheMetrics.monitor(registry, counts, "jobs.search.counts");
+        Gauge.builder("jobs.search.cache.version", version, AtomicLong::get)
+                .description("Job offer data version used to key search result caches")
+                .register(registry);
+    }
+
+    public long version() {
+        return version.get();
+    }
+
+    public long bump() {
+        long v = version.incrementAndGet();
+        windows.asMap().keySet().removeIf(k -> k.version() < v);
+        counts.asMap().keySet().removeIf(k -> k.version() < v);
+        return v;
+    }
+
+    public CachedWindow window(WindowKey key, Supplier<CachedWindow> loader) {
+        if (!props.getResultCache().isEnabled()) return loader.get();
+        return windows.get(new Versioned<>(version.get(), key), k -> loader.get());
+    }
+
+    public long count(JobOfferSearchFilter filter, Supplier<Long> loader) {
+        if (!props.getResultCache().isEnabled()) return loader.get();
+        return counts.get(new Versioned<>(version.get(), filter), k -> loader.get());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOffersChanged(JobOffersChangedEvent event) {
+        changed.addAndGet(event.offerIds() != null ? Math.max(1, event.offerIds().size()) : 1);
+    }
+
+    @Scheduled(
+            initialDelayString = "#{@jobSearchProperties.resultCache.invalidateDelay.toMillis()}",
+            fixedDelayString   = "#{@jobSearchProperties.resultCache.invalidateDelay.toMillis()}"
+    )
+    public void bumpPending() {
+        int n = changed.getAndSet(0);
+        if (n == 0) return;
+        long v = bump();
+        log.debug("[search-cache] version={} changed={}", v, n);
+    }
+}
@@ -0,0 +1,52 @@
+package com.milosz.podsiadly.backend.job.service;
+
+import com.milosz.podsiadly.backend.job.domain.ContractType;
+import com.milosz.podsiadly.backend.job.domain.JobLevel;
+
+import java.time.Instant;
+import java.util.*;
+
+public record JobOfferSearchFilter(
+        String q,
+        boolean includeDescription,
+        String city,
+        Boolean remote,
+        JobLevel level,
+        Set<Integer> techIds,
+        Integer salaryMin,
+        Integer salaryMax,
+        Instant postedAfter,
+        Set<ContractType> contracts,
+        Boolean withSalary
+) {
+
+    public static JobOfferSearchFilter of(
+            String q, String city, Boolean remote, JobLevel level,
+            Collection<Integer> techIds,
+            Integer salaryMin, Integer salaryMax, Instant postedAfter,
+            Collection<ContractType> contracts, Boolean withSalary,
+            boolean includeDescription
+    ) {
+        String query = (q == null || q.isBlank()) ? null : q;
+
+        Set<Integer> techSet = (techIds == null) ? null : Set.copyOf(techIds);
+
+        Set<ContractType> contractSet = (contracts == null || contracts.isEmpty())
+                ? Set.of()
+                : Collections.unmodifiableSet(EnumSet.copyOf(contracts));
+
+        return new JobOfferSearchFilter(
+                query,
+                query != null && includeDescription,
+                (city == null || city.isBlank()) ? null : city,
+                remote,
+                level,
+                techSet,
+                salaryMin,
+                salaryMax,
+                postedAfter,
+                contractSet,
+                Boolean.TRUE.equals(withSalary) ? Boolean.TRUE : null
+        );
+    }
+}
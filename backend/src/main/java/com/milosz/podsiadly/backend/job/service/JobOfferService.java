@@ -1,27 +1,51 @@
 package com.milosz.podsiadly.backend.job.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.milosz.podsiadly.backend.job.config.JobSearchProperties;
 import com.milosz.podsiadly.backend.job.domain.*;
+import com.milosz.podsiadly.backend.job.dto.FacetCountDto;
 import com.milosz.podsiadly.backend.job.dto.JobOfferDetailDto;
+import com.milosz.podsiadly.backend.job.dto.JobOfferFacetsDto;
 import com.milosz.podsiadly.backend.job.dto.JobOfferListDto;
+import com.milosz.podsiadly.backend.job.dto.JobOfferPage;
 import com.milosz.podsiadly.backend.job.dto.JobOfferSliceDto;
+import com.milosz.podsiadly.backend.job.dto.SalaryBucketDto;
 import com.milosz.podsiadly.backend.job.mapper.JobOfferMapper;
+import com.milosz.podsiadly.backend.job.repository.JobOfferListRow;
+import com.milosz.podsiadly.backend.job.repository.JobOfferQueryRepository;
 import com.milosz.podsiadly.backend.job.repository.JobOfferRepository;
+import com.milosz.podsiadly.backend.job.service.index.ActiveOfferIndex;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.Instant;
 import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class JobOfferService {
 
     private final JobOfferRepository repo;
+    private final ActiveOfferIndex index;
+    private final JobSearchProperties searchProps;
+    private final JobOfferQueryRepository queries;
+    private final ObjectMapper om;
+    private final JobOfferFacetCache facetCache;
+    private final JobOfferResultCache resultCache;
+    private final TechTagService techTags;
+
+    private static final int EXPORT_BATCH = 500;
 
     private static final Map<String, List<String>> SPEC_TO_TECH = Map.ofEntries(
             e("frontend",  List.of("React","Angular","Vue","JavaScript","TypeScript","HTML","CSS","Next.js","Nuxt")),
@@ -41,7 +65,7 @@ public class JobOfferService {
         return new AbstractMap.SimpleEntry<>(k.toLowerCase(Locale.ROOT), v);
     }
 
-    private static List<String> expandSpecs(List<String> spec) {
+    static List<String> expandSpecs(List<String> spec) {
         if (spec == null || spec.isEmpty()) return List.of();
         return spec.stream()
                 .filter(Objects::nonNull)
@@ -52,36 +76,25 @@ public class JobOfferService {
     }
 
     @Transactional(readOnly = true)
-    public Page<JobOfferListDto> search(
+    public JobOfferPage search(
             String q, String city, Boolean remote, JobLevel level,
             List<String> spec, List<String> tech,
             Integer salaryMin, Integer salaryMax, Instant postedAfter,
             Set<ContractType> contracts, Boolean withSalary,
             Pageable pageable,
             String sortKey,
-            boolean includeDescription
+            boolean includeDescription,
+            String cursor
     ) {
-        Specification<JobOffer> sp = buildSearchSpecification(
+        JobOfferSearchFilter filter = buildFilter(
                 q, city, remote, level, spec, tech, salaryMin, salaryMax, postedAfter, contracts, withSalary, includeDescription
         );
+        Pageable effectivePageable = customOrder(filter, sortKey)
+                ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize())
+                : pageable;
 
-        Pageable effectivePageable = pageable;
-        if ("salary".equalsIgnoreCase(sortKey)) {
-            sp = sp.and(JobOfferSpecifications.orderByHighestSalaryNullsLast());
-            effectivePageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
-        }
-
-        Page<JobOffer> page = repo.findAll(sp, effectivePageable);
-
-        List<JobOffer> hydratedInOrder = hydrateInSameOrder(page.getContent());
-
-        List<JobOfferListDto> rawDtos = hydratedInOrder.stream()
-                .map(JobOfferMapper::toListDto)
-                .toList();
-
-        List<JobOfferListDto> deduped = dedupeForListing(rawDtos, sortKey);
-
-        return new PageImpl<>(deduped, effectivePageable, page.getTotalElements());
+        Window window = fetchWindow(filter, sortKey, effectivePageable, decodeCursor(filter, sortKey, cursor), true);
+        return new JobOfferPage(toListDtos(window.rows()), effectivePageable, window.total(), window.nextCursor());
     }
 
     @Transactional(readOnly = true)
@@ -94,25 +107,19 @@ public class JobOfferService {
             String sortKey,
             boolean includeDescription
     ) {
-        Specification<JobOffer> sp = buildSearchSpecification(
+        JobOfferSearchFilter filter = buildFilter(
                 q, city, remote, level, spec, tech, salaryMin, salaryMax, postedAfter, contracts, withSalary, includeDescription
         );
+        boolean salarySort = "salary".equalsIgnoreCase(sortKey);
 
-        List<JobOffer> base;
-        if ("salary".equalsIgnoreCase(sortKey)) {
-            sp = sp.and(JobOfferSpecifications.orderByHighestSalaryNullsLast());
-            base = repo.findAll(sp);
-        } else {
-            base = repo.findAll(sp, sort);
+        if (useIndex(filter)) {
+            return toListDtos(queries.findListRows(index.all(filter, salarySort)));
         }
 
-        List<JobOffer> hydratedInOrder = hydrateInSameOrder(base);
-
-        List<JobOfferListDto> rawDtos = hydratedInOrder.stream()
-                .map(JobOfferMapper::toListDto)
-                .toList();
+        Specification<JobOffer> sp = withOrdering(buildSearchSpecification(filter), filter, sortKey);
+        Sort effectiveSort = customOrder(filter, sortKey) ? Sort.unsorted() : sort;
 
-        return dedupeForListing(rawDtos, sortKey);
+        return toListDtos(queries.findListRows(queries.findIds(sp, effectiveSort, 0, -1)));
     }
 
     @Transactional(readOnly = true)
@@ -123,31 +130,64 @@ public class JobOfferService {
             Set<ContractType> contracts, Boolean withSalary,
             Pageable pageable,
             String sortKey,
-            boolean includeDescription
+            boolean includeDescription,
+            String cursor
     ) {
-        Specification<JobOffer> sp = buildSearchSpecification(
+        JobOfferSearchFilter filter = buildFilter(
                 q, city, remote, level, spec, tech, salaryMin, salaryMax, postedAfter, contracts, withSalary, includeDescription
         );
+        final Pageable queryPageable = customOrder(filter, sortKey)
+                ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize())
+                : pageable;
 
-        Pageable effectivePageable = pageable;
-        if ("salary".equalsIgnoreCase(sortKey)) {
-            sp = sp.and(JobOfferSpecifications.orderByHighestSalaryNullsLast());
-            effectivePageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
-        }
-
-        final Pageable queryPageable = effectivePageable;
-        Slice<JobOffer> slice = repo.findBy(sp, qf -> qf.sortBy(queryPageable.getSort()).slice(queryPageable));
-        List<JobOffer> hydratedInOrder = hydrateInSameOrder(slice.getContent());
-        List<JobOfferListDto> deduped = dedupeForListing(hydratedInOrder.stream().map(JobOfferMapper::toListDto).toList(), sortKey);
-
+        Window window = fetchWindow(filter, sortKey, queryPageable, decodeCursor(filter, sortKey, cursor), false);
         return new JobOfferSliceDto(
-                deduped,
+                toListDtos(window.rows()),
                 queryPageable.getPageNumber() + 1,
                 queryPageable.getPageSize(),
-                slice.hasNext()
+                window.hasNext(),
+                window.nextCursor()
         );
     }
 
+    @Transactional(readOnly = true)
+    public void export(
+            String q, String city, Boolean remote, JobLevel level,
+            List<String> spec, List<String> tech,
+            Integer salaryMin, Integer salaryMax, Instant postedAfter,
+            Set<ContractType> contracts, Boolean withSalary,
+            String sortKey,
+            boolean includeDescription,
+            JobOfferExportFormat format,
+            OutputStream out
+    ) throws IOException {
+        JobOfferSearchFilter filter = buildFilter(
+                q, city, remote, level, spec, tech, salaryMin, salaryMax, postedAfter, contracts, withSalary, includeDescription
+        );
+
+        JobOfferExportWriter writer = new JobOfferExportWriter(format, om, out);
+        writer.header();
+
+        int written = 0;
+        try (Stream<Long> ids = exportIds(filter, sortKey)) {
+            Iterator<Long> it = ids.iterator();
+            List<Long> batch = new ArrayList<>(EXPORT_BATCH);
+            while (it.hasNext()) {
+                batch.add(it.next());
+                if (batch.size() < EXPORT_BATCH && it.hasNext()) continue;
+
+                for (JobOfferListRow row : queries.findListRows(batch)) {
+                    writer.write(row.dto());
+                    written++;
+                }
+                writer.flush();
+                batch.clear();
+            }
+        }
+        writer.flush();
+        log.debug("[export] format={} rows={}", format, written);
+    }
+
     @Transactional(readOnly = true)
     public long count(
             String q, String city, Boolean remote, JobLevel level,
@@ -156,10 +196,27 @@ public class JobOfferService {
             Set<ContractType> contracts, Boolean withSalary,
             boolean includeDescription
     ) {
-        Specification<JobOffer> sp = buildSearchSpecification(
+        JobOfferSearchFilter filter = buildFilter(
+                q, city, remote, level, spec, tech, salaryMin, salaryMax, postedAfter, contracts, withSalary, includeDescription
+        );
+        if (useIndex(filter)) {
+            return index.count(filter);
+        }
+        return resultCache.count(filter, () -> repo.count(buildSearchSpecification(filter)));
+    }
+
+    @Transactional(readOnly = true)
+    public JobOfferFacetsDto facets(
+            String q, String city, Boolean remote, JobLevel level,
+            List<String> spec, List<String> tech,
+            Integer salaryMin, Integer salaryMax, Instant postedAfter,
+            Set<ContractType> contracts, Boolean withSalary,
+            boolean includeDescription
+    ) {
+        JobOfferSearchFilter filter = buildFilter(
                 q, city, remote, level, spec, tech, salaryMin, salaryMax, postedAfter, contracts, withSalary, includeDescription
         );
-        return repo.count(sp);
+        return facetCache.get(filter, this::computeFacets);
     }
 
     @Transactional(readOnly = true)
@@ -193,70 +250,134 @@ public class JobOfferService {
                 .toList();
     }
 
-    private List<JobOffer> hydrateInSameOrder(List<JobOffer> base) {
-        if (base == null || base.isEmpty()) return List.of();
+    private record Window(List<JobOfferListRow> rows, boolean hasNext, long total, String nextCursor) {}
 
-        List<Long> ids = base.stream()
-                .map(JobOffer::getId)
-                .filter(Objects::nonNull)
-                .toList();
-
-        if (ids.isEmpty()) return List.of();
-
-        List<JobOffer> hydrated = repo.findAllHydratedByIdIn(ids);
-
-        Map<Long, Integer> pos = new HashMap<>();
-        for (int i = 0; i < ids.size(); i++) pos.put(ids.get(i), i);
+    private Window fetchWindow(
+            JobOfferSearchFilter filter, String sortKey, Pageable pageable, JobOfferCursor cursor, boolean withTotal
+    ) {
+        boolean salarySort = "salary".equalsIgnoreCase(sortKey);
+        int size = pageable.getPageSize();
+
+        JobOfferResultCache.CachedWindow hit;
+        if (useIndex(filter)) {
+            ActiveOfferIndex.IndexPage page = (cursor != null)
+                    ? index.pageAfter(filter, cursor, size)
+                    : index.page(filter, salarySort, (int) pageable.getOffset(), size);
+            hit = new JobOfferResultCache.CachedWindow(page.ids(), page.hasNext(), page.total());
+        } else {
+            JobOfferResultCache.WindowKey key = new JobOfferResultCache.WindowKey(
+                    filter,
+                    sortKey != null ? sortKey.toLowerCase(Locale.ROOT) : null,
+                    pageable.getSort(),
+                    cursor != null ? 0 : pageable.getOffset(),
+                    size,
+                    cursor,
+                    withTotal
+            );
+            hit = resultCache.window(key, () -> queryWindow(filter, sortKey, pageable, cursor, withTotal));
+        }
 
-        hydrated.sort(Comparator.comparingInt(o -> pos.getOrDefault(o.getId(), Integer.MAX_VALUE)));
+        List<JobOfferListRow> rows = queries.findListRows(hit.ids());
+        String nextCursor = (hit.hasNext() && !rows.isEmpty() && !relevanceSort(filter, sortKey))
+                ? JobOfferCursor.after(rows.get(rows.size() - 1), salarySort).encode()
+                : null;
 
-        return hydrated;
+        return new Window(rows, hit.hasNext(), hit.total(), nextCursor);
     }
 
-    private List<JobOfferListDto> dedupeForListing(List<JobOfferListDto> input, String sortKey) {
-        if (input == null || input.isEmpty()) return List.of();
+    private JobOfferResultCache.CachedWindow queryWindow(
+            JobOfferSearchFilter filter, String sortKey, Pageable pageable, JobOfferCursor cursor, boolean withTotal
+    ) {
+        int size = pageable.getPageSize();
+        Specification<JobOffer> base = buildSearchSpecification(filter);
+        Specification<JobOffer> sp = withOrdering(base.and(JobOfferSpecifications.seekAfter(cursor)), filter, sortKey);
 
-        boolean salarySort = "salary".equalsIgnoreCase(sortKey);
+        long offset = (cursor != null) ? 0 : pageable.getOffset();
+        List<Long> ids = queries.findIds(sp, pageable.getSort(), offset, size + 1);
+        boolean hasNext = ids.size() > size;
 
-        Map<String, JobOfferListDto> byKey = new LinkedHashMap<>();
-        for (JobOfferListDto dto : input) {
-            String key = dedupeKey(dto);
+        boolean lastOffsetPage = cursor == null && !hasNext
+                && (!ids.isEmpty() || offset == 0);
+        long total = !withTotal ? -1
+                : lastOffsetPage ? offset + ids.size()
+                : resultCache.count(filter, () -> repo.count(base));
 
-            if (salarySort) {
-                byKey.putIfAbsent(key, dto);
-                continue;
+        return new JobOfferResultCache.CachedWindow(hasNext ? List.copyOf(ids.subList(0, size)) : ids, hasNext, total);
+    }
+
+    private JobOfferFacetsDto computeFacets(JobOfferSearchFilter filter) {
+        JobSearchProperties.Facets cfg = searchProps.getFacets();
+        List<Integer> bounds = cfg.getSalaryBuckets().stream().filter(Objects::nonNull).sorted().distinct().toList();
+
+        long total = 0;
+        Map<String, List<FacetCountDto>> grouped = new HashMap<>();
+        long[] salary = new long[bounds.size() + 1];
+        for (JobOfferQueryRepository.FacetRow row : queries.facetCounts(JobOfferSqlFilters.of(filter, fullTextMode()), bounds)) {
+            if ("total".equals(row.facet())) {
+                total = row.count();
+            } else if ("salary".equals(row.facet())) {
+                salary[Integer.parseInt(row.value())] = row.count();
+            } else {
+                grouped.computeIfAbsent(row.facet(), k -> new ArrayList<>()).add(new FacetCountDto(row.value(), row.count()));
             }
+        }
 
-            byKey.merge(key, dto, (a, b) -> {
-                int aMax = a.salaryMax() != null ? a.salaryMax()
-                        : (a.salaryMin() != null ? a.salaryMin() : -1);
-                int bMax = b.salaryMax() != null ? b.salaryMax()
-                        : (b.salaryMin() != null ? b.salaryMin() : -1);
-                return (bMax > aMax) ? b : a;
-            });
+        List<SalaryBucketDto> buckets = new ArrayList<>(salary.length);
+        for (int b = 0; b < salary.length; b++) {
+            buckets.add(new SalaryBucketDto(
+                    b == 0 ? null : bounds.get(b - 1),
+                    b == bounds.size() ? null : bounds.get(b),
+                    salary[b]
+            ));
         }
 
-        return new ArrayList<>(byKey.values());
+        int top = Math.max(1, cfg.getTopValues());
+        return new JobOfferFacetsDto(
+                total,
+                topFacets(grouped.get("city"), top),
+                topFacets(grouped.get("level"), top),
+                topFacets(grouped.get("contract"), top),
+                topFacets(grouped.get("tag"), top),
+                buckets
+        );
     }
 
-    private String dedupeKey(JobOfferListDto dto) {
-        String company = nz(dto.companyName());
-        String title   = nz(dto.title());
-        String currency = nz(dto.currency());
-        String remote  = dto.remote() != null ? dto.remote().toString() : "null";
+    private static List<FacetCountDto> topFacets(List<FacetCountDto> counts, int limit) {
+        if (counts == null) return List.of();
+        return counts.stream()
+                .sorted(Comparator.comparingLong(FacetCountDto::count).reversed().thenComparing(FacetCountDto::value))
+                .limit(limit)
+                .toList();
+    }
 
-        Integer min = dto.salaryMin() != null ? dto.salaryMin() : 0;
-        Integer max = dto.salaryMax() != null ? dto.salaryMax() : 0;
+    private JobOfferCursor decodeCursor(JobOfferSearchFilter filter, String sortKey, String token) {
+        JobOfferCursor cursor = JobOfferCursor.decode(token);
+        if (cursor == null) return null;
+        if (relevanceSort(filter, sortKey)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor paging is not available for relevance sort.");
+        }
+        cursor.requireSort("salary".equalsIgnoreCase(sortKey));
+        return cursor;
+    }
 
-        return (company + "|" + title + "|" + min + "|" + max + "|" + currency + "|" + remote)
-                .toLowerCase(Locale.ROOT);
+    private Stream<Long> exportIds(JobOfferSearchFilter filter, String sortKey) {
+        if (useIndex(filter)) {
+            return index.all(filter, "salary".equalsIgnoreCase(sortKey)).stream();
+        }
+        Specification<JobOffer> sp = withOrdering(buildSearchSpecification(filter), filter, sortKey);
+        Sort sort = customOrder(filter, sortKey)
+                ? Sort.unsorted()
+                : Sort.by(Sort.Direction.DESC, "publishedAt").and(Sort.by(Sort.Direction.DESC, "id"));
+        return queries.streamIds(sp, sort, EXPORT_BATCH);
     }
 
-    private static String nz(String s) {
-        return (s == null) ? "" : s.trim();
+    private static List<JobOfferListDto> toListDtos(List<JobOfferListRow> rows) {
+        return rows.stream()
+                .map(JobOfferListRow::dto)
+                .toList();
     }
 
-    private Specification<JobOffer> buildSearchSpecification(
+    private JobOfferSearchFilter buildFilter(
             String q, String city, Boolean remote, JobLevel level,
             List<String> spec, List<String> tech,
             Integer salaryMin, Integer salaryMax, Instant postedAfter,
@@ -267,18 +388,55 @@ public class JobOfferService {
                 tech == null ? Stream.empty() : tech.stream(),
                 expandSpecs(spec).stream()
         ).distinct().collect(Collectors.toList());
+        Set<Integer> techIds = allTech.isEmpty() ? null : techTags.resolveIds(allTech);
+
+        return JobOfferSearchFilter.of(
+                q, city, remote, level, techIds, salaryMin, salaryMax, postedAfter, contracts, withSalary, includeDescription
+        );
+    }
+
+    private boolean fullTextMode() {
+        return searchProps.getTextMode() == JobSearchProperties.TextMode.FULL_TEXT;
+    }
+
+    private boolean relevanceSort(JobOfferSearchFilter f, String sortKey) {
+        return fullTextMode() && f.q() != null && "relevance".equalsIgnoreCase(sortKey);
+    }
+
+    private boolean customOrder(JobOfferSearchFilter f, String sortKey) {
+        return "salary".equalsIgnoreCase(sortKey) || relevanceSort(f, sortKey);
+    }
+
+    private boolean useIndex(JobOfferSearchFilter f) {
+        return !(fullTextMode() && f.q() != null) && index.canServe(f);
+    }
+
+    private Specification<JobOffer> withOrdering(Specification<JobOffer> sp, JobOfferSearchFilter f, String sortKey) {
+        if ("salary".equalsIgnoreCase(sortKey)) {
+            return sp.and(JobOfferSpecifications.orderByHighestSalaryNullsLast());
+        }
+        if (relevanceSort(f, sortKey)) {
+            return sp.and(JobOfferSpecifications.orderByRelevance(f.q()));
+        }
+        return sp;
+    }
 
+    // JobOfferSqlFilters renders the same predicates as native SQL for the facet query; keep them in step
+    private Specification<JobOffer> buildSearchSpecification(JobOfferSearchFilter f) {
         return Specification.allOf(
                 JobOfferSpecifications.active(),
-                JobOfferSpecifications.text(q, includeDescription),
-                JobOfferSpecifications.byCity(city),
-                JobOfferSpecifications.remote(remote),
-                JobOfferSpecifications.level(level),
-                JobOfferSpecifications.techAny(allTech),
-                JobOfferSpecifications.salaryBetween(salaryMin, salaryMax),
-                JobOfferSpecifications.postedAfter(postedAfter),
-                JobOfferSpecifications.contractAny(contracts),
-                JobOfferSpecifications.withSalary(withSalary)
+                JobOfferSpecifications.canonical(),
+                fullTextMode()
+                        ? JobOfferSpecifications.fullText(f.q(), f.includeDescription())
+                        : JobOfferSpecifications.text(f.q(), f.includeDescription()),
+                JobOfferSpecifications.byCity(f.city()),
+                JobOfferSpecifications.remote(f.remote()),
+                JobOfferSpecifications.level(f.level()),
+                JobOfferSpecifications.techAny(f.techIds()),
+                JobOfferSpecifications.salaryBetween(f.salaryMin(), f.salaryMax()),
+                JobOfferSpecifications.postedAfter(f.postedAfter()),
+                JobOfferSpecifications.contractAny(f.contracts()),
+                JobOfferSpecifications.withSalary(f.withSalary())
         );
     }
 }
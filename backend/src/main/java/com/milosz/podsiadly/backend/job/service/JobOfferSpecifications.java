@@ -3,16 +3,22 @@ package com.milosz.podsiadly.backend.job.service;
 import com.milosz.podsiadly.backend.job.domain.ContractType;
 import com.milosz.podsiadly.backend.job.domain.JobLevel;
 import com.milosz.podsiadly.backend.job.domain.JobOffer;
+import com.milosz.podsiadly.backend.job.domain.TechTag;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Function;
 
 public final class JobOfferSpecifications {
     private JobOfferSpecifications() {}
@@ -21,6 +27,15 @@ public final class JobOfferSpecifications {
         return (r, q, cb) -> cb.isTrue(r.get("active"));
     }
 
+    /**
+     * Keeps one offer per dedupe group: the newest active one. Level, tech and contract come from
+     * different parsers per source and can differ inside a group, so those filters match the canonical
+     * offer when any active offer of its group matches (see {@link #inGroup}).
+     */
+    public static Specification<JobOffer> canonical() {
+        return (r, q, cb) -> cb.or(cb.isNull(r.get("canonical")), cb.isTrue(r.get("canonical")));
+    }
+
     public static Specification<JobOffer> text(String q) {
         return text(q, true);
     }
@@ -39,6 +54,38 @@ public final class JobOfferSpecifications {
         };
     }
 
+    public static Specification<JobOffer> fullText(String q, boolean includeDescription) {
+        if (q == null || q.isBlank()) return null;
+        String like = "%" + q.toLowerCase() + "%";
+        return (r, qry, cb) -> {
+            var title = cb.like(cb.lower(r.get("title")), like);
+            var fuzzy = cb.isTrue(cb.function("job_offer_title_fuzzy", Boolean.class, r.get("title"), cb.literal(q)));
+            if (includeDescription) {
+                var fts = cb.isTrue(cb.function("job_offer_fts_match", Boolean.class, r.get("searchVector"), cb.literal(q)));
+                return cb.or(fts, title, fuzzy);
+            }
+            return cb.or(title, fuzzy);
+        };
+    }
+
+    public static Specification<JobOffer> orderByRelevance(String q) {
+        return (root, query, cb) -> {
+            if (query.getResultType() == Long.class || query.getResultType() == long.class) {
+                return cb.conjunction();
+            }
+
+            var rank = cb.function("job_offer_fts_rank", Float.class, root.get("searchVector"), cb.literal(q));
+
+            query.orderBy(
+                    cb.desc(rank),
+                    cb.desc(root.get("publishedAt")),
+                    cb.desc(root.get("id"))
+            );
+
+            return cb.conjunction();
+        };
+    }
+
     public static Specification<JobOffer> byCity(String city) {
         if (city == null || city.isBlank()) return null;
         String lc = city.toLowerCase();
@@ -52,31 +99,38 @@ public final class JobOfferSpecifications {
 
     public static Specification<JobOffer> level(JobLevel lvl) {
         if (lvl == null) return null;
-        return (r, q, cb) -> cb.equal(r.get("level"), lvl);
+        return (r, q, cb) -> cb.or(
+                cb.equal(r.get("level"), lvl),
+                inGroup(r, q, cb, m -> cb.equal(m.get("level"), lvl))
+        );
     }
 
-    public static Specification<JobOffer> techAny(List<String> tags) {
-        if (tags == null || tags.isEmpty()) return null;
+    public static Specification<JobOffer> techAny(Set<Integer> tagIds) {
+        if (tagIds == null) return null;
+        if (tagIds.isEmpty()) return (r, q, cb) -> cb.disjunction();
 
         return (root, query, cb) -> {
             var sq = query.subquery(Integer.class);
             var sqRoot = sq.correlate(root);
-            Join<JobOffer, String> tagJoin = sqRoot.join("techTags", JoinType.INNER);
+            Join<JobOffer, TechTag> tagJoin = sqRoot.join("techTagRefs", JoinType.INNER);
 
             sq.select(cb.literal(1))
-                    .where(tagJoin.in(tags));
+                    .where(tagJoin.get("id").in(tagIds));
 
-            return cb.exists(sq);
+            return cb.or(
+                    cb.exists(sq),
+                    inGroup(root, query, cb, m -> m.join("techTagRefs", JoinType.INNER).get("id").in(tagIds))
+            );
         };
     }
 
     public static Specification<JobOffer> salaryBetween(Integer min, Integer max) {
         return (r, q, cb) -> cb.and(
                 min != null
-                        ? cb.greaterThanOrEqualTo(upperSalary(r, cb), min)
+                        ? cb.greaterThanOrEqualTo(upperSalary(r), min)
                         : cb.conjunction(),
                 max != null
-                        ? cb.lessThanOrEqualTo(lowerSalary(r, cb), max)
+                        ? cb.lessThanOrEqualTo(lowerSalary(r), max)
                         : cb.conjunction()
         );
     }
@@ -100,7 +154,12 @@ public final class JobOfferSpecifications {
 
             var inMany = cb.exists(sq);
 
-            return cb.or(inSingle, inMany);
+            var inGroup = inGroup(root, query, cb, m -> cb.or(
+                    m.get("contract").in(wanted),
+                    m.join("contracts", JoinType.LEFT).in(wanted)
+            ));
+
+            return cb.or(inSingle, inMany, inGroup);
         };
     }
 
@@ -112,7 +171,7 @@ public final class JobOfferSpecifications {
 
     public static Specification<JobOffer> withSalary(Boolean with) {
         if (with == null || !with) return null;
-        return (r, q, cb) -> cb.or(cb.isNotNull(r.get("salaryMin")), cb.isNotNull(r.get("salaryMax")));
+        return (r, q, cb) -> cb.isTrue(r.get("hasSalary"));
     }
     public static Specification<JobOffer> orderByHighestSalaryNullsLast() {
         return (root, query, cb) -> {
@@ -120,25 +179,14 @@ public final class JobOfferSpecifications {
                 return cb.conjunction();
             }
 
-            var noSalaryLast = cb.<Integer>selectCase()
-                    .when(
-                            cb.and(
-                                    cb.isNull(root.get("salaryMin")),
-                                    cb.isNull(root.get("salaryMax")),
-                                    cb.isNull(root.get("salaryNormMonthMin")),
-                                    cb.isNull(root.get("salaryNormMonthMax"))
-                            ),
-                            1
-                    )
-                    .otherwise(0);
-
-            var bestSalary = upperSalary(root, cb);
-            var floorSalary = lowerSalary(root, cb);
+            // offers without a salary, or with one that does not convert to PLN, have null effective
+            // bounds, so NULLS LAST keeps them at the end and lets
+            // ix_job_offer_active_effective_salary_listing serve the sort
+            var hcb = (HibernateCriteriaBuilder) cb;
 
             query.orderBy(
-                    cb.asc(noSalaryLast),
-                    cb.desc(bestSalary),
-                    cb.desc(floorSalary),
+                    hcb.desc(upperSalary(root), false),
+                    hcb.desc(lowerSalary(root), false),
                     cb.desc(root.get("publishedAt")),
                     cb.desc(root.get("id"))
             );
@@ -147,21 +195,67 @@ public final class JobOfferSpecifications {
         };
     }
 
-    private static Expression<Integer> upperSalary(Root<JobOffer> root, jakarta.persistence.criteria.CriteriaBuilder cb) {
-        var c = cb.<Integer>coalesce();
-        c.value(root.get("salaryMax"));
-        c.value(root.get("salaryMin"));
-        c.value(root.get("salaryNormMonthMax"));
-        c.value(root.get("salaryNormMonthMin"));
-        return c;
+    public static Specification<JobOffer> seekAfter(JobOfferCursor c) {
+        if (c == null) return null;
+        return (r, q, cb) -> {
+            Expression<Instant> published = r.get("publishedAt");
+            Expression<Long> id = r.get("id");
+
+            var dateAfter = c.publishedAt() == null
+                    ? cb.or(
+                            cb.isNotNull(published),
+                            cb.lessThan(id, c.id()))
+                    : cb.or(
+                            cb.lessThan(published, c.publishedAt()),
+                            cb.and(cb.equal(published, c.publishedAt()), cb.lessThan(id, c.id())));
+
+            if (!c.salarySort()) {
+                return dateAfter;
+            }
+
+            var upper = upperSalary(r);
+            var lower = lowerSalary(r);
+
+            if (c.upperSalary() == null) {
+                return cb.and(cb.isNull(upper), dateAfter);
+            }
+
+            return cb.or(
+                    cb.isNull(upper),
+                    cb.lessThan(upper, c.upperSalary()),
+                    cb.and(
+                            cb.equal(upper, c.upperSalary()),
+                            cb.or(
+                                    cb.lessThan(lower, c.lowerSalary()),
+                                    cb.and(cb.equal(lower, c.lowerSalary()), dateAfter)
+                            )
+                    )
+            );
+        };
+    }
+
+    /**
+     * Another active offer of the same dedupe group satisfies {@code condition}. Offers without a hash
+     * form no group. Served by ix_job_offer_dedupe_hash.
+     */
+    private static Predicate inGroup(Root<JobOffer> root, CriteriaQuery<?> query, CriteriaBuilder cb,
+                                     Function<Root<JobOffer>, Predicate> condition) {
+        var sq = query.subquery(Integer.class);
+        Root<JobOffer> member = sq.from(JobOffer.class);
+        sq.select(cb.literal(1))
+                .where(
+                        cb.equal(member.get("dedupeHash"), root.get("dedupeHash")),
+                        cb.isTrue(member.get("active")),
+                        condition.apply(member)
+                );
+        return cb.exists(sq);
+    }
+
+    private static Expression<Integer> upperSalary(Root<JobOffer> root) {
+        return root.get("effectiveSalaryUpper");
     }
 
-    private static Expression<Integer> lowerSalary(Root<JobOffer> root, jakarta.persistence.criteria.CriteriaBuilder cb) {
-        var c = cb.<Integer>coalesce();
-        c.value(root.get("salaryMin"));
-        c.value(root.get("salaryMax"));
-        c.value(root.get("salaryNormMonthMin"));
-        c.value(root.get("salaryNormMonthMax"));
-        return c;
+    private static Expression<Integer> lowerSalary(Root<JobOffer> root) {
+        return root.get("effectiveSalaryLower");
     }
 }
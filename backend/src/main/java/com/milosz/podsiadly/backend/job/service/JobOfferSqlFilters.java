@@ -0,0 +1,90 @@
+package com.milosz.podsiadly.backend.job.service;
+
+import com.milosz.podsiadly.backend.job.domain.ContractType;
+import com.milosz.podsiadly.backend.job.repository.JobOfferQueryRepository.SqlFilter;
+
+import java.sql.Timestamp;
+import java.util.*;
+
+/**
+ * Native SQL twin of the search specifications, for aggregate queries that cannot be expressed as a
+ * {@link org.springframework.data.jpa.domain.Specification}. Must select the same rows as
+ * {@code JobOfferService.buildSearchSpecification}.
+ */
+public final class JobOfferSqlFilters {
+    private JobOfferSqlFilters() {}
+
+    public static SqlFilter of(JobOfferSearchFilter f, boolean fullText) {
+        List<String> where = new ArrayList<>();
+        Map<String, Object> params = new HashMap<>();
+
+        where.add("o.active AND (o.canonical IS NULL OR o.canonical)");
+
+        if (f.q() != null) {
+            params.put("like", "%" + f.q().toLowerCase() + "%");
+            params.put("q", f.q());
+            if (fullText) {
+                where.add(f.includeDescription()
+                        ? "(job_offer_fts_match(o.search_vector, :q) OR lower(o.title) LIKE :like"
+                          + " OR job_offer_title_fuzzy(o.title, :q))"
+                        : "(lower(o.title) LIKE :like OR job_offer_title_fuzzy(o.title, :q))");
+            } else {
+                where.add(f.includeDescription()
+                        ? "(lower(o.title) LIKE :like OR lower(o.description) LIKE :like)"
+                        : "lower(o.title) LIKE :like");
+            }
+        }
+        if (f.city() != null) {
+            where.add("lower(ci.name) = :city");
+            params.put("city", f.city().toLowerCase());
+        }
+        if (f.remote() != null) {
+            where.add("o.remote = :remote");
+            params.put("remote", f.remote());
+        }
+        if (f.level() != null) {
+            where.add("(o.level = :level OR " + inGroup("g.level = :level") + ")");
+            params.put("level", f.level().name());
+        }
+        if (f.techIds() != null) {
+            if (f.techIds().isEmpty()) {
+                where.add("false");
+            } else {
+                where.add("(EXISTS (SELECT 1 FROM job_offer_tech_tag x"
+                        + " WHERE x.job_offer_id = o.id AND x.tag_id IN (:techIds)) OR "
+                        + inGroup("EXISTS (SELECT 1 FROM job_offer_tech_tag gx"
+                        + " WHERE gx.job_offer_id = g.id AND gx.tag_id IN (:techIds))") + ")");
+                params.put("techIds", f.techIds());
+            }
+        }
+        if (f.salaryMin() != null) {
+            where.add("o.effective_salary_upper >= :salaryMin");
+            params.put("salaryMin", f.salaryMin());
+        }
+        if (f.salaryMax() != null) {
+            where.add("o.effective_salary_lower <= :salaryMax");
+            params.put("salaryMax", f.salaryMax());
+        }
+        if (f.postedAfter() != null) {
+            where.add("o.published_at >= :postedAfter");
+            params.put("postedAfter", Timestamp.from(f.postedAfter()));
+        }
+        if (!f.contracts().isEmpty()) {
+            where.add("(o.contract IN (:contracts) OR EXISTS (SELECT 1 FROM job_offer_contract jc"
+                    + " WHERE jc.job_offer_id = o.id AND jc.contract IN (:contracts)) OR "
+                    + inGroup("(g.contract IN (:contracts) OR EXISTS (SELECT 1 FROM job_offer_contract gc"
+                    + " WHERE gc.job_offer_id = g.id AND gc.contract IN (:contracts)))") + ")");
+            params.put("contracts", f.contracts().stream().map(ContractType::name).toList());
+        }
+        if (Boolean.TRUE.equals(f.withSalary())) {
+            where.add("o.has_salary");
+        }
+        return new SqlFilter(String.join("\n   AND ", where), params);
+    }
+
+    /** {@code JobOfferSpecifications.inGroup}: another active offer {@code g} of the dedupe group matches. */
+    private static String inGroup(String condition) {
+        return "EXISTS (SELECT 1 FROM job_offer g WHERE g.dedupe_hash = o.dedupe_hash AND g.active AND "
+                + condition + ")";
+    }
+}
@@ -2,21 +2,30 @@ package com.milosz.podsiadly.backend.job.service;
 
 import com.milosz.podsiadly.backend.job.domain.JobSource;
 import com.milosz.podsiadly.backend.job.repository.JobOfferRepository;
+import com.milosz.podsiadly.backend.job.service.event.JobOffersChangedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class OfferStaleDeactivationScheduler {
 
+    private static final int CHUNK = 1_000;
+
     private final JobOfferRepository offers;
+    private final ApplicationEventPublisher events;
+    private final JobOfferDedupeService dedupe;
 
     @Value("${jobs.stale.default-cutoff:PT48H}")
     private Duration defaultStaleCutoff;
@@ -37,7 +46,17 @@ public class OfferStaleDeactivationScheduler {
 
     private void deactivateFor(JobSource src, Duration cutoffDur) {
         Instant cutoff = Instant.now().minus(cutoffDur);
-        int deactivated = offers.deactivateStale(src, cutoff);
+        int deactivated = 0;
+        while (true) {
+            List<Long> ids = offers.findStaleActiveIds(src, cutoff, PageRequest.of(0, CHUNK));
+            if (ids.isEmpty()) break;
+
+            int updated = offers.deactivateStaleByIds(ids, cutoff);
+            deactivated += updated;
+            dedupe.refreshForOffers(ids);
+            events.publishEvent(new JobOffersChangedEvent(ids));
+            if (updated == 0 || ids.size() < CHUNK) break;
+        }
         if (deactivated > 0) {
             log.info("[stale-deactivate] {} deactivated={} cutoff={}", src, deactivated, cutoff);
         }
@@ -14,6 +14,21 @@ public final class SalaryNormalizer {
 
     public record Normalized(Integer monthMin, Integer monthMax) {}
 
+    /**
+     * Monthly bounds in PLN as stored in {@code effective_salary_upper/lower}; null without a salary
+     * and also when it cannot be converted (unknown currency, bounds out of range).
+     */
+    public record Effective(Integer upper, Integer lower) {}
+
+    /**
+     * Value of {@code has_salary}: the offer states a salary, whether or not it converts to PLN. Such
+     * offers pass {@code withSalary} but have no effective bounds, so salary range filters skip them
+     * and the salary sort puts them after every convertible salary.
+     */
+    public static boolean hasSalary(Integer min, Integer max) {
+        return min != null || max != null;
+    }
+
     public static Normalized normalizeToMonth(Integer min, Integer max, SalaryPeriod period) {
         if (min == null && max == null) return new Normalized(null, null);
 
@@ -50,6 +65,22 @@ public final class SalaryNormalizer {
         return out.intValueExact();
     }
 
+    public static Effective effective(Normalized month, BigDecimal plnRate) {
+        if (month == null || plnRate == null) return new Effective(null, null);
+
+        Integer upper = toPln(month.monthMax() != null ? month.monthMax() : month.monthMin(), plnRate);
+        Integer lower = toPln(month.monthMin() != null ? month.monthMin() : month.monthMax(), plnRate);
+        return new Effective(upper, lower);
+    }
+
+    private static Integer toPln(Integer value, BigDecimal rate) {
+        if (value == null) return null;
+        BigDecimal out = BigDecimal.valueOf(value).multiply(rate).setScale(0, RoundingMode.HALF_UP);
+        if (out.compareTo(bd("0")) <= 0) return null;
+        if (out.compareTo(bd("100000000")) > 0) return null;
+        return out.intValueExact();
+    }
+
     public static SalaryPeriod parsePeriodLoose(String raw) {
         if (raw == null || raw.isBlank()) return null;
         String t = raw.trim().toLowerCase();
@@ -0,0 +1,218 @@
+package com.milosz.podsiadly.backend.job.service;
+
+import com.milosz.podsiadly.backend.job.domain.JobOffer;
+import com.milosz.podsiadly.backend.job.domain.TechTag;
+import com.milosz.podsiadly.backend.job.repository.TechTagRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TechTagService {
+
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    private static final String FOLD_SQL = "lower(regexp_replace(btrim(%s), '\\s+', ' ', 'g'))";
+
+    // spellings of one technology only; a more specific or different technology keeps its own tag
+    private static final Map<String, List<String>> ALIASES = Map.ofEntries(
+            Map.entry("Kubernetes",   List.of("K8s", "kube")),
+            Map.entry("Spring",       List.of("Spring Framework")),
+            Map.entry("JavaScript",   List.of("JS", "ECMAScript")),
+            Map.entry("TypeScript",   List.of("TS")),
+            Map.entry("Node.js",      List.of("Node", "NodeJS", "Node JS")),
+            Map.entry("React",        List.of("React.js", "ReactJS")),
+            Map.entry("Vue",          List.of("Vue.js", "VueJS")),
+            Map.entry("Next.js",      List.of("NextJS")),
+            Map.entry("Go",           List.of("Golang")),
+            Map.entry(".NET",         List.of("dotnet", ".NET Core")),
+            Map.entry("C#",           List.of("CSharp", "C Sharp")),
+            Map.entry("C++",          List.of("CPP")),
+            Map.entry("PostgreSQL",   List.of("Postgres", "Postgre", "psql")),
+            Map.entry("AWS",          List.of("Amazon Web Services")),
+            Map.entry("GCP",          List.of("Google Cloud", "Google Cloud Platform")),
+            Map.entry("Azure",        List.of("Microsoft Azure")),
+            Map.entry("CI/CD",        List.of("CICD", "CI CD")),
+            Map.entry("PowerBI",      List.of("Power BI")),
+            Map.entry("React Native", List.of("ReactNative"))
+    );
+
+    private final TechTagRepository tags;
+    private final NamedParameterJdbcTemplate jdbc;
+
+    private final Map<String, Integer> idsByAlias = new ConcurrentHashMap<>();
+
+    public static String fold(String name) {
+        if (name == null) return null;
+        String folded = SPACES.matcher(name.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+        return folded.isEmpty() ? null : folded;
+    }
+
+    public Set<Integer> resolveIds(Collection<String> names) {
+        if (names == null || names.isEmpty()) return Set.of();
+
+        Set<String> folded = new HashSet<>();
+        for (String n : names) {
+            String f = fold(n);
+            if (f != null) folded.add(f);
+        }
+
+        Set<Integer> out = new HashSet<>();
+        List<String> missing = new ArrayList<>();
+        for (String f : folded) {
+            Integer id = idsByAlias.get(f);
+            if (id != null) out.add(id);
+            else missing.add(f);
+        }
+
+        if (!missing.isEmpty()) {
+            Map<String, Integer> loaded = loadAliases(missing);
+            idsByAlias.putAll(loaded);
+            out.addAll(loaded.values());
+        }
+        return out;
+    }
+
+    public void assign(JobOffer offer) {
+        List<String> names = offer.getTechTags();
+        if (names == null || names.isEmpty()) {
+            offer.getTechTagRefs().clear();
+            return;
+        }
+
+        Set<Integer> ids = new TreeSet<>(resolveOrCreate(names).values());
+
+        Set<Integer> current = new HashSet<>();
+        for (TechTag t : offer.getTechTagRefs()) current.add(t.getId());
+        if (!current.equals(ids)) {
+            offer.getTechTagRefs().clear();
+            for (Integer id : ids) {
+                offer.getTechTagRefs().add(tags.getReferenceById(id));
+            }
+        }
+    }
+
+    public Map<String, Integer> resolveOrCreate(Collection<String> names) {
+        Map<String, String> bySlug = new TreeMap<>();
+        for (String n : names) {
+            String f = fold(n);
+            if (f != null) bySlug.putIfAbsent(f, n.trim());
+        }
+
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String slug : bySlug.keySet()) {
+            Integer id = idsByAlias.get(slug);
+            if (id != null) ids.put(slug, id);
+            else missing.add(slug);
+        }
+        if (missing.isEmpty()) return ids;
+
+        Map<String, Integer> loaded = loadAliases(missing);
+        idsByAlias.putAll(loaded);
+        ids.putAll(loaded);
+
+        Map<String, Integer> created = new HashMap<>();
+        for (String slug : missing) {
+            if (loaded.containsKey(slug)) continue;
+            created.put(slug, create(bySlug.get(slug), slug));
+        }
+        ids.putAll(created);
+        cacheAfterCommit(created);
+        return ids;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        try {
+            for (Map.Entry<String, List<String>> e : ALIASES.entrySet()) {
+                String slug = fold(e.getKey());
+                Integer id = create(e.getKey(), slug);
+                for (String alias : e.getValue()) {
+                    jdbc.update("""
+                        INSERT INTO tech_tag_alias(alias, tag_id) VALUES (:alias, :id)
+                        ON CONFLICT (alias) DO UPDATE SET tag_id = EXCLUDED.tag_id
+                        """, Map.of("alias", fold(alias), "id", id));
+                }
+            }
+
+            int added = jdbc.getJdbcTemplate().update("""
+                INSERT INTO tech_tag(name, slug)
+                SELECT DISTINCT ON (s.slug) s.name, s.slug
+                  FROM (SELECT btrim(t.tag) AS name, %1$s AS slug
+                          FROM job_offer_tags t
+                         WHERE t.tag IS NOT NULL AND btrim(t.tag) <> '') s
+                 WHERE NOT EXISTS (SELECT 1 FROM tech_tag_alias a WHERE a.alias = s.slug)
+                 ORDER BY s.slug, s.name
+                ON CONFLICT (slug) DO NOTHING
+                """.formatted(FOLD_SQL.formatted("t.tag")));
+
+            jdbc.getJdbcTemplate().update("""
+                INSERT INTO tech_tag_alias(alias, tag_id)
+                SELECT slug, id FROM tech_tag
+                ON CONFLICT (alias) DO NOTHING
+                """);
+
+            int linked = jdbc.getJdbcTemplate().update("""
+                INSERT INTO job_offer_tech_tag(job_offer_id, tag_id)
+                SELECT DISTINCT t.job_offer_id, a.tag_id
+                  FROM job_offer_tags t
+                  JOIN tech_tag_alias a ON a.alias = %1$s
+                 WHERE NOT EXISTS (SELECT 1 FROM job_offer_tech_tag x WHERE x.job_offer_id = t.job_offer_id)
+                ON CONFLICT DO NOTHING
+                """.formatted(FOLD_SQL.formatted("t.tag")));
+
+            if (added > 0 || linked > 0) {
+                log.info("[tech-tags] backfill tags={} links={}", added, linked);
+            }
+        } catch (Exception ex) {
+            log.warn("[tech-tags] backfill failed: {}", ex.toString());
+        }
+    }
+
+    private Map<String, Integer> loadAliases(Collection<String> folded) {
+        Map<String, Integer> out = new HashMap<>();
+        jdbc.query("SELECT alias, tag_id FROM tech_tag_alias WHERE alias IN (:aliases)",
+                Map.of("aliases", folded),
+                rs -> { out.put(rs.getString("alias"), rs.getInt("tag_id")); });
+        return out;
+    }
+
+    private Integer create(String name, String slug) {
+        Integer id = jdbc.queryForObject("""
+            INSERT INTO tech_tag(name, slug) VALUES (:name, :slug)
+            ON CONFLICT (slug) DO UPDATE SET slug = EXCLUDED.slug
+            RETURNING id
+            """, Map.of("name", name, "slug", slug), Integer.class);
+        jdbc.update("""
+            INSERT INTO tech_tag_alias(alias, tag_id) VALUES (:slug, :id)
+            ON CONFLICT (alias) DO NOTHING
+            """, Map.of("slug", slug, "id", id));
+        return id;
+    }
+
+    private void cacheAfterCommit(Map<String, Integer> created) {
+        if (created.isEmpty()) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            idsByAlias.putAll(created);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                idsByAlias.putAll(created);
+            }
+        });
+    }
+}
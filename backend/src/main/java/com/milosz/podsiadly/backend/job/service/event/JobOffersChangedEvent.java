@@ -0,0 +1,11 @@
+package com.milosz.podsiadly.backend.job.service.event;
+
+import java.util.Collection;
+import java.util.List;
+
+public record JobOffersChangedEvent(Collection<Long> offerIds) {
+
+    public static JobOffersChangedEvent of(Long offerId) {
+        return new JobOffersChangedEvent(offerId != null ? List.of(offerId) : List.of());
+    }
+}
@@ -0,0 +1,242 @@
+package com.milosz.podsiadly.backend.job.service.index;
+
+import com.milosz.podsiadly.backend.job.config.JobSearchProperties;
+import com.milosz.podsiadly.backend.job.domain.ContractType;
+import com.milosz.podsiadly.backend.job.domain.JobLevel;
+import com.milosz.podsiadly.backend.job.repository.JobOfferRepository;
+import com.milosz.podsiadly.backend.job.service.JobOfferCursor;
+import com.milosz.podsiadly.backend.job.service.JobOfferSearchFilter;
+import com.milosz.podsiadly.backend.job.service.event.JobOffersChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ActiveOfferIndex {
+
+    private static final int ID_CHUNK = 1_000;
+
+    private final JobOfferRepository offers;
+    private final JobSearchProperties props;
+    private final TaskScheduler taskScheduler;
+
+    private final Object lock = new Object();
+    private final Map<Long, IndexedOffer> rows = new HashMap<>();
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    private volatile OfferColumns columns = OfferColumns.EMPTY;
+    private volatile boolean ready = false;
+
+    public record IndexPage(List<Long> ids, long total, boolean hasNext) {}
+
+    public boolean canServe(JobOfferSearchFilter filter) {
+        if (!props.getIndex().isEnabled() || !ready) return false;
+        if (filter.q() == null) return true;
+        return !filter.includeDescription()
+                && filter.q().indexOf('%') < 0
+                && filter.q().indexOf('_') < 0;
+    }
+
+    public IndexPage page(JobOfferSearchFilter filter, boolean salarySort, int offset, int limit) {
+        OfferColumns snapshot = columns;
+        BitSet matches = snapshot.match(filter);
+        List<Long> ids = snapshot.collect(matches, salarySort, offset, limit + 1);
+        boolean hasNext = ids.size() > limit;
+        return new IndexPage(hasNext ? ids.subList(0, limit) : ids, matches.cardinality(), hasNext);
+    }
+
+    public IndexPage pageAfter(JobOfferSearchFilter filter, JobOfferCursor cursor, int limit) {
+        OfferColumns snapshot = columns;
+        BitSet matches = snapshot.match(filter);
+        List<Long> ids = snapshot.collectAfter(matches, cursor, limit + 1);
+        boolean hasNext = ids.size() > limit;
+        return new IndexPage(hasNext ? ids.subList(0, limit) : ids, matches.cardinality(), hasNext);
+    }
+
+    public List<Long> all(JobOfferSearchFilter filter, boolean salarySort) {
+        OfferColumns snapshot = columns;
+        BitSet matches = snapshot.match(filter);
+        return snapshot.collect(matches, salarySort, 0, Integer.MAX_VALUE);
+    }
+
+    public long count(JobOfferSearchFilter filter) {
+        return columns.match(filter).cardinality();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOffersChanged(JobOffersChangedEvent event) {
+        if (!props.getIndex().isEnabled() || event.offerIds() == null) return;
+        for (Long id : event.offerIds()) {
+            if (id != null) pending.add(id);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!props.getIndex().isEnabled()) return;
+        taskScheduler.schedule(this::safeRebuild, Instant.now());
+    }
+
+    @Scheduled(
+            initialDelayString = "#{@jobSearchProperties.index.refreshDelay.toMillis()}",
+            fixedDelayString   = "#{@jobSearchProperties.index.refreshDelay.toMillis()}"
+    )
+    public void refreshPending() {
+        if (!props.getIndex().isEnabled() || !ready || pending.isEmpty()) return;
+
+        List<Long> ids = new ArrayList<>(pending);
+        pending.removeAll(ids);
+
+        try {
+            synchronized (lock) {
+                // a changed duplicate changes what its group's canonical offer matches; a duplicate that
+                // moved to another group leaves the old canonical stale until the next full rebuild
+                Set<Long> canonicals = new LinkedHashSet<>();
+                for (int i = 0; i < ids.size(); i += ID_CHUNK) {
+                    canonicals.addAll(offers.findGroupCanonicalIdsByIdIn(ids.subList(i, Math.min(i + ID_CHUNK, ids.size()))));
+                }
+                canonicals.removeAll(new HashSet<>(ids));
+                ids.addAll(canonicals);
+
+                Map<Long, IndexedOffer> loaded = new HashMap<>(ids.size() * 2);
+                for (int i = 0; i < ids.size(); i += ID_CHUNK) {
+                    loaded.putAll(loadByIds(ids.subList(i, Math.min(i + ID_CHUNK, ids.size()))));
+                }
+
+                List<Long> removed = new ArrayList<>();
+                List<IndexedOffer> upserts = new ArrayList<>(loaded.size());
+                for (Long id : ids) {
+                    IndexedOffer row = loaded.get(id);
+                    if (row != null) {
+                        if (!row.equals(rows.put(id, row))) upserts.add(row);
+                    } else if (rows.remove(id) != null) {
+                        removed.add(id);
+                    }
+                }
+                columns = columns.withChanges(removed, upserts);
+            }
+            log.debug("[search-index] refreshed changed={} size={} dead={}",
+                    ids.size(), columns.size(), columns.deadPositions());
+        } catch (Exception ex) {
+            pending.addAll(ids);
+            log.warn("[search-index] refresh failed changed={}: {}", ids.size(), ex.toString());
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "#{@jobSearchProperties.index.fullRebuildInterval.toMillis()}",
+            fixedDelayString   = "#{@jobSearchProperties.index.fullRebuildInterval.toMillis()}"
+    )
+    public void scheduledRebuild() {
+        if (!props.getIndex().isEnabled()) return;
+        safeRebuild();
+    }
+
+    private void safeRebuild() {
+        try {
+            rebuild();
+        } catch (Exception ex) {
+            log.warn("[search-index] full rebuild failed: {}", ex.toString());
+        }
+    }
+
+    private void rebuild() {
+        long started = System.currentTimeMillis();
+        int batch = Math.max(100, props.getIndex().getLoadBatchSize());
+
+        synchronized (lock) {
+            Map<Long, IndexedOffer> fresh = new HashMap<>();
+            long afterId = 0L;
+            while (true) {
+                List<Object[]> base = offers.findActiveIndexRowsAfter(afterId, PageRequest.of(0, batch));
+                if (base.isEmpty()) break;
+
+                fresh.putAll(assemble(base));
+                afterId = (Long) base.get(base.size() - 1)[0];
+                if (base.size() < batch) break;
+            }
+
+            rows.clear();
+            rows.putAll(fresh);
+            columns = new OfferColumns(rows.values());
+            ready = true;
+        }
+        log.info("[search-index] rebuilt size={} tookMs={}", columns.size(), System.currentTimeMillis() - started);
+    }
+
+    private Map<Long, IndexedOffer> loadByIds(List<Long> ids) {
+        if (ids.isEmpty()) return Map.of();
+        return assemble(offers.findActiveIndexRowsByIdIn(ids));
+    }
+
+    private Map<Long, IndexedOffer> assemble(List<Object[]> base) {
+        if (base.isEmpty()) return Map.of();
+
+        List<Long> ids = base.stream().map(r -> (Long) r[0]).toList();
+
+        // levels, tags and contracts of every active offer in the group count for the canonical one
+        Map<Long, List<Long>> countsFor = new HashMap<>();
+        Map<Long, Set<JobLevel>> levels = new HashMap<>();
+        Map<Long, Set<ContractType>> contracts = new HashMap<>();
+        for (Object[] r : offers.findGroupMembersByIdIn(ids)) {
+            Long id = (Long) r[0];
+            countsFor.computeIfAbsent((Long) r[1], k -> new ArrayList<>(1)).add(id);
+            if (r[2] != null) levels.computeIfAbsent(id, k -> EnumSet.noneOf(JobLevel.class)).add((JobLevel) r[2]);
+            if (r[3] != null) contracts.computeIfAbsent(id, k -> EnumSet.noneOf(ContractType.class)).add((ContractType) r[3]);
+        }
+        List<Long> members = new ArrayList<>(countsFor.keySet());
+
+        Map<Long, Set<Integer>> tags = new HashMap<>();
+        for (Object[] r : offers.findTechTagIdPairsByIdIn(members)) {
+            if (r[1] == null) continue;
+            for (Long id : countsFor.get((Long) r[0])) {
+                tags.computeIfAbsent(id, k -> new HashSet<>()).add((Integer) r[1]);
+            }
+        }
+
+        for (Object[] r : offers.findContractPairsByIdIn(members)) {
+            if (r[1] == null) continue;
+            for (Long id : countsFor.get((Long) r[0])) {
+                contracts.computeIfAbsent(id, k -> EnumSet.noneOf(ContractType.class)).add((ContractType) r[1]);
+            }
+        }
+
+        Map<Long, IndexedOffer> out = new HashMap<>(base.size() * 2);
+        for (Object[] r : base) {
+            Long id = (Long) r[0];
+            String title = (String) r[1];
+            String city = (String) r[2];
+            Integer upper = (Integer) r[6];
+            Integer lower = (Integer) r[7];
+            boolean withSalary = Boolean.TRUE.equals(r[8]);
+            Instant published = (Instant) r[9];
+
+            out.put(id, new IndexedOffer(
+                    id,
+                    title != null ? title.toLowerCase(Locale.ROOT) : null,
+                    city != null ? city.toLowerCase(Locale.ROOT) : null,
+                    (Boolean) r[3],
+                    levels.getOrDefault(id, Set.of()),
+                    upper,
+                    lower,
+                    withSalary,
+                    published != null ? published.toEpochMilli() : OfferColumns.NO_DATE,
+                    tags.getOrDefault(id, Set.of()),
+                    contracts.getOrDefault(id, Set.of())
+            ));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,24 @@
+package com.milosz.podsiadly.backend.job.service.index;
+
+import com.milosz.podsiadly.backend.job.domain.ContractType;
+import com.milosz.podsiadly.backend.job.domain.JobLevel;
+
+import java.util.Set;
+
+/**
+ * One canonical offer as the index sees it. Levels, tech tags and contracts are the union over the
+ * active offers of its dedupe group, like the SQL filters.
+ */
+record IndexedOffer(
+        long id,
+        String titleLower,
+        String cityLower,
+        Boolean remote,
+        Set<JobLevel> levels,
+        Integer upperSalary,
+        Integer lowerSalary,
+        boolean withSalary,
+        long publishedAtMillis,
+        Set<Integer> techTagIds,
+        Set<ContractType> contracts
+) {}
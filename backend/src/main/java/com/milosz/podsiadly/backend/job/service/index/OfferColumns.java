@@ -0,0 +1,370 @@
+package com.milosz.podsiadly.backend.job.service.index;
+
+import com.milosz.podsiadly.backend.job.domain.ContractType;
+import com.milosz.podsiadly.backend.job.domain.JobLevel;
+import com.milosz.podsiadly.backend.job.service.JobOfferCursor;
+import com.milosz.podsiadly.backend.job.service.JobOfferSearchFilter;
+
+import java.util.*;
+import java.util.function.IntPredicate;
+
+/**
+ * Immutable snapshot of the active offers. {@link #withChanges} derives the next snapshot from a
+ * delta: replaced and removed offers are dropped from the {@code alive} mask, new rows are appended
+ * to the column arrays (shared with older snapshots, which never read past their own size) and
+ * merged into the sorted orders. Dropped positions stay allocated until the next full build.
+ */
+final class OfferColumns {
+
+    static final int NONE = Integer.MIN_VALUE;
+    static final long NO_DATE = Long.MIN_VALUE;
+
+    static final OfferColumns EMPTY = new OfferColumns(List.of());
+
+    private final int size;
+    private final BitSet alive;
+    private final int aliveCount;
+
+    private final long[] ids;
+    private final String[] titles;
+    private final int[] city;
+    private final byte[] levels;
+    private final int[] upper;
+    private final int[] lower;
+    private final long[] published;
+
+    private final Map<String, Integer> cityCodes;
+    private final BitSet remoteTrue;
+    private final BitSet remoteFalse;
+    private final BitSet withSalary;
+    private final Map<Integer, BitSet> tags;
+    private final EnumMap<ContractType, BitSet> contracts;
+
+    private final int[] byDate;
+    private final int[] bySalary;
+
+    // written only by the thread deriving the next snapshot (under the index lock); readers never use it
+    private final Map<Long, Integer> positions;
+
+    OfferColumns(Collection<IndexedOffer> rows) {
+        this.size = rows.size();
+        this.alive = new BitSet(size);
+        this.alive.set(0, size);
+        this.aliveCount = size;
+
+        this.ids = new long[size];
+        this.titles = new String[size];
+        this.city = new int[size];
+        this.levels = new byte[size];
+        this.upper = new int[size];
+        this.lower = new int[size];
+        this.published = new long[size];
+
+        this.cityCodes = new HashMap<>();
+        this.remoteTrue = new BitSet(size);
+        this.remoteFalse = new BitSet(size);
+        this.withSalary = new BitSet(size);
+        this.tags = new HashMap<>();
+        this.contracts = new EnumMap<>(ContractType.class);
+        this.positions = new HashMap<>(size * 2);
+
+        int i = 0;
+        for (IndexedOffer r : rows) {
+            write(i++, r);
+        }
+
+        this.byDate = sortedPositions(this::compareByDate);
+        this.bySalary = sortedPositions(this::compareBySalary);
+    }
+
+    private OfferColumns(OfferColumns base, Collection<Long> removed, Collection<IndexedOffer> upserts) {
+        this.size = base.size + upserts.size();
+        this.positions = base.positions;
+
+        this.alive = (BitSet) base.alive.clone();
+        for (Long id : removed) {
+            Integer pos = positions.remove(id);
+            if (pos != null) alive.clear(pos);
+        }
+        for (IndexedOffer r : upserts) {
+            Integer pos = positions.get(r.id());
+            if (pos != null) alive.clear(pos);
+        }
+        alive.set(base.size, size);
+        this.aliveCount = alive.cardinality();
+
+        int capacity = base.ids.length;
+        if (size > capacity) capacity = Math.max(size, capacity + (capacity >> 1) + 16);
+        this.ids = capacity == base.ids.length ? base.ids : Arrays.copyOf(base.ids, capacity);
+        this.titles = capacity == base.titles.length ? base.titles : Arrays.copyOf(base.titles, capacity);
+        this.city = capacity == base.city.length ? base.city : Arrays.copyOf(base.city, capacity);
+        this.levels = capacity == base.levels.length ? base.levels : Arrays.copyOf(base.levels, capacity);
+        this.upper = capacity == base.upper.length ? base.upper : Arrays.copyOf(base.upper, capacity);
+        this.lower = capacity == base.lower.length ? base.lower : Arrays.copyOf(base.lower, capacity);
+        this.published = capacity == base.published.length ? base.published : Arrays.copyOf(base.published, capacity);
+
+        Map<String, Integer> codes = base.cityCodes;
+        Map<Integer, BitSet> tagSets = new HashMap<>(base.tags);
+        EnumMap<ContractType, BitSet> contractSets = new EnumMap<>(base.contracts);
+        Set<Integer> copiedTags = new HashSet<>();
+        Set<ContractType> copiedContracts = EnumSet.noneOf(ContractType.class);
+        for (IndexedOffer r : upserts) {
+            if (r.cityLower() != null && !codes.containsKey(r.cityLower())) {
+                if (codes == base.cityCodes) codes = new HashMap<>(codes);
+                codes.put(r.cityLower(), codes.size());
+            }
+            for (Integer tag : r.techTagIds()) {
+                if (copiedTags.add(tag)) tagSets.put(tag, copyOf(base.tags.get(tag)));
+            }
+            for (ContractType ct : r.contracts()) {
+                if (copiedContracts.add(ct)) contractSets.put(ct, copyOf(base.contracts.get(ct)));
+            }
+        }
+        this.cityCodes = codes;
+        this.tags = tagSets;
+        this.contracts = contractSets;
+        this.remoteTrue = upserts.isEmpty() ? base.remoteTrue : (BitSet) base.remoteTrue.clone();
+        this.remoteFalse = upserts.isEmpty() ? base.remoteFalse : (BitSet) base.remoteFalse.clone();
+        this.withSalary = upserts.isEmpty() ? base.withSalary : (BitSet) base.withSalary.clone();
+
+        int[] added = new int[upserts.size()];
+        int i = base.size;
+        for (IndexedOffer r : upserts) {
+            added[i - base.size] = i;
+            write(i++, r);
+        }
+
+        this.byDate = merge(base.byDate, added, this::compareByDate);
+        this.bySalary = merge(base.bySalary, added, this::compareBySalary);
+    }
+
+    /**
+     * Next snapshot with {@code removed} dropped and {@code upserts} added or replaced. Runs in
+     * O(n) over primitive arrays plus O(k log k) for the k upserts; must be called by one writer at a
+     * time, on the latest snapshot.
+     */
+    OfferColumns withChanges(Collection<Long> removed, Collection<IndexedOffer> upserts) {
+        if (removed.isEmpty() && upserts.isEmpty()) return this;
+        return new OfferColumns(this, removed, upserts);
+    }
+
+    int size() {
+        return aliveCount;
+    }
+
+    int deadPositions() {
+        return size - aliveCount;
+    }
+
+    BitSet match(JobOfferSearchFilter f) {
+        BitSet m = (BitSet) alive.clone();
+
+        if (f.remote() != null) {
+            m.and(f.remote() ? remoteTrue : remoteFalse);
+        }
+        if (Boolean.TRUE.equals(f.withSalary())) {
+            m.and(withSalary);
+        }
+        if (f.techIds() != null) {
+            m.and(union(f.techIds().stream().map(tags::get).toList()));
+        }
+        if (!f.contracts().isEmpty()) {
+            m.and(union(f.contracts().stream().map(contracts::get).toList()));
+        }
+
+        if (f.city() != null) {
+            Integer code = cityCodes.get(f.city().toLowerCase(Locale.ROOT));
+            if (code == null) return new BitSet(0);
+            retain(m, i -> city[i] == code);
+        }
+        if (f.level() != null) {
+            int bit = 1 << f.level().ordinal();
+            retain(m, i -> (levels[i] & bit) != 0);
+        }
+        if (f.salaryMin() != null) {
+            int min = f.salaryMin();
+            retain(m, i -> upper[i] != NONE && upper[i] >= min);
+        }
+        if (f.salaryMax() != null) {
+            int max = f.salaryMax();
+            retain(m, i -> lower[i] != NONE && lower[i] <= max);
+        }
+        if (f.postedAfter() != null) {
+            long after = f.postedAfter().toEpochMilli();
+            retain(m, i -> published[i] != NO_DATE && published[i] >= after);
+        }
+        if (f.q() != null) {
+            String needle = f.q().toLowerCase(Locale.ROOT);
+            retain(m, i -> titles[i].contains(needle));
+        }
+        return m;
+    }
+
+    List<Long> collect(BitSet matches, boolean salarySort, int offset, int limit) {
+        return collectFrom(salarySort ? bySalary : byDate, 0, matches, offset, limit);
+    }
+
+    List<Long> collectAfter(BitSet matches, JobOfferCursor cursor, int limit) {
+        int[] order = cursor.salarySort() ? bySalary : byDate;
+
+        int lo = 0;
+        int hi = order.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compareToCursor(order[mid], cursor) <= 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return collectFrom(order, lo, matches, 0, limit);
+    }
+
+    private void write(int i, IndexedOffer r) {
+        ids[i] = r.id();
+        titles[i] = r.titleLower() != null ? r.titleLower() : "";
+        city[i] = r.cityLower() != null
+                ? cityCodes.computeIfAbsent(r.cityLower(), k -> cityCodes.size())
+                : NONE;
+        int levelBits = 0;
+        for (JobLevel l : r.levels()) levelBits |= 1 << l.ordinal();
+        levels[i] = (byte) levelBits;
+        upper[i] = r.upperSalary() != null ? r.upperSalary() : NONE;
+        lower[i] = r.lowerSalary() != null ? r.lowerSalary() : NONE;
+        published[i] = r.publishedAtMillis();
+
+        if (Boolean.TRUE.equals(r.remote())) remoteTrue.set(i);
+        if (Boolean.FALSE.equals(r.remote())) remoteFalse.set(i);
+        if (r.withSalary()) withSalary.set(i);
+
+        for (Integer tag : r.techTagIds()) {
+            tags.computeIfAbsent(tag, k -> new BitSet(size)).set(i);
+        }
+        for (ContractType ct : r.contracts()) {
+            contracts.computeIfAbsent(ct, k -> new BitSet(size)).set(i);
+        }
+        positions.put(r.id(), i);
+    }
+
+    private List<Long> collectFrom(int[] order, int start, BitSet matches, int offset, int limit) {
+        if (limit <= 0 || matches.isEmpty()) return List.of();
+
+        List<Long> out = new ArrayList<>(Math.min(limit, 256));
+        int skipped = 0;
+        for (int i = start; i < order.length; i++) {
+            int pos = order[i];
+            if (!matches.get(pos)) continue;
+            if (skipped < offset) {
+                skipped++;
+                continue;
+            }
+            out.add(ids[pos]);
+            if (out.size() >= limit) break;
+        }
+        return out;
+    }
+
+    private int compareByDate(int a, int b) {
+        return compareDate(published[a], ids[a], published[b], ids[b]);
+    }
+
+    private int compareBySalary(int a, int b) {
+        int c = compareSalary(upper[a], lower[a], upper[b], lower[b]);
+        return c != 0 ? c : compareByDate(a, b);
+    }
+
+    private int compareToCursor(int pos, JobOfferCursor c) {
+        long cursorPublished = c.publishedAt() != null ? c.publishedAt().toEpochMilli() : NO_DATE;
+        int byDate = compareDate(published[pos], ids[pos], cursorPublished, c.id());
+        if (!c.salarySort()) return byDate;
+
+        int cu = c.upperSalary() != null ? c.upperSalary() : NONE;
+        int cl = c.lowerSalary() != null ? c.lowerSalary() : NONE;
+        int bySalary = compareSalary(upper[pos], lower[pos], cu, cl);
+        return bySalary != 0 ? bySalary : byDate;
+    }
+
+    private static int compareDate(long pa, long ida, long pb, long idb) {
+        int c = compareDesc(pa, pb);
+        return c != 0 ? c : Long.compare(idb, ida);
+    }
+
+    private static int compareSalary(int ua, int la, int ub, int lb) {
+        boolean aHas = ua != NONE;
+        boolean bHas = ub != NONE;
+        if (aHas != bHas) return aHas ? -1 : 1;
+        if (!aHas) return 0;
+
+        int c = Integer.compare(ub, ua);
+        return c != 0 ? c : Integer.compare(lb, la);
+    }
+
+    private static int compareDesc(long a, long b) {
+        if (a == b) return 0;
+        if (a == NO_DATE) return -1;
+        if (b == NO_DATE) return 1;
+        return Long.compare(b, a);
+    }
+
+    @FunctionalInterface
+    private interface PositionOrder {
+        int compare(int a, int b);
+    }
+
+    private int[] sortedPositions(PositionOrder cmp) {
+        int[] out = new int[size];
+        for (int i = 0; i < size; i++) out[i] = i;
+        sort(out, cmp);
+        return out;
+    }
+
+    /** Live positions of {@code order} merged with the already-live {@code added} positions. */
+    private int[] merge(int[] order, int[] added, PositionOrder cmp) {
+        sort(added, cmp);
+        int[] out = new int[aliveCount];
+        int n = 0;
+        int j = 0;
+        for (int pos : order) {
+            if (!alive.get(pos)) continue;
+            while (j < added.length && cmp.compare(added[j], pos) < 0) out[n++] = added[j++];
+            out[n++] = pos;
+        }
+        while (j < added.length) out[n++] = added[j++];
+        return out;
+    }
+
+    private static void sort(int[] a, PositionOrder cmp) {
+        if (a.length < 2) return;
+        mergeSort(a, new int[a.length], 0, a.length, cmp);
+    }
+
+    private static void mergeSort(int[] a, int[] tmp, int from, int to, PositionOrder cmp) {
+        if (to - from < 2) return;
+        int mid = (from + to) >>> 1;
+        mergeSort(a, tmp, from, mid, cmp);
+        mergeSort(a, tmp, mid, to, cmp);
+        if (cmp.compare(a[mid - 1], a[mid]) <= 0) return;
+
+        System.arraycopy(a, from, tmp, from, to - from);
+        int i = from;
+        int j = mid;
+        for (int k = from; k < to; k++) {
+            a[k] = (j >= to || (i < mid && cmp.compare(tmp[i], tmp[j]) <= 0)) ? tmp[i++] : tmp[j++];
+        }
+    }
+
+    private static BitSet copyOf(BitSet set) {
+        return set != null ? (BitSet) set.clone() : new BitSet();
+    }
+
+    private BitSet union(List<BitSet> sets) {
+        BitSet out = new BitSet(size);
+        for (BitSet s : sets) {
+            if (s != null) out.or(s);
+        }
+        return out;
+    }
+
+    private static void retain(BitSet m, IntPredicate keep) {
+        for (int i = m.nextSetBit(0); i >= 0; i = m.nextSetBit(i + 1)) {
+            if (!keep.test(i)) m.clear(i);
+        }
+    }
+}
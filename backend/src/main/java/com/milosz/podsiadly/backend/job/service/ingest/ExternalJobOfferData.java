@@ -9,6 +9,10 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Set;
 
+/**
+ * Offer as scraped from a source. {@code publishedAt} is the source's own date and stays null when
+ * the source has none; ingest fills in "now" when it writes the column, after fingerprinting.
+ */
 public record ExternalJobOfferData(
         String title,
         String description,
@@ -1,22 +1,31 @@
 package com.milosz.podsiadly.backend.job.service.ingest;
 
+import com.milosz.podsiadly.backend.job.config.SalaryProperties;
 import com.milosz.podsiadly.backend.job.domain.City;
 import com.milosz.podsiadly.backend.job.domain.Company;
+import com.milosz.podsiadly.backend.job.domain.ContractType;
 import com.milosz.podsiadly.backend.job.domain.JobOffer;
 import com.milosz.podsiadly.backend.job.domain.JobSource;
 import com.milosz.podsiadly.backend.job.domain.SalaryPeriod;
+import com.milosz.podsiadly.backend.job.dto.JobOfferSkillDto;
 import com.milosz.podsiadly.backend.job.mapper.JobOfferMapper;
-import com.milosz.podsiadly.backend.job.repository.CityRepository;
-import com.milosz.podsiadly.backend.job.repository.CompanyRepository;
+import com.milosz.podsiadly.backend.job.repository.JobOfferBatchRepository;
+import com.milosz.podsiadly.backend.job.repository.JobOfferContentState;
 import com.milosz.podsiadly.backend.job.repository.JobOfferRepository;
+import com.milosz.podsiadly.backend.job.service.CompanyCityResolver;
+import com.milosz.podsiadly.backend.job.service.JobOfferDedupeService;
 import com.milosz.podsiadly.backend.job.service.SalaryNormalizer;
+import com.milosz.podsiadly.backend.job.service.TechTagService;
+import com.milosz.podsiadly.backend.job.service.event.JobOffersChangedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
-import java.util.Optional;
+import java.util.*;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
@@ -24,12 +33,26 @@ import java.util.Optional;
 public class ExternalJobOfferIngestService {
 
     private final JobOfferRepository offers;
-    private final CompanyRepository companies;
-    private final CityRepository cities;
+    private final CompanyCityResolver companyCity;
+    private final ApplicationEventPublisher events;
+    private final JobOfferDedupeService dedupe;
+    private final TechTagService techTags;
+    private final JobOfferBatchRepository batches;
+    private final SalaryProperties salary;
 
     @Transactional
     public JobOffer ingest(JobSource source, String externalId, ExternalJobOfferData data) {
 
+        String fingerprint = fingerprint(data, titleOf(data, externalId));
+        Optional<JobOfferContentState> state = offers.findContentState(source, externalId);
+        if (state.isPresent() && fingerprint.equals(state.get().getContentHash())
+                && Boolean.TRUE.equals(state.get().getActive())) {
+            Long id = state.get().getId();
+            offers.markSeen(id, Instant.now());
+            log.debug("[ingest] unchanged {}:{} -> lastSeen only", source, externalId);
+            return offers.getReferenceById(id);
+        }
+
         Optional<JobOffer> existingOpt = offers.findBySourceAndExternalId(source, externalId);
 
         JobOffer offer = existingOpt.orElseGet(() -> JobOffer.builder()
@@ -37,14 +60,10 @@ public class ExternalJobOfferIngestService {
                 .externalId(externalId)
                 .build());
 
-        Company company = upsertCompany(data.companyName());
-        City city       = upsertCity(data.cityName());
+        Company company = companyCity.company(data.companyName());
+        City city       = companyCity.city(data.cityName());
 
-        String title = data.title();
-        if (title == null || title.isBlank()) {
-            title = externalId;
-            log.debug("[ingest] using externalId as fallback title for {}:{}", source, externalId);
-        }
+        String title = titleOf(data, externalId);
 
         offer.setTitle(title);
         offer.setDescription(data.description());
@@ -64,10 +83,15 @@ public class ExternalJobOfferIngestService {
         );
         offer.setSalaryNormMonthMin(norm.monthMin());
         offer.setSalaryNormMonthMax(norm.monthMax());
+        SalaryNormalizer.Effective effective = SalaryNormalizer.effective(norm, salary.plnRate(data.currency()));
+        offer.setEffectiveSalaryUpper(effective.upper());
+        offer.setEffectiveSalaryLower(effective.lower());
+        offer.setHasSalary(SalaryNormalizer.hasSalary(data.salaryMin(), data.salaryMax()));
         offer.setUrl(data.detailsUrl());
         offer.setApplyUrl(data.applyUrl() != null ? data.applyUrl() : data.detailsUrl());
         offer.setContracts(data.contracts());
         offer.setTechTags(data.techTags());
+        techTags.assign(offer);
         JobOfferMapper.applySkills(offer, data.techStack());
         offer.setPublishedAt(data.publishedAt() != null ? data.publishedAt() : Instant.now());
 
@@ -81,21 +105,189 @@ public class ExternalJobOfferIngestService {
             offer.setLastSeenAt(Instant.now());
         }
 
-        return offers.save(offer);
+        offer.setContentHash(fingerprint);
+
+        String previousHash = dedupe.assignHash(offer);
+        JobOffer saved = offers.save(offer);
+        dedupe.refreshGroups(previousHash, saved.getDedupeHash());
+        events.publishEvent(JobOffersChangedEvent.of(saved.getId()));
+        return saved;
+    }
+
+    @Transactional
+    public List<Long> ingestBatch(List<ExternalJobOfferUpsert> items) {
+        if (items == null || items.isEmpty()) return List.of();
+
+        Map<String, ExternalJobOfferUpsert> byKey = new LinkedHashMap<>();
+        for (ExternalJobOfferUpsert item : items) {
+            if (item == null || item.source() == null || item.externalId() == null || item.data() == null) continue;
+            byKey.put(item.source() + "|" + item.externalId(), item);
+        }
+        List<ExternalJobOfferUpsert> batch = new ArrayList<>(byKey.values());
+        if (batch.isEmpty()) return List.of();
+
+        Map<String, JobOfferBatchRepository.ExistingOffer> existing = batches.findExisting(
+                batch.stream().map(ExternalJobOfferUpsert::source).toList(),
+                batch.stream().map(ExternalJobOfferUpsert::externalId).toList()
+        );
+
+        Instant now = Instant.now();
+        List<Long> unchanged = new ArrayList<>();
+        List<ExternalJobOfferUpsert> changed = new ArrayList<>(batch.size());
+        List<String> fingerprints = new ArrayList<>(batch.size());
+        for (ExternalJobOfferUpsert item : batch) {
+            JobOfferBatchRepository.ExistingOffer current = existing.get(item.source() + "|" + item.externalId());
+            String fingerprint = fingerprint(item.data(), titleOf(item.data(), item.externalId()));
+            if (current != null && fingerprint.equals(current.contentHash()) && Boolean.TRUE.equals(current.active())) {
+                unchanged.add(current.id());
+                continue;
+            }
+            changed.add(item);
+            fingerprints.add(fingerprint);
+        }
+        batches.markSeen(unchanged, now);
+        if (changed.isEmpty()) {
+            log.debug("[ingest] batch unchanged={} received={}", unchanged.size(), items.size());
+            return List.of();
+        }
+
+        Map<String, Long> companyIds = companyCity.companyIds(names(changed, ExternalJobOfferData::companyName));
+        Map<String, Long> cityIds = companyCity.cityIds(names(changed, ExternalJobOfferData::cityName));
+
+        Set<String> hashes = new HashSet<>();
+        List<JobOfferBatchRepository.OfferRow> rows = new ArrayList<>(changed.size());
+        for (int i = 0; i < changed.size(); i++) {
+            ExternalJobOfferUpsert item = changed.get(i);
+            ExternalJobOfferData data = item.data();
+            JobOfferBatchRepository.ExistingOffer current = existing.get(item.source() + "|" + item.externalId());
+
+            String company = trimToNull(data.companyName());
+            String city = trimToNull(data.cityName());
+            String title = titleOf(data, item.externalId());
+            SalaryPeriod period = data.salaryPeriod() != null ? data.salaryPeriod() : SalaryPeriod.MONTH;
+            SalaryNormalizer.Normalized norm = SalaryNormalizer.normalizeToMonth(
+                    data.salaryMin(), data.salaryMax(), period
+            );
+            SalaryNormalizer.Effective effective = SalaryNormalizer.effective(norm, salary.plnRate(data.currency()));
+
+            Boolean active = data.active() != null ? data.active()
+                    : current != null ? current.active()
+                    : Boolean.TRUE;
+
+            String hash = JobOfferDedupeService.hashOf(
+                    company, title, data.salaryMin(), data.salaryMax(), data.currency(), data.remote(), city
+            );
+            hashes.add(hash);
+            if (current != null && current.dedupeHash() != null) hashes.add(current.dedupeHash());
+
+            rows.add(new JobOfferBatchRepository.OfferRow(
+                    item.source(),
+                    item.externalId(),
+                    data.detailsUrl(),
+                    data.applyUrl() != null ? data.applyUrl() : data.detailsUrl(),
+                    title,
+                    data.description(),
+                    company != null ? companyIds.get(company) : null,
+                    city != null ? cityIds.get(city) : null,
+                    data.remote(),
+                    data.level() != null ? data.level().name() : null,
+                    data.mainContract() != null ? data.mainContract().name() : null,
+                    data.salaryMin(),
+                    data.salaryMax(),
+                    data.currency(),
+                    period.name(),
+                    norm.monthMin(),
+                    norm.monthMax(),
+                    effective.upper(),
+                    effective.lower(),
+                    SalaryNormalizer.hasSalary(data.salaryMin(), data.salaryMax()),
+                    data.publishedAt() != null ? data.publishedAt() : now,
+                    Boolean.FALSE.equals(active) ? null : now,
+                    active,
+                    hash,
+                    fingerprints.get(i)
+            ));
+        }
+
+        List<Long> ids = batches.upsertOffers(rows);
+
+        Map<String, Integer> tagIds = techTags.resolveOrCreate(changed.stream()
+                .map(i -> i.data().techTags())
+                .filter(Objects::nonNull)
+                .flatMap(List::stream)
+                .toList());
+
+        Map<Long, Set<ContractType>> contracts = new LinkedHashMap<>();
+        Map<Long, List<String>> tags = new LinkedHashMap<>();
+        Map<Long, Set<Integer>> tagRefs = new LinkedHashMap<>();
+        Map<Long, List<JobOfferSkillDto>> skills = new LinkedHashMap<>();
+        for (int i = 0; i < changed.size(); i++) {
+            Long id = ids.get(i);
+            if (id == null) continue;
+            ExternalJobOfferData data = changed.get(i).data();
+
+            List<String> names = data.techTags() != null ? data.techTags() : List.of();
+            Set<Integer> refs = new TreeSet<>();
+            for (String name : names) {
+                Integer tagId = tagIds.get(TechTagService.fold(name));
+                if (tagId != null) refs.add(tagId);
+            }
+
+            contracts.put(id, data.contracts() != null ? data.contracts() : Set.of());
+            tags.put(id, names);
+            tagRefs.put(id, refs);
+            skills.put(id, data.techStack() != null ? data.techStack() : List.of());
+        }
+
+        batches.replaceContracts(contracts);
+        batches.replaceTags(tags);
+        batches.replaceTechTagRefs(tagRefs);
+        batches.replaceSkills(skills);
+
+        List<Long> written = ids.stream().filter(Objects::nonNull).toList();
+        dedupe.refreshGroups(hashes.toArray(String[]::new));
+        events.publishEvent(new JobOffersChangedEvent(written));
+        log.debug("[ingest] batch upserted={} unchanged={} received={}", written.size(), unchanged.size(), items.size());
+        return written;
+    }
+
+    private static List<String> names(List<ExternalJobOfferUpsert> batch, Function<ExternalJobOfferData, String> getter) {
+        return batch.stream()
+                .map(i -> getter.apply(i.data()))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private static String titleOf(ExternalJobOfferData data, String externalId) {
+        return (data.title() == null || data.title().isBlank()) ? externalId : data.title();
     }
 
-    private Company upsertCompany(String name) {
-        if (name == null || name.isBlank()) return null;
-        String n = name.trim();
-        companies.insertIgnore(n);
-        return companies.findFirstByNameIgnoreCaseOrderByIdAsc(n)
-                .orElseGet(() -> companies.save(Company.builder().name(n).build()));
+    private static String fingerprint(ExternalJobOfferData data, String title) {
+        return JobOfferFingerprint.of(
+                title,
+                data.description(),
+                trimToNull(data.companyName()),
+                trimToNull(data.cityName()),
+                data.remote(),
+                data.level(),
+                data.mainContract(),
+                data.contracts(),
+                data.salaryMin(),
+                data.salaryMax(),
+                data.currency(),
+                data.salaryPeriod() != null ? data.salaryPeriod() : SalaryPeriod.MONTH,
+                data.detailsUrl(),
+                data.applyUrl(),
+                data.techTags(),
+                data.techStack(),
+                data.active(),
+                data.publishedAt()
+        );
     }
 
-    private City upsertCity(String name) {
-        if (name == null || name.isBlank()) return null;
-        String n = name.trim();
-        return cities.findFirstByNameIgnoreCaseOrderByIdAsc(n)
-                .orElseGet(() -> cities.save(City.builder().name(n).build()));
+    private static String trimToNull(String s) {
+        if (s == null) return null;
+        String t = s.trim();
+        return t.isEmpty() ? null : t;
     }
 }
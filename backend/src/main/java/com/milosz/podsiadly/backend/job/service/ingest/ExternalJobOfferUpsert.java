@@ -0,0 +1,9 @@
+package com.milosz.podsiadly.backend.job.service.ingest;
+
+import com.milosz.podsiadly.backend.job.domain.JobSource;
+
+public record ExternalJobOfferUpsert(
+        JobSource source,
+        String externalId,
+        ExternalJobOfferData data
+) {}
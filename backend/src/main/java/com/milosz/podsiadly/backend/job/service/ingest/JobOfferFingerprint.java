@@ -0,0 +1,47 @@
+package com.milosz.podsiadly.backend.job.service.ingest;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Stable md5 over the scraped content of an offer. Collections are hashed order-insensitively.
+ * Callers pass publishedAt exactly as the source supplied it, before filling a missing one with
+ * "now", so a re-post is a change but a source without dates does not change on every re-fetch.
+ */
+public final class JobOfferFingerprint {
+
+    private static final char SEP = '\u001F';
+    private static final String NULL = "\u0000";
+
+    private JobOfferFingerprint() {}
+
+    public static String of(Object... parts) {
+        StringBuilder sb = new StringBuilder(512);
+        for (Object part : parts) {
+            append(sb, part);
+            sb.append(SEP);
+        }
+        return DigestUtils.md5DigestAsHex(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void append(StringBuilder sb, Object part) {
+        if (part == null) {
+            sb.append(NULL);
+        } else if (part instanceof Collection<?> c) {
+            sb.append('[');
+            c.stream().map(JobOfferFingerprint::token).sorted().forEach(t -> sb.append(t).append(','));
+            sb.append(']');
+        } else {
+            sb.append(token(part));
+        }
+    }
+
+    private static String token(Object v) {
+        if (v == null) return NULL;
+        if (v instanceof Enum<?> e) return e.name();
+        return Objects.toString(v);
+    }
+}
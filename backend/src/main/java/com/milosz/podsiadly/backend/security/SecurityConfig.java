@@ -63,6 +63,8 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.GET, "/api/jobs/fast").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/jobs/count").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/jobs/all").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/jobs/export").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/jobs/facets").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/jobs/by-external/*").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/jobs/*").permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/jobs/**").authenticated()
@@ -73,7 +75,7 @@ public class SecurityConfig {
                         .requestMatchers("/api/job-drafts/**").authenticated()
                         .requestMatchers("/api/profile", "/api/profile/**").authenticated()
                         .requestMatchers("/api/favorites/**").authenticated()
-                        .requestMatchers(HttpMethod.POST, "/api/ingest/url", "/api/ingest/sitemap").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/api/ingest/url", "/api/ingest/sitemap", "/api/ingest/seen").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
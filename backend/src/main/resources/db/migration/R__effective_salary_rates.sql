@@ -0,0 +1,36 @@
+-- effective_salary_upper/lower for every offer, with the same rule as SalaryNormalizer.effective:
+-- the normalized monthly bounds times the PLN rate of the offer's currency, rounded half up and
+-- dropped outside (0, 100000000]. No currency counts as PLN at 1.00; an unknown one gets no bounds.
+-- The rates are the jobs.salary.pln-rates values, passed in as salary_pln_per_* placeholders.
+-- Flyway re-runs a repeatable migration whenever its placeholder values change, so a new rate
+-- reaches existing offers on the next startup, and only rows whose bounds change are written.
+-- A currency added to jobs.salary.pln-rates needs a row (and a placeholder) here as well.
+
+WITH fx(currency, rate) AS (
+    VALUES ('',    1.00),
+           ('PLN', ${salary_pln_per_pln}),
+           ('EUR', ${salary_pln_per_eur}),
+           ('USD', ${salary_pln_per_usd}),
+           ('GBP', ${salary_pln_per_gbp}),
+           ('CHF', ${salary_pln_per_chf})
+),
+src AS (
+    SELECT o.id,
+           round(coalesce(o.salary_norm_month_max, o.salary_norm_month_min) * fx.rate) AS upper_pln,
+           round(coalesce(o.salary_norm_month_min, o.salary_norm_month_max) * fx.rate) AS lower_pln
+      FROM job_offer o
+      LEFT JOIN fx ON fx.currency = upper(btrim(coalesce(o.currency, '')))
+),
+calc AS (
+    SELECT id,
+           CASE WHEN upper_pln BETWEEN 1 AND 100000000 THEN upper_pln::integer END AS upper_pln,
+           CASE WHEN lower_pln BETWEEN 1 AND 100000000 THEN lower_pln::integer END AS lower_pln
+      FROM src
+)
+UPDATE job_offer o
+   SET effective_salary_upper = calc.upper_pln,
+       effective_salary_lower = calc.lower_pln
+  FROM calc
+ WHERE o.id = calc.id
+   AND (o.effective_salary_upper IS DISTINCT FROM calc.upper_pln
+        OR o.effective_salary_lower IS DISTINCT FROM calc.lower_pln);
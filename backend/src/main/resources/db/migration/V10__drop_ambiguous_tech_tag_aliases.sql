@@ -0,0 +1,45 @@
+-- TechTagService used to alias Spring Boot to Spring, ASP.NET to .NET, AngularJS to Angular, Next to
+-- Next.js and ML to Machine Learning, which merged different or more specific technologies and
+-- widened tech filters. Drop those aliases, give each spelling its own tag and relink the offers
+-- that carry one of them from their source tags in job_offer_tags.
+
+CREATE TEMPORARY TABLE dropped_alias (alias varchar(128) PRIMARY KEY) ON COMMIT DROP;
+INSERT INTO dropped_alias(alias)
+VALUES ('spring boot'), ('springboot'), ('asp.net'), ('asp.net core'), ('angularjs'), ('angular.js'),
+       ('next'), ('ml');
+
+DELETE FROM tech_tag_alias a
+ USING dropped_alias d, tech_tag t
+ WHERE a.alias = d.alias
+   AND t.id = a.tag_id
+   AND t.slug <> a.alias;
+
+INSERT INTO tech_tag(name, slug)
+SELECT DISTINCT ON (s.slug) s.name, s.slug
+  FROM (SELECT btrim(t.tag) AS name, lower(regexp_replace(btrim(t.tag), '\s+', ' ', 'g')) AS slug
+          FROM job_offer_tags t) s
+  JOIN dropped_alias d ON d.alias = s.slug
+ ORDER BY s.slug, s.name
+ON CONFLICT (slug) DO NOTHING;
+
+INSERT INTO tech_tag_alias(alias, tag_id)
+SELECT t.slug, t.id
+  FROM tech_tag t
+  JOIN dropped_alias d ON d.alias = t.slug
+ON CONFLICT (alias) DO NOTHING;
+
+CREATE TEMPORARY TABLE relinked_offer ON COMMIT DROP AS
+SELECT DISTINCT t.job_offer_id
+  FROM job_offer_tags t
+  JOIN dropped_alias d ON d.alias = lower(regexp_replace(btrim(t.tag), '\s+', ' ', 'g'));
+
+DELETE FROM job_offer_tech_tag x
+ USING relinked_offer r
+ WHERE x.job_offer_id = r.job_offer_id;
+
+INSERT INTO job_offer_tech_tag(job_offer_id, tag_id)
+SELECT DISTINCT t.job_offer_id, a.tag_id
+  FROM job_offer_tags t
+  JOIN relinked_offer r ON r.job_offer_id = t.job_offer_id
+  JOIN tech_tag_alias a ON a.alias = lower(regexp_replace(btrim(t.tag), '\s+', ' ', 'g'))
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,336 @@
+-- Schema as Hibernate's ddl-auto=update used to build it, plus the tables and columns the
+-- entities gained since. Databases created by ddl-auto are baselined at version 0
+-- (spring.flyway.baseline-on-migrate) and still run this script, so every statement is
+-- IF NOT EXISTS: existing objects are kept and only the missing ones are added.
+
+-- users & auth ------------------------------------------------------------------------------
+
+CREATE TABLE IF NOT EXISTS users (
+    id             varchar(255) NOT NULL PRIMARY KEY,
+    email          varchar(254) NOT NULL,
+    password       varchar(255) NOT NULL,
+    email_verified boolean      NOT NULL,
+    enabled        boolean      NOT NULL,
+    CONSTRAINT ux_users_email UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS roles (
+    id   bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name varchar(50) NOT NULL,
+    CONSTRAINT ux_roles_name UNIQUE (name)
+);
+
+CREATE TABLE IF NOT EXISTS users_roles (
+    user_id varchar(255) NOT NULL REFERENCES users (id),
+    role_id bigint       NOT NULL REFERENCES roles (id),
+    PRIMARY KEY (user_id, role_id)
+);
+
+CREATE TABLE IF NOT EXISTS email_verification_tokens (
+    id         bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    token      varchar(128) NOT NULL,
+    user_id    varchar(255) NOT NULL REFERENCES users (id),
+    expires_at timestamp(6) NOT NULL,
+    used       boolean      NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    CONSTRAINT ux_email_verification_tokens_token UNIQUE (token)
+);
+CREATE INDEX IF NOT EXISTS ix_email_verification_tokens_user ON email_verification_tokens (user_id);
+
+CREATE TABLE IF NOT EXISTS password_reset_tokens (
+    id         bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    token      varchar(128) NOT NULL,
+    user_id    varchar(255) NOT NULL REFERENCES users (id),
+    expires_at timestamp(6) NOT NULL,
+    used       boolean      NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    CONSTRAINT ux_password_reset_tokens_token UNIQUE (token)
+);
+CREATE INDEX IF NOT EXISTS ix_password_reset_tokens_user ON password_reset_tokens (user_id);
+
+CREATE TABLE IF NOT EXISTS mail_send_log (
+    id         bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    message_id varchar(128) NOT NULL,
+    event_type varchar(32)  NOT NULL,
+    status     varchar(32)  NOT NULL,
+    attempts   integer      NOT NULL,
+    last_error varchar(256),
+    created_at timestamp(6) NOT NULL,
+    updated_at timestamp(6) NOT NULL,
+    CONSTRAINT ux_mail_send_log_message_id UNIQUE (message_id)
+);
+CREATE INDEX IF NOT EXISTS ix_mail_send_log_status ON mail_send_log (status);
+
+CREATE TABLE IF NOT EXISTS profiles (
+    user_id        varchar(255) NOT NULL PRIMARY KEY REFERENCES users (id),
+    name           varchar(255),
+    email          varchar(255),
+    about          varchar(2000),
+    dob            date,
+    avatar_url     varchar(255),
+    avatar_preset  varchar(255),
+    avatar_file_id varchar(255),
+    cv_file_id     varchar(255),
+    created_at     timestamp(6) with time zone,
+    updated_at     timestamp(6) with time zone
+);
+
+CREATE TABLE IF NOT EXISTS file_object (
+    id           varchar(255) NOT NULL PRIMARY KEY,
+    user_id      varchar(255) NOT NULL,
+    filename     varchar(255) NOT NULL,
+    content_type varchar(255),
+    size         bigint       NOT NULL,
+    data         oid          NOT NULL
+);
+
+-- offers ------------------------------------------------------------------------------------
+
+CREATE SEQUENCE IF NOT EXISTS job_offer_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS job_offer_skill_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS job_offer_history_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS company (
+    id   bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name varchar(255) NOT NULL,
+    CONSTRAINT ux_company_name UNIQUE (name)
+);
+
+CREATE TABLE IF NOT EXISTS city (
+    id           bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name         varchar(255) NOT NULL,
+    country_code varchar(255)
+);
+
+CREATE TABLE IF NOT EXISTS tech_tag (
+    id   integer GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name varchar(128) NOT NULL,
+    slug varchar(128) NOT NULL,
+    CONSTRAINT ux_tech_tag_slug UNIQUE (slug)
+);
+
+CREATE TABLE IF NOT EXISTS tech_tag_alias (
+    alias  varchar(128) NOT NULL PRIMARY KEY,
+    tag_id integer      NOT NULL REFERENCES tech_tag (id)
+);
+CREATE INDEX IF NOT EXISTS ix_tech_tag_alias_tag ON tech_tag_alias (tag_id);
+
+CREATE TABLE IF NOT EXISTS job_offer (
+    id                    bigint       NOT NULL DEFAULT nextval('job_offer_seq') PRIMARY KEY,
+    source                varchar(32)  NOT NULL,
+    external_id           varchar(255) NOT NULL,
+    url                   text         NOT NULL,
+    apply_url             text,
+    title                 varchar(255) NOT NULL,
+    description           text,
+    company_id            bigint REFERENCES company (id),
+    city_id               bigint REFERENCES city (id),
+    remote                boolean,
+    level                 varchar(255),
+    contract              varchar(255),
+    salary_min            integer,
+    salary_max            integer,
+    currency              varchar(255),
+    salary_period         varchar(16),
+    salary_norm_month_min integer,
+    salary_norm_month_max integer,
+    published_at          timestamp(6) with time zone,
+    last_seen_at          timestamp(6) with time zone,
+    active                boolean,
+    dedupe_hash           varchar(32),
+    content_hash          varchar(32),
+    canonical             boolean,
+    search_vector         tsvector,
+    CONSTRAINT ux_job_offer_source_external UNIQUE (source, external_id)
+);
+ALTER SEQUENCE job_offer_seq OWNED BY job_offer.id;
+
+-- columns added after the ddl-auto schema; a no-op when the table was created above
+ALTER TABLE job_offer
+    ADD COLUMN IF NOT EXISTS dedupe_hash   varchar(32),
+    ADD COLUMN IF NOT EXISTS content_hash  varchar(32),
+    ADD COLUMN IF NOT EXISTS canonical     boolean,
+    ADD COLUMN IF NOT EXISTS search_vector tsvector;
+
+CREATE INDEX IF NOT EXISTS ix_job_offer_active_published ON job_offer (active, published_at);
+CREATE INDEX IF NOT EXISTS ix_job_offer_active_last_seen ON job_offer (active, last_seen_at);
+CREATE INDEX IF NOT EXISTS ix_job_offer_active_city ON job_offer (active, city_id);
+CREATE INDEX IF NOT EXISTS ix_job_offer_active_level ON job_offer (active, level);
+CREATE INDEX IF NOT EXISTS ix_job_offer_active_remote ON job_offer (active, remote);
+CREATE INDEX IF NOT EXISTS ix_job_offer_salary_max ON job_offer (salary_max);
+CREATE INDEX IF NOT EXISTS ix_job_offer_salary_min ON job_offer (salary_min);
+CREATE INDEX IF NOT EXISTS ix_job_offer_salary_norm_max ON job_offer (salary_norm_month_max);
+CREATE INDEX IF NOT EXISTS ix_job_offer_dedupe_hash ON job_offer (dedupe_hash);
+
+CREATE TABLE IF NOT EXISTS job_offer_contract (
+    job_offer_id bigint      NOT NULL REFERENCES job_offer (id),
+    contract     varchar(16) NOT NULL,
+    PRIMARY KEY (job_offer_id, contract)
+);
+
+CREATE TABLE IF NOT EXISTS job_offer_tags (
+    job_offer_id bigint NOT NULL REFERENCES job_offer (id),
+    tag          varchar(128)
+);
+
+CREATE TABLE IF NOT EXISTS job_offer_tech_tag (
+    job_offer_id bigint  NOT NULL REFERENCES job_offer (id),
+    tag_id       integer NOT NULL REFERENCES tech_tag (id),
+    PRIMARY KEY (job_offer_id, tag_id)
+);
+CREATE INDEX IF NOT EXISTS ix_job_offer_tech_tag_tag_offer ON job_offer_tech_tag (tag_id, job_offer_id);
+
+CREATE TABLE IF NOT EXISTS job_offer_skill (
+    id           bigint       NOT NULL DEFAULT nextval('job_offer_skill_seq') PRIMARY KEY,
+    job_offer_id bigint       NOT NULL REFERENCES job_offer (id),
+    name         varchar(255) NOT NULL,
+    level_label  varchar(255),
+    level_value  integer,
+    source       varchar(255) NOT NULL
+);
+ALTER SEQUENCE job_offer_skill_seq OWNED BY job_offer_skill.id;
+
+CREATE TABLE IF NOT EXISTS job_offer_owner (
+    id           bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    job_offer_id bigint       NOT NULL REFERENCES job_offer (id),
+    user_id      varchar(255) NOT NULL REFERENCES users (id),
+    created_at   timestamp(6) with time zone NOT NULL,
+    CONSTRAINT ux_job_offer_owner_offer UNIQUE (job_offer_id)
+);
+
+CREATE TABLE IF NOT EXISTS job_offer_history (
+    id             bigint       NOT NULL DEFAULT nextval('job_offer_history_seq') PRIMARY KEY,
+    source         varchar(255) NOT NULL,
+    external_id    varchar(255) NOT NULL,
+    url            text         NOT NULL,
+    title          varchar(255) NOT NULL,
+    company_name   varchar(255),
+    city_name      varchar(255),
+    remote         boolean,
+    level          varchar(255),
+    contract       varchar(255),
+    salary_min     integer,
+    salary_max     integer,
+    currency       varchar(255),
+    published_at   timestamp(6) with time zone,
+    reason         varchar(255),
+    archived_at    timestamp(6) with time zone,
+    deactivated_at timestamp(6) with time zone,
+    snapshot_json  text
+);
+ALTER SEQUENCE job_offer_history_seq OWNED BY job_offer_history.id;
+
+CREATE TABLE IF NOT EXISTS job_offer_history_contracts (
+    history_id bigint       NOT NULL REFERENCES job_offer_history (id),
+    contract   varchar(255) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS job_draft (
+    id           bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    owner_id     varchar(255) NOT NULL REFERENCES users (id),
+    title        varchar(255),
+    company_name varchar(255),
+    city_name    varchar(255),
+    payload_json text         NOT NULL,
+    created_at   timestamp(6) with time zone,
+    updated_at   timestamp(6) with time zone,
+    published    boolean
+);
+CREATE INDEX IF NOT EXISTS ix_job_draft_owner_updated ON job_draft (owner_id, updated_at DESC);
+
+CREATE TABLE IF NOT EXISTS job_application (
+    id                       bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    offer_id                 bigint REFERENCES job_offer (id),
+    applicant_id             varchar(255) NOT NULL REFERENCES users (id),
+    cv_file_id               varchar(255),
+    note                     text,
+    apply_url                varchar(255),
+    offer_title_snapshot     varchar(255),
+    offer_company_snapshot   varchar(255),
+    offer_city_snapshot      varchar(255),
+    offer_apply_url_snapshot text,
+    offer_owner_id_snapshot  varchar(255),
+    status                   varchar(255),
+    created_at               timestamp(6) with time zone NOT NULL,
+    CONSTRAINT ux_job_application_applicant_offer UNIQUE (applicant_id, offer_id)
+);
+CREATE INDEX IF NOT EXISTS ix_application_applicant_created ON job_application (applicant_id, created_at DESC);
+CREATE INDEX IF NOT EXISTS ix_application_offer_created ON job_application (offer_id, created_at DESC);
+CREATE INDEX IF NOT EXISTS ix_application_owner_snapshot_created ON job_application (offer_owner_id_snapshot, created_at DESC);
+
+CREATE TABLE IF NOT EXISTS favorites (
+    id         bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id    varchar(64) NOT NULL,
+    type       varchar(16) NOT NULL,
+    target_id  bigint      NOT NULL,
+    created_at timestamp(6) with time zone NOT NULL,
+    CONSTRAINT ux_fav_user_type_target UNIQUE (user_id, type, target_id)
+);
+CREATE INDEX IF NOT EXISTS ix_fav_type_target ON favorites (type, target_id);
+CREATE INDEX IF NOT EXISTS ix_fav_user_type_created ON favorites (user_id, type, created_at);
+
+-- events ------------------------------------------------------------------------------------
+
+CREATE SEQUENCE IF NOT EXISTS dev_event_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS dev_event (
+    id            bigint      NOT NULL DEFAULT nextval('dev_event_seq') PRIMARY KEY,
+    source        varchar(40) NOT NULL,
+    external_id   text        NOT NULL,
+    url           text        NOT NULL,
+    title         text        NOT NULL,
+    description   text,
+    country       text,
+    region        text,
+    city          text,
+    timezone      varchar(100),
+    online        boolean,
+    type          varchar(255),
+    start_at      timestamp(6) with time zone,
+    end_at        timestamp(6) with time zone,
+    status        text,
+    venue         text,
+    latitude      double precision,
+    longitude     double precision,
+    first_seen_at timestamp(6) with time zone,
+    last_seen_at  timestamp(6) with time zone,
+    raw           text,
+    fingerprint   varchar(64),
+    CONSTRAINT ux_source_external UNIQUE (source, external_id)
+);
+ALTER SEQUENCE dev_event_seq OWNED BY dev_event.id;
+
+CREATE INDEX IF NOT EXISTS ix_start ON dev_event (start_at);
+CREATE INDEX IF NOT EXISTS ix_country_city ON dev_event (country, city);
+CREATE INDEX IF NOT EXISTS ix_country_city_start ON dev_event (country, city, start_at);
+CREATE INDEX IF NOT EXISTS ix_fingerprint ON dev_event (fingerprint);
+
+CREATE TABLE IF NOT EXISTS dev_event_tags (
+    event_id bigint NOT NULL REFERENCES dev_event (id),
+    tag      varchar(128)
+);
+
+-- ingest ------------------------------------------------------------------------------------
+
+CREATE TABLE IF NOT EXISTS http_validator (
+    url           varchar(2048) NOT NULL PRIMARY KEY,
+    etag          varchar(512),
+    last_modified varchar(128),
+    content_hash  varchar(32),
+    checked_at    timestamp(6) with time zone NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS sitemap_url_state (
+    url         varchar(2048) NOT NULL PRIMARY KEY,
+    source      varchar(32)   NOT NULL,
+    lastmod     timestamp(6) with time zone,
+    enqueued_at timestamp(6) with time zone,
+    seen_at     timestamp(6) with time zone NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS sitemap_walk_progress (
+    sitemap_url  varchar(2048) NOT NULL PRIMARY KEY,
+    walk_key     varchar(2048) NOT NULL,
+    completed_at timestamp(6) with time zone NOT NULL
+);
+CREATE INDEX IF NOT EXISTS ix_sitemap_walk_progress_walk ON sitemap_walk_progress (walk_key);
@@ -0,0 +1,21 @@
+-- Databases baselined from ddl-auto still have IDENTITY ids on the tables that moved to pooled
+-- sequences. Drop the identity, default the column to the sequence (native inserts rely on it)
+-- and move the sequence past the current max id. A no-op on schemas created by V1.
+
+CREATE OR REPLACE FUNCTION pg_temp.use_pooled_sequence(tbl text, seq text) RETURNS void
+LANGUAGE plpgsql AS $$
+BEGIN
+    EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I INCREMENT BY 50', seq);
+    EXECUTE format('ALTER SEQUENCE %I INCREMENT BY 50', seq);
+    EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP IDENTITY IF EXISTS', tbl);
+    EXECUTE format('ALTER TABLE %I ALTER COLUMN id SET DEFAULT nextval(%L)', tbl, seq);
+    EXECUTE format('ALTER SEQUENCE %I OWNED BY %I.id', seq, tbl);
+    EXECUTE format('SELECT setval(%L, greatest((SELECT coalesce(max(id), 1) FROM %I), (SELECT last_value FROM %I)))',
+                   seq, tbl, seq);
+END
+$$;
+
+SELECT pg_temp.use_pooled_sequence('job_offer', 'job_offer_seq');
+SELECT pg_temp.use_pooled_sequence('job_offer_skill', 'job_offer_skill_seq');
+SELECT pg_temp.use_pooled_sequence('job_offer_history', 'job_offer_history_seq');
+SELECT pg_temp.use_pooled_sequence('dev_event', 'dev_event_seq');
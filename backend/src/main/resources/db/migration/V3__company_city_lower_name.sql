@@ -0,0 +1,21 @@
+-- Company/city resolution upserts with ON CONFLICT ((lower(name))). Rows that differ only by
+-- case are merged into the lowest id before the unique indexes go in.
+
+UPDATE job_offer o SET company_id = d.keep
+  FROM (SELECT id, min(id) OVER (PARTITION BY lower(name)) AS keep FROM company) d
+ WHERE o.company_id = d.id AND d.id <> d.keep;
+
+DELETE FROM company t
+ USING (SELECT id, min(id) OVER (PARTITION BY lower(name)) AS keep FROM company) d
+ WHERE t.id = d.id AND d.id <> d.keep;
+
+UPDATE job_offer o SET city_id = d.keep
+  FROM (SELECT id, min(id) OVER (PARTITION BY lower(name)) AS keep FROM city) d
+ WHERE o.city_id = d.id AND d.id <> d.keep;
+
+DELETE FROM city t
+ USING (SELECT id, min(id) OVER (PARTITION BY lower(name)) AS keep FROM city) d
+ WHERE t.id = d.id AND d.id <> d.keep;
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_company_name_lower ON company (lower(name));
+CREATE UNIQUE INDEX IF NOT EXISTS ux_city_name_lower ON city (lower(name));
@@ -0,0 +1,34 @@
+-- Indexes ddl-auto could not express: GIN for full-text and trigram title search, BRIN on the
+-- (insert-ordered) publication time, and the foreign-key indexes Hibernate never creates on
+-- Postgres. Built CONCURRENTLY so large offer tables stay writable, hence no transaction.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE job_offer ADD COLUMN IF NOT EXISTS search_vector tsvector;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_job_offer_search_vector
+    ON job_offer USING gin (search_vector);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_job_offer_title_trgm
+    ON job_offer USING gin (lower(title) gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_job_offer_published_brin
+    ON job_offer USING brin (published_at);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_job_offer_company
+    ON job_offer (company_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_job_offer_skill_offer
+    ON job_offer_skill (job_offer_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_job_offer_tags_offer
+    ON job_offer_tags (job_offer_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_job_offer_owner_user
+    ON job_offer_owner (user_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_job_offer_history_contracts_history
+    ON job_offer_history_contracts (history_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_dev_event_tags_event
+    ON dev_event_tags (event_id);
@@ -0,0 +1,40 @@
+-- Offer search always filters active, non-duplicate offers and pages by (published_at, id) or by
+-- the coalesced salary bounds. Partial indexes over exactly that predicate replace the
+-- (active, x) pairs, which indexed every archived offer too. City names are matched through
+-- ux_city_name_lower (V3).
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_job_offer_active_listing
+    ON job_offer (published_at DESC, id DESC)
+    INCLUDE (city_id, level, remote)
+    WHERE active AND (canonical IS NULL OR canonical);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_job_offer_active_level_listing
+    ON job_offer (level, published_at DESC, id DESC)
+    WHERE active AND (canonical IS NULL OR canonical);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_job_offer_active_city_listing
+    ON job_offer (city_id, published_at DESC, id DESC)
+    WHERE active AND (canonical IS NULL OR canonical);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_job_offer_active_salary_listing
+    ON job_offer ((coalesce(salary_max, salary_min, salary_norm_month_max, salary_norm_month_min)) DESC NULLS LAST,
+                  (coalesce(salary_min, salary_max, salary_norm_month_min, salary_norm_month_max)) DESC NULLS LAST,
+                  published_at DESC, id DESC)
+    WHERE active AND (canonical IS NULL OR canonical);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_job_offer_active_salary_lower
+    ON job_offer ((coalesce(salary_min, salary_max, salary_norm_month_min, salary_norm_month_max)))
+    WHERE active AND (canonical IS NULL OR canonical);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_job_offer_active_source_last_seen
+    ON job_offer (source, last_seen_at)
+    WHERE active;
+
+DROP INDEX CONCURRENTLY IF EXISTS ix_job_offer_active_published;
+DROP INDEX CONCURRENTLY IF EXISTS ix_job_offer_active_last_seen;
+DROP INDEX CONCURRENTLY IF EXISTS ix_job_offer_active_city;
+DROP INDEX CONCURRENTLY IF EXISTS ix_job_offer_active_level;
+DROP INDEX CONCURRENTLY IF EXISTS ix_job_offer_active_remote;
+DROP INDEX CONCURRENTLY IF EXISTS ix_job_offer_salary_max;
+DROP INDEX CONCURRENTLY IF EXISTS ix_job_offer_salary_min;
+DROP INDEX CONCURRENTLY IF EXISTS ix_job_offer_salary_norm_max;
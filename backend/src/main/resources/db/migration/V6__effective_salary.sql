@@ -0,0 +1,11 @@
+-- Monthly PLN salary bounds precomputed at ingest (SalaryNormalizer + jobs.salary.pln-rates), so
+-- salary filters and sorting read plain columns. The bounds of existing rows depend on the
+-- configured rates and are filled by R__effective_salary_rates, which re-runs when they change.
+-- has_salary means the offer states a salary, so it is also set for one that does not convert.
+
+ALTER TABLE job_offer
+    ADD COLUMN IF NOT EXISTS effective_salary_upper integer,
+    ADD COLUMN IF NOT EXISTS effective_salary_lower integer,
+    ADD COLUMN IF NOT EXISTS has_salary boolean NOT NULL DEFAULT false;
+
+UPDATE job_offer SET has_salary = true WHERE salary_min IS NOT NULL OR salary_max IS NOT NULL;
@@ -0,0 +1,14 @@
+-- Salary sort and range filters now read effective_salary_*; these replace the COALESCE
+-- expression indexes from V5.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_job_offer_active_effective_salary_listing
+    ON job_offer (effective_salary_upper DESC NULLS LAST, effective_salary_lower DESC NULLS LAST,
+                  published_at DESC, id DESC)
+    WHERE active AND (canonical IS NULL OR canonical);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_job_offer_active_effective_salary_lower
+    ON job_offer (effective_salary_lower)
+    WHERE active AND (canonical IS NULL OR canonical);
+
+DROP INDEX CONCURRENTLY IF EXISTS ix_job_offer_active_salary_listing;
+DROP INDEX CONCURRENTLY IF EXISTS ix_job_offer_active_salary_lower;
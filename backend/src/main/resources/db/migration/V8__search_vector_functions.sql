@@ -0,0 +1,73 @@
+-- Search-vector trigger and the full-text helpers used by the FULL_TEXT search mode. The text
+-- search configs come from the fts_primary_config / fts_secondary_config placeholders
+-- (spring.flyway.placeholders); one that is not installed falls back to 'simple'. Without
+-- pg_trgm the fuzzy title match is a constant false. Changing a config later needs a new
+-- migration that re-creates job_offer_search_vector_refresh and job_offer_fts_query.
+
+DO $migration$
+DECLARE
+    primary_cfg   text := coalesce(
+            (SELECT cfgname::text FROM pg_ts_config WHERE cfgname = '${fts_primary_config}'), 'simple');
+    secondary_cfg text := coalesce(
+            (SELECT cfgname::text FROM pg_ts_config WHERE cfgname = '${fts_secondary_config}'), 'simple');
+BEGIN
+    EXECUTE format($sql$
+        CREATE OR REPLACE FUNCTION job_offer_search_vector_refresh() RETURNS trigger
+        LANGUAGE plpgsql AS $fn$
+        DECLARE
+            company_name text;
+            body text := left(coalesce(NEW.description, ''), 200000);
+        BEGIN
+            SELECT c.name INTO company_name FROM company c WHERE c.id = NEW.company_id;
+            NEW.search_vector :=
+                   setweight(to_tsvector(%1$L::regconfig, coalesce(NEW.title, '')), 'A')
+                || setweight(to_tsvector(%2$L::regconfig, coalesce(NEW.title, '')), 'A')
+                || setweight(to_tsvector('simple'::regconfig, coalesce(company_name, '')), 'B')
+                || setweight(to_tsvector(%1$L::regconfig, body), 'C')
+                || setweight(to_tsvector(%2$L::regconfig, body), 'C');
+            RETURN NEW;
+        END
+        $fn$
+        $sql$, primary_cfg, secondary_cfg);
+
+    EXECUTE format($sql$
+        CREATE OR REPLACE FUNCTION job_offer_fts_query(q text) RETURNS tsquery
+        LANGUAGE sql IMMUTABLE AS $fn$
+            SELECT websearch_to_tsquery(%1$L::regconfig, q) || websearch_to_tsquery(%2$L::regconfig, q)
+        $fn$
+        $sql$, primary_cfg, secondary_cfg);
+
+    IF EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm') THEN
+        EXECUTE $sql$
+            CREATE OR REPLACE FUNCTION job_offer_title_fuzzy(title text, q text) RETURNS boolean
+            LANGUAGE sql STABLE AS $fn$
+                SELECT lower(q) <% lower(title)
+            $fn$
+            $sql$;
+    ELSE
+        RAISE NOTICE 'pg_trgm not installed, fuzzy title matching disabled';
+        EXECUTE $sql$
+            CREATE OR REPLACE FUNCTION job_offer_title_fuzzy(title text, q text) RETURNS boolean
+            LANGUAGE sql IMMUTABLE AS $fn$
+                SELECT false
+            $fn$
+            $sql$;
+    END IF;
+END
+$migration$;
+
+CREATE OR REPLACE FUNCTION job_offer_fts_match(v tsvector, q text) RETURNS boolean
+LANGUAGE sql IMMUTABLE AS $$
+    SELECT v @@ job_offer_fts_query(q)
+$$;
+
+CREATE OR REPLACE FUNCTION job_offer_fts_rank(v tsvector, q text) RETURNS real
+LANGUAGE sql IMMUTABLE AS $$
+    SELECT ts_rank(v, job_offer_fts_query(q))
+$$;
+
+DROP TRIGGER IF EXISTS trg_job_offer_search_vector ON job_offer;
+
+CREATE TRIGGER trg_job_offer_search_vector
+BEFORE INSERT OR UPDATE OF title, description, company_id ON job_offer
+FOR EACH ROW EXECUTE FUNCTION job_offer_search_vector_refresh();
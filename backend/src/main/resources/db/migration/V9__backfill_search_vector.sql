@@ -0,0 +1,4 @@
+-- One-off fill of search_vector for offers written before the V8 trigger existed. The no-op
+-- update fires the trigger; from here on it keeps the column current.
+
+UPDATE job_offer SET title = title WHERE search_vector IS NULL;
@@ -0,0 +1,168 @@
+package com.milosz.podsiadly.backend.job.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs hand-written SQL shaped like the queries of the offer search specifications (same visibility
+ * predicate, filters and orderings, see JobOfferSpecifications) under EXPLAIN ANALYZE on a seeded
+ * table (mostly archived offers, a few duplicates) and checks the partial indexes serve it. The SQL
+ * has to be kept in step with the specifications by hand. Plans are logged so regressions can be
+ * compared.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class JobOfferSearchIndexTests {
+
+    private static final Logger log = LoggerFactory.getLogger(JobOfferSearchIndexTests.class);
+
+    private static final int OFFERS = 100_000;
+
+    private static final String VISIBLE = "o.active and (o.canonical is null or o.canonical)";
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static boolean seeded;
+
+    @Autowired
+    JdbcTemplate jdbc;
+
+    @BeforeEach
+    void seed() {
+        if (seeded) return;
+        jdbc.update("""
+            INSERT INTO city (name, country_code)
+            SELECT unnest(ARRAY['Warszawa', 'Kraków', 'Wrocław', 'Gdańsk', 'Poznań',
+                                'Łódź', 'Katowice', 'Lublin', 'Szczecin', 'Rzeszów']), 'PL'
+            """);
+        jdbc.update("INSERT INTO company (name) SELECT 'Company ' || g FROM generate_series(1, 2000) g");
+        jdbc.update("""
+            INSERT INTO job_offer (source, external_id, url, title, company_id, city_id, remote, level, contract,
+                                   salary_min, salary_max, currency, effective_salary_lower, effective_salary_upper,
+                                   has_salary, published_at, last_seen_at, active, canonical)
+            SELECT 'JUSTJOIN', 'ext-' || g, 'https://example.com/offers/' || g, 'Offer ' || g,
+                   (SELECT min(id) FROM company) + g % 2000,
+                   (SELECT min(id) FROM city) + g % 10,
+                   g % 3 = 0,
+                   (ARRAY['INTERNSHIP', 'JUNIOR', 'MID', 'SENIOR', 'LEAD'])[1 + g % 5],
+                   'B2B',
+                   CASE WHEN g % 10 < 7 THEN 8000 + (g * 37) % 20000 END,
+                   CASE WHEN g % 10 < 7 THEN 8000 + (g * 37) % 20000 + (g * 13) % 10000 END,
+                   CASE WHEN g % 10 < 7 THEN 'PLN' END,
+                   CASE WHEN g % 10 < 7 THEN 8000 + (g * 37) % 20000 END,
+                   CASE WHEN g % 10 < 7 THEN 8000 + (g * 37) % 20000 + (g * 13) % 10000 END,
+                   g % 10 < 7,
+                   now() - (? - g) * interval '1 minute',
+                   now() - (? - g) * interval '10 seconds',
+                   g > ? * 0.8 OR g % 7 = 0,
+                   CASE WHEN g % 25 = 0 THEN false WHEN g % 2 = 0 THEN true END
+              FROM generate_series(1, ?) g
+            """, OFFERS, OFFERS, OFFERS, OFFERS);
+        jdbc.execute("ANALYZE city");
+        jdbc.execute("ANALYZE company");
+        jdbc.execute("ANALYZE job_offer");
+        seeded = true;
+    }
+
+    @Test
+    void listingPageReadsTheListingIndexInOrder() {
+        String plan = explain("""
+            SELECT o.id FROM job_offer o
+             WHERE %s
+             ORDER BY o.published_at DESC, o.id DESC
+             LIMIT 21
+            """.formatted(VISIBLE));
+
+        assertThat(plan).contains("ix_job_offer_active_listing").doesNotContain("Sort");
+    }
+
+    @Test
+    void levelFilterUsesPartialIndex() {
+        String plan = explain("""
+            SELECT o.id FROM job_offer o
+             WHERE %s
+               AND (o.level = 'SENIOR'
+                    OR EXISTS (SELECT 1 FROM job_offer g
+                                WHERE g.dedupe_hash = o.dedupe_hash AND g.active AND g.level = 'SENIOR'))
+             ORDER BY o.published_at DESC, o.id DESC
+             LIMIT 21
+            """.formatted(VISIBLE));
+
+        assertThat(plan).containsPattern("ix_job_offer_active_(level_)?listing").doesNotContain("Seq Scan on job_offer");
+    }
+
+    @Test
+    void cityFilterAvoidsOfferTableScan() {
+        String plan = explain("""
+            SELECT o.id FROM job_offer o
+              LEFT JOIN city c ON c.id = o.city_id
+             WHERE %s AND lower(c.name) = 'kraków'
+             ORDER BY o.published_at DESC, o.id DESC
+             LIMIT 21
+            """.formatted(VISIBLE));
+
+        assertThat(plan).doesNotContain("Seq Scan on job_offer");
+    }
+
+    @Test
+    void salarySortReadsTheSalaryIndexInOrder() {
+        String plan = explain("""
+            SELECT o.id FROM job_offer o
+             WHERE %s
+             ORDER BY o.effective_salary_upper DESC NULLS LAST, o.effective_salary_lower DESC NULLS LAST,
+                      o.published_at DESC, o.id DESC
+             LIMIT 21
+            """.formatted(VISIBLE));
+
+        assertThat(plan).contains("ix_job_offer_active_effective_salary_listing").doesNotContain("Sort");
+    }
+
+    @Test
+    void salaryRangeUsesExpressionIndexes() {
+        String plan = explain("""
+            SELECT o.id FROM job_offer o
+             WHERE %s AND o.effective_salary_upper >= 30000 AND o.effective_salary_lower <= 32000
+             ORDER BY o.published_at DESC, o.id DESC
+             LIMIT 21
+            """.formatted(VISIBLE));
+
+        assertThat(plan).containsPattern("ix_job_offer_active_(effective_salary_listing|effective_salary_lower|listing)")
+                .doesNotContain("Seq Scan on job_offer");
+    }
+
+    @Test
+    void staleSweepAvoidsOfferTableScan() {
+        String plan = explain("""
+            SELECT o.id FROM job_offer o
+             WHERE o.source = 'JUSTJOIN' AND o.active AND o.last_seen_at < now() - interval '100 hours'
+             ORDER BY o.id
+             LIMIT 500
+            """);
+
+        assertThat(plan).doesNotContain("Seq Scan on job_offer");
+    }
+
+    private String explain(String sql) {
+        String plan = String.join("\n", jdbc.queryForList("EXPLAIN (ANALYZE, BUFFERS) " + sql, String.class));
+        log.info("[explain]\n{}\n{}", sql.strip(), plan);
+        return plan;
+    }
+}
@@ -0,0 +1,199 @@
+package com.milosz.podsiadly.backend.job.service.index;
+
+import com.milosz.podsiadly.backend.job.domain.ContractType;
+import com.milosz.podsiadly.backend.job.domain.JobLevel;
+import com.milosz.podsiadly.backend.job.service.JobOfferCursor;
+import com.milosz.podsiadly.backend.job.service.JobOfferSearchFilter;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OfferColumnsTests {
+
+    private static final JobOfferSearchFilter ALL =
+            JobOfferSearchFilter.of(null, null, null, null, null, null, null, null, null, null, false);
+
+    private final List<IndexedOffer> rows = offers(500);
+    private final Map<Long, IndexedOffer> byId = new HashMap<>();
+
+    {
+        rows.forEach(r -> byId.put(r.id(), r));
+    }
+
+    @Test
+    void dateCursorWalkMatchesOffsetOrder() {
+        OfferColumns columns = new OfferColumns(rows);
+
+        List<Long> expected = columns.collect(columns.match(ALL), false, 0, Integer.MAX_VALUE);
+
+        assertThat(expected).hasSize(rows.size());
+        assertThat(walk(columns, ALL, false, 37)).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void salaryCursorWalkMatchesOffsetOrder() {
+        OfferColumns columns = new OfferColumns(rows);
+
+        List<Long> expected = columns.collect(columns.match(ALL), true, 0, Integer.MAX_VALUE);
+
+        assertThat(expected).hasSize(rows.size());
+        assertThat(walk(columns, ALL, true, 37)).containsExactlyElementsOf(expected);
+        assertThat(expected.subList(expected.size() - 10, expected.size()))
+                .allSatisfy(id -> assertThat(byId.get(id).upperSalary()).isNull());
+    }
+
+    @Test
+    void filteredCursorWalkOnlyReturnsMatches() {
+        OfferColumns columns = new OfferColumns(rows);
+        JobOfferSearchFilter seniorInKrakow = JobOfferSearchFilter.of(
+                null, "Kraków", null, JobLevel.SENIOR, null, 9_000, null, null,
+                List.of(ContractType.UOP), null, false);
+
+        List<Long> expected = columns.collect(columns.match(seniorInKrakow), true, 0, Integer.MAX_VALUE);
+
+        assertThat(expected).isNotEmpty().allSatisfy(id -> {
+            IndexedOffer o = byId.get(id);
+            assertThat(o.levels()).contains(JobLevel.SENIOR);
+            assertThat(o.cityLower()).isEqualTo("kraków");
+            assertThat(o.upperSalary()).isGreaterThanOrEqualTo(9_000);
+            assertThat(o.contracts()).contains(ContractType.UOP);
+        });
+        assertThat(walk(columns, seniorInKrakow, true, 3)).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void offerMatchesEveryLevelOfItsGroup() {
+        OfferColumns columns = new OfferColumns(rows);
+        IndexedOffer duplicated = byId.get(7L);
+
+        assertThat(duplicated.levels()).hasSize(2);
+        for (JobLevel level : duplicated.levels()) {
+            JobOfferSearchFilter byLevel = JobOfferSearchFilter.of(
+                    null, null, null, level, null, null, null, null, null, null, false);
+            assertThat(columns.collect(columns.match(byLevel), false, 0, Integer.MAX_VALUE)).contains(7L);
+        }
+    }
+
+    @Test
+    void deltasMatchAFullBuild() {
+        OfferColumns columns = new OfferColumns(rows);
+        Map<Long, IndexedOffer> current = new LinkedHashMap<>(byId);
+
+        Random rnd = new Random(11);
+        long nextId = rows.size() + 1;
+        for (int tick = 0; tick < 20; tick++) {
+            List<Long> removed = new ArrayList<>();
+            List<IndexedOffer> upserts = new ArrayList<>();
+            Set<Long> touched = new HashSet<>();
+            List<Long> known = new ArrayList<>(current.keySet());
+            for (int k = 0; k < 15; k++) {
+                long id = known.get(rnd.nextInt(known.size()));
+                if (!touched.add(id)) continue;
+                if (rnd.nextBoolean()) {
+                    removed.add(id);
+                    current.remove(id);
+                } else {
+                    IndexedOffer changed = withDateAndSalary(current.get(id), rnd);
+                    upserts.add(changed);
+                    current.put(id, changed);
+                }
+            }
+            for (int k = 0; k < 10; k++) {
+                IndexedOffer added = withDateAndSalary(offers(1).get(0), rnd, nextId++);
+                upserts.add(added);
+                current.put(added.id(), added);
+            }
+            columns = columns.withChanges(removed, upserts);
+            current.values().forEach(r -> byId.put(r.id(), r));
+        }
+
+        OfferColumns rebuilt = new OfferColumns(current.values());
+        JobOfferSearchFilter remoteSenior = JobOfferSearchFilter.of(
+                null, null, true, JobLevel.SENIOR, null, null, null, null, null, null, false);
+
+        assertThat(columns.size()).isEqualTo(current.size());
+        assertThat(columns.deadPositions()).isGreaterThan(0);
+        for (JobOfferSearchFilter f : List.of(ALL, remoteSenior)) {
+            for (boolean salarySort : new boolean[]{false, true}) {
+                List<Long> expected = rebuilt.collect(rebuilt.match(f), salarySort, 0, Integer.MAX_VALUE);
+                assertThat(columns.collect(columns.match(f), salarySort, 0, Integer.MAX_VALUE))
+                        .containsExactlyElementsOf(expected);
+                assertThat(walk(columns, f, salarySort, 25)).containsExactlyElementsOf(expected);
+            }
+        }
+    }
+
+    private static IndexedOffer withDateAndSalary(IndexedOffer o, Random rnd) {
+        return withDateAndSalary(o, rnd, o.id());
+    }
+
+    private static IndexedOffer withDateAndSalary(IndexedOffer o, Random rnd, long id) {
+        Integer lower = 5_000 + rnd.nextInt(10) * 1_000;
+        return new IndexedOffer(
+                id, o.titleLower(), o.cityLower(), rnd.nextBoolean(), o.levels(),
+                lower + 2_000, lower, true,
+                Instant.parse("2025-01-01T00:00:00Z").toEpochMilli() + rnd.nextInt(40) * 60_000L,
+                o.techTagIds(), o.contracts());
+    }
+
+    private List<Long> walk(OfferColumns columns, JobOfferSearchFilter filter, boolean salarySort, int pageSize) {
+        BitSet matches = columns.match(filter);
+        List<Long> out = new ArrayList<>(columns.collect(matches, salarySort, 0, pageSize));
+        while (!out.isEmpty()) {
+            List<Long> page = columns.collectAfter(matches, cursorAt(out.get(out.size() - 1), salarySort), pageSize);
+            if (page.isEmpty()) break;
+            out.addAll(page);
+        }
+        return out;
+    }
+
+    private JobOfferCursor cursorAt(long id, boolean salarySort) {
+        IndexedOffer o = byId.get(id);
+        Instant published = o.publishedAtMillis() != OfferColumns.NO_DATE
+                ? Instant.ofEpochMilli(o.publishedAtMillis())
+                : null;
+        return new JobOfferCursor(
+                salarySort,
+                salarySort ? o.upperSalary() : null,
+                salarySort ? o.lowerSalary() : null,
+                published,
+                o.id());
+    }
+
+    // every seventh offer has a duplicate parsed with a different level
+    private static Set<JobLevel> levelsOf(int i) {
+        JobLevel[] all = JobLevel.values();
+        return i % 7 == 0
+                ? EnumSet.of(all[i % all.length], all[(i + 1) % all.length])
+                : EnumSet.of(all[i % all.length]);
+    }
+
+    private static List<IndexedOffer> offers(int n) {
+        String[] cities = {"warszawa", "kraków", "wrocław", null};
+        Random rnd = new Random(7);
+        long base = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+        List<IndexedOffer> out = new ArrayList<>(n);
+        for (int i = 1; i <= n; i++) {
+            boolean salary = i % 4 != 0;
+            Integer lower = salary ? 5_000 + rnd.nextInt(10) * 1_000 : null;
+            Integer upper = salary ? lower + rnd.nextInt(3) * 1_000 : null;
+            out.add(new IndexedOffer(
+                    i,
+                    "offer " + i,
+                    cities[i % cities.length],
+                    i % 3 == 0,
+                    levelsOf(i),
+                    upper,
+                    lower,
+                    salary,
+                    i % 50 == 0 ? OfferColumns.NO_DATE : base + rnd.nextInt(20) * 60_000L,
+                    Set.of(i % 5),
+                    EnumSet.of(i % 2 == 0 ? ContractType.B2B : ContractType.UOP)
+            ));
+        }
+        return out;
+    }
+}
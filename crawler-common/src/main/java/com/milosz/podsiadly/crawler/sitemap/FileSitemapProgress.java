@@ -0,0 +1,75 @@
+package com.milosz.podsiadly.crawler.sitemap;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * {@link SitemapProgress} for processes without a database: one append-only file per walk, one
+ * completed sitemap URL per line. A file not touched within {@code resumeWindow} is ignored.
+ */
+@Slf4j
+public class FileSitemapProgress implements SitemapProgress {
+
+    private final Path dir;
+    private final Duration resumeWindow;
+
+    public FileSitemapProgress(Path dir, Duration resumeWindow) {
+        this.dir = dir;
+        this.resumeWindow = resumeWindow;
+    }
+
+    @Override
+    public Set<String> completed(String walkKey) {
+        Path file = fileFor(walkKey);
+        try {
+            if (!Files.exists(file)) return Set.of();
+            Instant modified = Files.getLastModifiedTime(file).toInstant();
+            if (modified.isBefore(Instant.now().minus(resumeWindow))) {
+                Files.deleteIfExists(file);
+                return Set.of();
+            }
+            Set<String> done = new HashSet<>(Files.readAllLines(file, StandardCharsets.UTF_8));
+            done.remove("");
+            log.info("[sitemap] resuming walk={} completedSitemaps={}", walkKey, done.size());
+            return done;
+        } catch (IOException e) {
+            log.warn("[sitemap] progress unreadable walk={} err={}", walkKey, e.toString());
+            return Set.of();
+        }
+    }
+
+    @Override
+    public synchronized void markCompleted(String walkKey, String sitemapUrl) {
+        try {
+            Files.createDirectories(dir);
+            Files.writeString(fileFor(walkKey), sitemapUrl + "\n", StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            log.warn("[sitemap] progress write failed walk={} err={}", walkKey, e.toString());
+        }
+    }
+
+    @Override
+    public void finish(String walkKey) {
+        try {
+            Files.deleteIfExists(fileFor(walkKey));
+        } catch (IOException e) {
+            log.warn("[sitemap] progress cleanup failed walk={} err={}", walkKey, e.toString());
+        }
+    }
+
+    private Path fileFor(String walkKey) {
+        String name = UUID.nameUUIDFromBytes(walkKey.getBytes(StandardCharsets.UTF_8)) + ".progress";
+        return dir.resolve(name);
+    }
+}
@@ -0,0 +1,54 @@
+package com.milosz.podsiadly.crawler.sitemap;
+
+import com.google.common.util.concurrent.RateLimiter;
+
+import java.net.URI;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Per-host politeness: caps open connections and request rate for each host independently, so a
+ * parallel walk over several hosts never hammers a single one. A rate of 0 means unlimited.
+ */
+public class HostLimiter {
+
+    /** Held for the lifetime of one request; closing it frees the host slot. */
+    public interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private record Slot(Semaphore connections, RateLimiter rate) {}
+
+    private final int maxConcurrentPerHost;
+    private final double permitsPerSecond;
+    private final Map<String, Slot> slots = new ConcurrentHashMap<>();
+
+    public HostLimiter(int maxConcurrentPerHost, double permitsPerSecond) {
+        this.maxConcurrentPerHost = Math.max(1, maxConcurrentPerHost);
+        this.permitsPerSecond = permitsPerSecond;
+    }
+
+    public Permit acquire(String url) throws InterruptedException {
+        Slot slot = slots.computeIfAbsent(hostOf(url), h -> new Slot(
+                new Semaphore(maxConcurrentPerHost, true),
+                permitsPerSecond > 0 ? RateLimiter.create(permitsPerSecond) : null));
+
+        slot.connections().acquire();
+        if (slot.rate() != null) {
+            slot.rate().acquire();
+        }
+        return slot.connections()::release;
+    }
+
+    static String hostOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host != null ? host.toLowerCase(Locale.ROOT) : "";
+        } catch (Exception e) {
+            return "";
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.milosz.podsiadly.crawler.sitemap;
+
+import java.util.Set;
+
+/**
+ * Remembers which leaf sitemaps of a walk already finished, so a walk interrupted by a crash or
+ * redeploy resumes where it stopped instead of refetching every child. Implementations decide how
+ * long an unfinished walk stays resumable.
+ */
+public interface SitemapProgress {
+
+    /** Leaf sitemaps completed by the unfinished walk of {@code walkKey}, if it is still fresh. */
+    Set<String> completed(String walkKey);
+
+    void markCompleted(String walkKey, String sitemapUrl);
+
+    /** Called once a walk finishes without failures; the next walk starts from scratch. */
+    void finish(String walkKey);
+
+    static SitemapProgress none() {
+        return new SitemapProgress() {
+            @Override
+            public Set<String> completed(String walkKey) {
+                return Set.of();
+            }
+
+            @Override
+            public void markCompleted(String walkKey, String sitemapUrl) {
+            }
+
+            @Override
+            public void finish(String walkKey) {
+            }
+        };
+    }
+}
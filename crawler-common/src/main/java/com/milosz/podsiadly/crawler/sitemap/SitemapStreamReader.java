@@ -0,0 +1,111 @@
+package com.milosz.podsiadly.crawler.sitemap;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Pull-parses sitemap XML ({@code urlset} and {@code sitemapindex}) without building a DOM, so memory
+ * stays flat regardless of sitemap size. Entries are handed out one by one as they are read.
+ * Instances are thread-safe.
+ */
+public class SitemapStreamReader {
+
+    public record Entry(String loc, Instant lastmod) {}
+
+    public interface Handler {
+        void url(Entry entry);
+
+        void sitemap(Entry entry);
+    }
+
+    private final XMLInputFactory factory;
+
+    public SitemapStreamReader() {
+        factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+    }
+
+    public void read(InputStream in, Handler handler) throws IOException {
+        XMLStreamReader r = null;
+        try {
+            r = factory.createXMLStreamReader(in);
+
+            boolean inIndex = false;
+            String loc = null;
+            String lastmod = null;
+            StringBuilder text = new StringBuilder();
+
+            while (r.hasNext()) {
+                switch (r.next()) {
+                    case XMLStreamConstants.START_ELEMENT -> {
+                        String name = r.getLocalName();
+                        if ("sitemapindex".equals(name)) {
+                            inIndex = true;
+                        } else if ("url".equals(name) || "sitemap".equals(name)) {
+                            loc = null;
+                            lastmod = null;
+                        }
+                        text.setLength(0);
+                    }
+                    case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA -> text.append(r.getText());
+                    case XMLStreamConstants.END_ELEMENT -> {
+                        switch (r.getLocalName()) {
+                            case "loc" -> loc = text.toString().trim();
+                            case "lastmod" -> lastmod = text.toString().trim();
+                            case "url", "sitemap" -> {
+                                if (loc != null && !loc.isEmpty()) {
+                                    Entry e = new Entry(loc, parseLastmod(lastmod));
+                                    if (inIndex) handler.sitemap(e);
+                                    else handler.url(e);
+                                }
+                                loc = null;
+                                lastmod = null;
+                            }
+                            default -> { }
+                        }
+                        text.setLength(0);
+                    }
+                    default -> { }
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Malformed sitemap: " + e.getMessage(), e);
+        } finally {
+            if (r != null) {
+                try {
+                    r.close();
+                } catch (XMLStreamException ignored) {
+                }
+            }
+        }
+    }
+
+    /** W3C datetime as used by sitemaps: full timestamp with offset, or a bare date. */
+    static Instant parseLastmod(String raw) {
+        if (raw == null || raw.isBlank()) return null;
+        try {
+            return OffsetDateTime.parse(raw).toInstant();
+        } catch (Exception ignored) {
+        }
+        try {
+            return Instant.parse(raw);
+        } catch (Exception ignored) {
+        }
+        try {
+            return LocalDate.parse(raw.length() >= 10 ? raw.substring(0, 10) : raw)
+                    .atStartOfDay(ZoneOffset.UTC).toInstant();
+        } catch (Exception ignored) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.milosz.podsiadly.crawler.sitemap;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+/**
+ * Walks a sitemap (or sitemap index tree) with up to {@code parallelism} documents in flight,
+ * subject to the {@link HostLimiter}. A single coordinating thread owns the frontier; fetching
+ * and parsing happen on the executor.
+ * <p>
+ * URL entries go to a {@link Sink} obtained per leaf sitemap. Each sink is used by one thread
+ * only, but sinks of different sitemaps run concurrently, so whatever they share must be
+ * thread-safe. Leaves are recorded in {@link SitemapProgress} once their sink has ended.
+ */
+@Slf4j
+public class SitemapWalker {
+
+    @FunctionalInterface
+    public interface Fetcher {
+        InputStream open(String url) throws IOException;
+    }
+
+    public interface Sink {
+        void url(SitemapStreamReader.Entry entry);
+
+        default void end() {
+        }
+    }
+
+    public record Result(long sitemaps, long urls, long resumedSkipped, long failed) {}
+
+    private record Outcome(String url, List<String> children, long urls, Exception error) {}
+
+    private static final SitemapStreamReader READER = new SitemapStreamReader();
+
+    private final Executor executor;
+    private final HostLimiter limiter;
+    private final Fetcher fetcher;
+    private final SitemapProgress progress;
+    private final int parallelism;
+
+    public SitemapWalker(Executor executor, HostLimiter limiter, Fetcher fetcher,
+                         SitemapProgress progress, int parallelism) {
+        this.executor = executor;
+        this.limiter = limiter;
+        this.fetcher = fetcher;
+        this.progress = progress;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    public Result walk(String rootUrl, Function<String, Sink> sinks) {
+        return walk(rootUrl, List.of(rootUrl), sinks);
+    }
+
+    /**
+     * @param walkKey identifies the walk for resumable progress (usually the root sitemap URL)
+     * @param start   sitemaps to begin with; indexes found along the way are expanded
+     */
+    public Result walk(String walkKey, Collection<String> start, Function<String, Sink> sinks) {
+        Set<String> done = progress.completed(walkKey);
+        Set<String> visited = new HashSet<>();
+        Deque<String> frontier = new ArrayDeque<>();
+        for (String url : start) {
+            if (visited.add(url)) frontier.add(url);
+        }
+
+        BlockingQueue<Outcome> outcomes = new LinkedBlockingQueue<>();
+        int inFlight = 0;
+        long sitemaps = 0, urls = 0, skipped = 0, failed = 0;
+        boolean interrupted = false;
+
+        while (!frontier.isEmpty() || inFlight > 0) {
+            while (inFlight < parallelism && !frontier.isEmpty()) {
+                String url = frontier.poll();
+                if (done.contains(url)) {
+                    skipped++;
+                    continue;
+                }
+                try {
+                    executor.execute(() -> outcomes.add(visit(url, sinks)));
+                    inFlight++;
+                } catch (RejectedExecutionException e) {
+                    log.warn("[sitemap] fetch rejected url={} err={}", url, e.toString());
+                    failed++;
+                }
+            }
+            if (inFlight == 0) break;
+
+            Outcome o;
+            try {
+                o = outcomes.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                interrupted = true;
+                break;
+            }
+            inFlight--;
+
+            if (o.error() != null) {
+                failed++;
+                log.warn("[sitemap] failed url={} err={}", o.url(), o.error().toString());
+                continue;
+            }
+
+            sitemaps++;
+            urls += o.urls();
+            if (o.children().isEmpty()) {
+                progress.markCompleted(walkKey, o.url());
+            }
+            for (String child : o.children()) {
+                if (visited.add(child)) frontier.add(child);
+            }
+        }
+
+        if (failed == 0 && !interrupted) {
+            progress.finish(walkKey);
+        }
+
+        Result result = new Result(sitemaps, urls, skipped, failed);
+        log.info("[sitemap] walk={} sitemaps={} urls={} resumedSkipped={} failed={}",
+                walkKey, result.sitemaps(), result.urls(), result.resumedSkipped(), result.failed());
+        return result;
+    }
+
+    private Outcome visit(String url, Function<String, Sink> sinks) {
+        List<String> children = new ArrayList<>();
+        long[] count = {0};
+        Sink[] sink = {null};
+
+        try (HostLimiter.Permit ignored = limiter.acquire(url);
+             InputStream in = fetcher.open(url)) {
+
+            READER.read(in, new SitemapStreamReader.Handler() {
+                @Override
+                public void url(SitemapStreamReader.Entry entry) {
+                    if (sink[0] == null) sink[0] = sinks.apply(url);
+                    sink[0].url(entry);
+                    count[0]++;
+                }
+
+                @Override
+                public void sitemap(SitemapStreamReader.Entry entry) {
+                    children.add(entry.loc());
+                }
+            });
+            if (sink[0] != null) sink[0].end();
+
+            log.debug("[sitemap] done url={} urls={} children={}", url, count[0], children.size());
+            return new Outcome(url, children, count[0], null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Outcome(url, List.of(), count[0], e);
+        } catch (Exception e) {
+            return new Outcome(url, List.of(), count[0], e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.milosz.podsiadly.crawler.sitemap;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileSitemapProgressTests {
+
+    private static final String WALK = "https://jobs.example.com/sitemap.xml";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void remembersCompletedSitemapsPerWalk() {
+        FileSitemapProgress progress = new FileSitemapProgress(dir, Duration.ofHours(1));
+
+        progress.markCompleted(WALK, "https://jobs.example.com/sitemap-1.xml");
+        progress.markCompleted(WALK, "https://jobs.example.com/sitemap-2.xml");
+        progress.markCompleted("https://other.example.com/sitemap.xml", "https://other.example.com/sitemap-1.xml");
+
+        FileSitemapProgress restarted = new FileSitemapProgress(dir, Duration.ofHours(1));
+        assertThat(restarted.completed(WALK)).containsExactlyInAnyOrder(
+                "https://jobs.example.com/sitemap-1.xml",
+                "https://jobs.example.com/sitemap-2.xml");
+    }
+
+    @Test
+    void finishStartsTheNextWalkFromScratch() {
+        FileSitemapProgress progress = new FileSitemapProgress(dir, Duration.ofHours(1));
+        progress.markCompleted(WALK, "https://jobs.example.com/sitemap-1.xml");
+
+        progress.finish(WALK);
+
+        assertThat(progress.completed(WALK)).isEmpty();
+    }
+
+    @Test
+    void staleProgressIsDiscarded() throws Exception {
+        FileSitemapProgress progress = new FileSitemapProgress(dir, Duration.ofHours(1));
+        progress.markCompleted(WALK, "https://jobs.example.com/sitemap-1.xml");
+        Path file = onlyFile();
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+
+        assertThat(progress.completed(WALK)).isEmpty();
+        assertThat(Files.exists(file)).isFalse();
+    }
+
+    private Path onlyFile() throws Exception {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.findFirst().orElseThrow();
+        }
+    }
+}
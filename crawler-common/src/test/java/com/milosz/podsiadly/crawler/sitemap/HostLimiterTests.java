@@ -0,0 +1,68 @@
+package com.milosz.podsiadly.crawler.sitemap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HostLimiterTests {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void capsConnectionsPerHostIndependently() throws Exception {
+        HostLimiter limiter = new HostLimiter(1, 0);
+
+        try (HostLimiter.Permit ignored = limiter.acquire("https://a.example.com/sitemap.xml")) {
+            Future<?> otherHost = executor.submit(() -> {
+                limiter.acquire("https://b.example.com/sitemap.xml").close();
+                return null;
+            });
+            otherHost.get(1, TimeUnit.SECONDS);
+
+            Future<?> sameHost = executor.submit(() -> {
+                limiter.acquire("https://A.example.com/other.xml").close();
+                return null;
+            });
+            assertThrows(TimeoutException.class, () -> sameHost.get(200, TimeUnit.MILLISECONDS));
+            sameHost.cancel(true);
+        }
+    }
+
+    @Test
+    void permitIsReleasedWhenTheRequestThrows() throws Exception {
+        HostLimiter limiter = new HostLimiter(1, 0);
+        String url = "https://a.example.com/sitemap.xml";
+
+        assertThrows(IOException.class, () -> {
+            try (HostLimiter.Permit ignored = limiter.acquire(url)) {
+                throw new IOException("connection reset");
+            }
+        });
+
+        Future<?> next = executor.submit(() -> {
+            limiter.acquire(url).close();
+            return null;
+        });
+        next.get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void hostOfIgnoresCaseAndToleratesGarbage() {
+        assertThat(HostLimiter.hostOf("https://Jobs.Example.COM/a?b=c")).isEqualTo("jobs.example.com");
+        assertThat(HostLimiter.hostOf("not a url")).isEqualTo("");
+    }
+}
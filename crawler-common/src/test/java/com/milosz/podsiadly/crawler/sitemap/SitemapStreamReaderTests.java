@@ -0,0 +1,76 @@
+package com.milosz.podsiadly.crawler.sitemap;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SitemapStreamReaderTests {
+
+    private final SitemapStreamReader reader = new SitemapStreamReader();
+    private final List<SitemapStreamReader.Entry> urls = new ArrayList<>();
+    private final List<SitemapStreamReader.Entry> sitemaps = new ArrayList<>();
+
+    @Test
+    void readsUrlEntriesWithLastmod() throws IOException {
+        read("""
+            <?xml version="1.0" encoding="UTF-8"?>
+            <urlset xmlns="http://www.sitemaps.org/schemas/sitemap/0.9">
+              <url><loc> https://jobs.example.com/offer/1 </loc><lastmod>2025-03-01T10:15:00+01:00</lastmod></url>
+              <url><loc><![CDATA[https://jobs.example.com/offer/2?a=1&b=2]]></loc></url>
+              <url><loc></loc></url>
+            </urlset>
+            """);
+
+        assertThat(sitemaps).isEmpty();
+        assertThat(urls).containsExactly(
+                new SitemapStreamReader.Entry("https://jobs.example.com/offer/1", Instant.parse("2025-03-01T09:15:00Z")),
+                new SitemapStreamReader.Entry("https://jobs.example.com/offer/2?a=1&b=2", null));
+    }
+
+    @Test
+    void readsIndexEntriesAsSitemaps() throws IOException {
+        read("""
+            <sitemapindex xmlns="http://www.sitemaps.org/schemas/sitemap/0.9">
+              <sitemap><loc>https://jobs.example.com/sitemap-1.xml</loc><lastmod>2025-03-01</lastmod></sitemap>
+            </sitemapindex>
+            """);
+
+        assertThat(urls).isEmpty();
+        assertThat(sitemaps).containsExactly(
+                new SitemapStreamReader.Entry("https://jobs.example.com/sitemap-1.xml", Instant.parse("2025-03-01T00:00:00Z")));
+    }
+
+    @Test
+    void malformedXmlIsAnIoException() {
+        assertThrows(IOException.class, () -> read("<urlset><url><loc>https://jobs.example.com/offer/1</url>"));
+    }
+
+    @Test
+    void unparseableLastmodIsDropped() {
+        assertThat(SitemapStreamReader.parseLastmod("yesterday")).isNull();
+        assertThat(SitemapStreamReader.parseLastmod(" ")).isNull();
+        assertThat(SitemapStreamReader.parseLastmod("2025-03-01T10:15:00Z")).isEqualTo(Instant.parse("2025-03-01T10:15:00Z"));
+    }
+
+    private void read(String xml) throws IOException {
+        reader.read(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), new SitemapStreamReader.Handler() {
+            @Override
+            public void url(SitemapStreamReader.Entry entry) {
+                urls.add(entry);
+            }
+
+            @Override
+            public void sitemap(SitemapStreamReader.Entry entry) {
+                sitemaps.add(entry);
+            }
+        });
+    }
+}
@@ -0,0 +1,156 @@
+package com.milosz.podsiadly.crawler.sitemap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class SitemapWalkerTests {
+
+    private static final String ROOT = "https://jobs.example.com/sitemap.xml";
+    private static final String NESTED = "https://jobs.example.com/sitemap-archive.xml";
+    private static final String LEAF_1 = "https://jobs.example.com/sitemap-1.xml";
+    private static final String LEAF_2 = "https://jobs.example.com/sitemap-2.xml";
+    private static final String LEAF_3 = "https://jobs.example.com/sitemap-3.xml";
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final FakeFetcher fetcher = new FakeFetcher();
+    private final RecordingProgress progress = new RecordingProgress();
+    private final Map<String, List<String>> received = new ConcurrentHashMap<>();
+
+    {
+        fetcher.documents.put(ROOT, index(LEAF_1, NESTED));
+        fetcher.documents.put(NESTED, index(LEAF_2, LEAF_3));
+        fetcher.documents.put(LEAF_1, urlset("https://jobs.example.com/offer/1", "https://jobs.example.com/offer/2"));
+        fetcher.documents.put(LEAF_2, urlset("https://jobs.example.com/offer/3"));
+        fetcher.documents.put(LEAF_3, urlset("https://jobs.example.com/offer/4", "https://jobs.example.com/offer/5"));
+    }
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void expandsNestedIndexesIntoLeafSitemaps() {
+        SitemapWalker.Result result = walker(new HostLimiter(2, 0)).walk(ROOT, this::sink);
+
+        assertThat(result.sitemaps()).isEqualTo(5L);
+        assertThat(result.urls()).isEqualTo(5L);
+        assertThat(result.failed()).isEqualTo(0L);
+        assertThat(received.keySet()).containsExactlyInAnyOrder(LEAF_1, LEAF_2, LEAF_3);
+        assertThat(received.get(LEAF_3))
+                .containsExactly("https://jobs.example.com/offer/4", "https://jobs.example.com/offer/5");
+        assertThat(progress.marked).containsExactlyInAnyOrder(LEAF_1, LEAF_2, LEAF_3);
+        assertThat(progress.finished).isTrue();
+    }
+
+    @Test
+    void failedLeafIsNotMarkedCompleted() {
+        fetcher.failing.add(LEAF_2);
+
+        SitemapWalker.Result result = walker(new HostLimiter(2, 0)).walk(ROOT, this::sink);
+
+        assertThat(result.failed()).isEqualTo(1L);
+        assertThat(result.urls()).isEqualTo(4L);
+        assertThat(progress.marked).containsExactlyInAnyOrder(LEAF_1, LEAF_3);
+        assertThat(progress.finished).isFalse();
+    }
+
+    @Test
+    void resumeSkipsCompletedLeaves() {
+        progress.completed.add(LEAF_1);
+
+        SitemapWalker.Result result = walker(new HostLimiter(2, 0)).walk(ROOT, this::sink);
+
+        assertThat(result.resumedSkipped()).isEqualTo(1L);
+        assertThat(result.urls()).isEqualTo(3L);
+        assertThat(fetcher.opened).doesNotContain(LEAF_1);
+        assertThat(received.keySet()).containsExactlyInAnyOrder(LEAF_2, LEAF_3);
+        assertThat(progress.finished).isTrue();
+    }
+
+    @Test
+    void failingFetchesReleaseTheHostPermit() {
+        fetcher.failing.addAll(List.of(LEAF_1, LEAF_2, LEAF_3));
+        HostLimiter limiter = new HostLimiter(1, 0);
+
+        // with one connection per host a leaked permit would block the next fetch forever
+        SitemapWalker.Result result = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> walker(limiter).walk(ROOT, this::sink));
+
+        assertThat(result.failed()).isEqualTo(3L);
+        assertThat(fetcher.opened).contains(LEAF_1, LEAF_2, LEAF_3);
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> limiter.acquire(ROOT).close());
+    }
+
+    private SitemapWalker walker(HostLimiter limiter) {
+        return new SitemapWalker(executor, limiter, fetcher, progress, 3);
+    }
+
+    private SitemapWalker.Sink sink(String sitemap) {
+        List<String> urls = received.computeIfAbsent(sitemap, k -> new CopyOnWriteArrayList<>());
+        return entry -> urls.add(entry.loc());
+    }
+
+    private static String index(String... sitemaps) {
+        StringBuilder xml = new StringBuilder("<sitemapindex xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">");
+        for (String loc : sitemaps) xml.append("<sitemap><loc>").append(loc).append("</loc></sitemap>");
+        return xml.append("</sitemapindex>").toString();
+    }
+
+    private static String urlset(String... urls) {
+        StringBuilder xml = new StringBuilder("<urlset xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">");
+        for (String loc : urls) xml.append("<url><loc>").append(loc).append("</loc></url>");
+        return xml.append("</urlset>").toString();
+    }
+
+    private static class FakeFetcher implements SitemapWalker.Fetcher {
+        final Map<String, String> documents = new ConcurrentHashMap<>();
+        final Set<String> failing = ConcurrentHashMap.newKeySet();
+        final List<String> opened = new CopyOnWriteArrayList<>();
+
+        @Override
+        public InputStream open(String url) throws IOException {
+            opened.add(url);
+            if (failing.contains(url)) throw new IOException("HTTP 503 for " + url);
+            String xml = documents.get(url);
+            if (xml == null) throw new FileNotFoundException(url);
+            return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static class RecordingProgress implements SitemapProgress {
+        final Set<String> completed = new HashSet<>();
+        final List<String> marked = new CopyOnWriteArrayList<>();
+        volatile boolean finished;
+
+        @Override
+        public Set<String> completed(String walkKey) {
+            return completed;
+        }
+
+        @Override
+        public void markCompleted(String walkKey, String sitemapUrl) {
+            marked.add(sitemapUrl);
+        }
+
+        @Override
+        public void finish(String walkKey) {
+            finished = true;
+        }
+    }
+}